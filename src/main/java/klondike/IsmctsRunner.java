@@ -0,0 +1,91 @@
+package klondike;
+
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.solver.IsmctsPlayer;
+import klondike.solver.RolloutPolicies;
+
+/**
+ * Lets the information-set search play seeded Basic deals on its own, with no view, and reports
+ * how many it wins and how fast it moves. A game ends when it is won, when there are no legal
+ * moves, or when 100 moves go by without a card reaching a foundation.
+ *
+ * <p>The optional arguments are, in order: the number of deals (20), the iterations per move
+ * (2000), the number of tasks per search (one per core), the time budget per move in
+ * milliseconds (1000), and the number of draw cards (3). Deal {@code n} is dealt with seed
+ * {@code n}, so runs can be compared.</p>
+ */
+public final class IsmctsRunner {
+  private static final int STALL_MOVES = 100;
+
+  private IsmctsRunner() {
+  }
+
+  /**
+   * Plays the deals and prints a line for each, then the totals.
+   *
+   * @param args the optional settings described above
+   */
+  public static void main(String[] args) {
+    int deals = (int) IsmctsRunner.getArg(args, 0, 20);
+    long iterations = IsmctsRunner.getArg(args, 1, 2000);
+    int tasks = (int) IsmctsRunner.getArg(args, 2, Runtime.getRuntime().availableProcessors());
+    long budgetMillis = IsmctsRunner.getArg(args, 3, 1000);
+    int numDraw = (int) IsmctsRunner.getArg(args, 4, 3);
+    IsmctsPlayer player = new IsmctsPlayer(RolloutPolicies.greedy(), tasks, iterations,
+        budgetMillis * 1_000_000);
+    System.out.printf("Basic draw %d, %d iterations and %d tasks per move%n", numDraw,
+        iterations, tasks);
+
+    int wins = 0;
+    long moves = 0;
+    long nanos = 0;
+    for (long seed = 0; seed < deals; seed++) {
+      AbstractKlondike game = new BasicKlondike();
+      List<BasicCard> deck = game.createNewDeck();
+      game.startGame(deck, seed, 7, numDraw);
+      int made = 0;
+      int lastScored = 0;
+      long start = System.nanoTime();
+      while (game.getScore() < deck.size() && made - lastScored < STALL_MOVES) {
+        int move = player.chooseMove(game, deck, seed * 1_000_003 + made);
+        if (move == IsmctsPlayer.NO_MOVE) {
+          break;
+        }
+        int score = game.getScore();
+        KlondikeMoves.apply(game, move);
+        made++;
+        if (game.getScore() > score) {
+          lastScored = made;
+        }
+      }
+      long elapsed = System.nanoTime() - start;
+      boolean won = game.getScore() == deck.size();
+      wins += won ? 1 : 0;
+      moves += made;
+      nanos += elapsed;
+      System.out.printf("deal %3d: %-4s score %2d in %3d moves, %6.1f moves/s%n", seed,
+          won ? "won" : "lost", game.getScore(), made, made / (elapsed / 1e9));
+    }
+    System.out.printf("won %d of %d (%.1f%%), %.1f moves/s%n", wins, deals,
+        100.0 * wins / Math.max(1, deals), moves / (nanos / 1e9));
+  }
+
+  /**
+   * Returns the argument at the given index as a positive number, or the default if it is
+   * missing or not a positive number.
+   */
+  private static long getArg(String[] args, int index, long otherwise) {
+    try {
+      if (args.length > index && Long.parseLong(args[index]) > 0) {
+        return Long.parseLong(args[index]);
+      }
+      return otherwise;
+    } catch (NumberFormatException e) {
+      return otherwise;
+    }
+  }
+}
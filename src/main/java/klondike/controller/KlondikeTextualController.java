@@ -5,6 +5,10 @@ import java.util.List;
 import java.util.Scanner;
 import klondike.model.hw02.Card;
 import klondike.model.hw02.KlondikeModel;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.ReversibleKlondikeModel;
+import klondike.solver.HintEngine;
 import klondike.view.KlondikeTextualView;
 import klondike.view.TextualView;
 
@@ -12,9 +16,12 @@ import klondike.view.TextualView;
  * The controller for a Klondike game.
  */
 public class KlondikeTextualController implements KlondikeController {
+  private static final long HINT_BUDGET_NANOS = 20_000_000;
+
   Readable rd;
   Appendable ap;
   Scanner scan;
+  HintEngine hints;
 
 
   /**
@@ -32,6 +39,7 @@ public class KlondikeTextualController implements KlondikeController {
     this.rd = rd;
     this.ap = ap;
     this.scan = new Scanner(this.rd);
+    this.hints = new HintEngine(HINT_BUDGET_NANOS);
   }
 
 
@@ -127,6 +135,22 @@ public class KlondikeTextualController implements KlondikeController {
           model.discardDraw();
           break;
 
+        case "u":
+          if (!(model instanceof ReversibleKlondikeModel)) {
+            throw new IllegalStateException("This game cannot undo moves");
+          }
+          ((ReversibleKlondikeModel<?>) model).undo();
+          break;
+
+        case "h":
+          if (!(model instanceof AbstractKlondike)) {
+            throw new IllegalStateException("This game cannot give hints");
+          }
+          int hint = this.hints.hint((AbstractKlondike) model);
+          this.transmit(hint == HintEngine.NO_MOVE ? "Hint: no moves left"
+              : "Hint: " + KlondikeMoves.toString(hint));
+          break;
+
         default:
           throw new IllegalStateException("Invalid command passed into processCommand");
       }
@@ -217,7 +241,7 @@ public class KlondikeTextualController implements KlondikeController {
     String cmd = this.scan.next();
     this.checkQuit(cmd);
 
-    String[] possibleCmds = {"mpp", "md", "mpf", "mdf", "dd"};
+    String[] possibleCmds = {"mpp", "md", "mpf", "mdf", "dd", "u", "h"};
     for (String option : possibleCmds) {
       if (cmd.equals(option)) {
         return cmd;
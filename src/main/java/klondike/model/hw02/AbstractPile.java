@@ -1,29 +1,28 @@
 package klondike.model.hw02;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * An abstract class that uses two ArrayLists to keep track of the Cards in this pile and which are
- * visible.
+ * An abstract class that uses an ArrayList to keep track of the Cards in this pile. Face-down
+ * cards always form the bottom of a pile, so visibility is tracked by a single count of the
+ * face-down cards, and every card above them is face-up.
  */
 public abstract class AbstractPile<C extends Card> implements Pile<C> {
   private List<C> cards;
-  private List<Boolean> visibilityTracker;
+  private int faceDown;
 
   /**
-   * Creates an AbstractPile with a list of cards, and initializes the visibilityTracker to the
-   * same length with each Card assumed to be starting as face-up.
+   * Creates an AbstractPile with a list of cards, with each Card assumed to be starting as
+   * face-up.
    *
    * @param cards the cards in the Pile
    */
   public AbstractPile(ArrayList<C> cards) {
     this.cards = cards;
-    this.visibilityTracker = new ArrayList<>();
-
-    for (C card : cards) {
-      visibilityTracker.add(true);
-    }
+    this.faceDown = 0;
   }
 
   /**
@@ -31,7 +30,18 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
    */
   public AbstractPile() {
     this.cards = new ArrayList<>();
-    this.visibilityTracker = new ArrayList<>();
+    this.faceDown = 0;
+  }
+
+  /**
+   * Creates a copy of the given pile, with the same cards showing. The copy can be changed
+   * without affecting the original.
+   *
+   * @param other the pile to copy
+   */
+  public AbstractPile(AbstractPile<C> other) {
+    this.cards = new ArrayList<>(other.cards);
+    this.faceDown = other.faceDown;
   }
 
   /**
@@ -43,19 +53,65 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
     return new ArrayList<>(this.cards);
   }
 
+  /**
+   * Returns the Card at the top (end) of this Pile without copying anything.
+   *
+   * @return the top Card, or null if the Pile is empty
+   */
+  public C getTopCard() {
+    if (this.cards.isEmpty()) {
+      return null;
+    }
+    return this.cards.get(this.cards.size() - 1);
+  }
+
+  /**
+   * Returns the Card at the given index of this Pile without copying anything, whether or not
+   * it is visible. Assumes 0-indexing.
+   *
+   * @param cardIndex the index of the card in the pile, starting from 0 at the top.
+   * @return the Card at that index
+   * @throws IndexOutOfBoundsException if the index is not in the Pile
+   */
+  public C getCard(int cardIndex) throws IndexOutOfBoundsException {
+    return this.cards.get(cardIndex);
+  }
+
+  /**
+   * Determines whether this Pile has no Cards.
+   *
+   * @return whether it is empty
+   */
+  public boolean isEmpty() {
+    return this.cards.isEmpty();
+  }
+
+  /**
+   * Returns the index of the lowest visible Card, which is the number of face-down Cards.
+   *
+   * @return the index of the first visible Card
+   */
+  public int getFirstVisibleIndex() {
+    return this.faceDown;
+  }
+
+  /**
+   * Returns a read-only view of the visible Cards in this Pile, in order, without copying them.
+   * The view reflects later changes to the Pile, so it should not be kept past the next one.
+   *
+   * @return the visible Cards
+   */
+  public List<C> viewVisibleCards() {
+    return Collections.unmodifiableList(this.cards.subList(this.faceDown, this.cards.size()));
+  }
+
   /**
    * Counts the number of visible cards in the Pile.
    *
    * @return the count
    */
   public int countVisibleCards() {
-    int count = 0;
-    for (boolean value : this.visibilityTracker) {
-      if (value) {
-        count++;
-      }
-    }
-    return count;
+    return this.cards.size() - this.faceDown;
   }
 
   /**
@@ -65,7 +121,8 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
    * @return whether it is visible
    */
   public boolean isCardVisible(int cardIndex) {
-    return this.visibilityTracker.get(cardIndex);
+    Objects.checkIndex(cardIndex, this.cards.size());
+    return cardIndex >= this.faceDown;
   }
 
   /**
@@ -81,10 +138,14 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
    * Adds a Card to the end of the Pile, assumes it is NOT visible.
    *
    * @param card the card to add
+   * @throws IllegalStateException if the pile already has a face-up card
    */
-  public void buildPile(C card) {
+  public void buildPile(C card) throws IllegalStateException {
+    if (this.faceDown != this.cards.size()) {
+      throw new IllegalStateException("Cannot place a face-down card on a face-up card");
+    }
     this.cards.add(card);
-    this.visibilityTracker.add(false);
+    this.faceDown++;
   }
 
   /**
@@ -94,19 +155,15 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
    */
   public void addCard(C card) {
     this.cards.add(card);
-    this.visibilityTracker.add(true);
   }
 
   /**
-   * Removes the last instance of a specified Card. Also removes the matching visibility
-   * value in the tracker list.
+   * Removes the last instance of a specified Card.
    *
    * @param card the card to remove
    */
   public C removeCard(C card) {
-    int lastIndex = this.cards.lastIndexOf(card);
-    this.visibilityTracker.remove(lastIndex);
-    return this.cards.remove(lastIndex);
+    return this.removeIndex(this.cards.lastIndexOf(card));
   }
 
   /**
@@ -115,8 +172,11 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
    * @param toRemove the index to remove the Card at
    */
   public C removeIndex(int toRemove) {
-    this.visibilityTracker.remove(toRemove);
-    return this.cards.remove(toRemove);
+    C removed = this.cards.remove(toRemove);
+    if (toRemove < this.faceDown) {
+      this.faceDown--;
+    }
+    return removed;
   }
 
   /**
@@ -127,21 +187,16 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
   }
 
   /**
-   * Adds all the cards to this Pile in the given order, updating the visibilityTracker to
-   * consider the new cards all visible.
+   * Adds all the cards to this Pile in the given order, considering the new cards all visible.
    *
    * @param cards the cards to add
    */
   public void addAll(List<C> cards) {
     this.cards.addAll(cards);
-    for (C card : cards) {
-      this.visibilityTracker.add(true);
-    }
   }
 
   /**
    * Removes the last instance of each Card in this Pile that matches each Card in the given list.
-   * Also removes the matching values in the visibilityTracker.
    *
    * @param cards the cards to remove
    */
@@ -149,18 +204,62 @@ public abstract class AbstractPile<C extends Card> implements Pile<C> {
     for (C card : cards) {
       int lastIndex = this.cards.lastIndexOf(card);
       if (lastIndex >= 0) {
-        this.cards.remove(lastIndex);
-        this.visibilityTracker.remove(lastIndex);
+        this.removeIndex(lastIndex);
       }
     }
   }
 
   /**
-   * Reveals the card at the given index.
+   * Moves the top cards of this Pile onto the end of another Pile in one step, keeping their
+   * order. The cards are copied straight across and then cut from this Pile as a single range,
+   * so nothing is searched for and no list of the moving cards is built.
+   *
+   * @param numCards how many cards to move from the top of this Pile
+   * @param dest     the Pile to move the cards onto
+   * @throws IllegalArgumentException if dest is this Pile, or numCards is not between 1 and the
+   *                                  number of visible cards
+   */
+  public void moveTail(int numCards, Pile<C> dest) throws IllegalArgumentException {
+    if (dest == this || numCards < 1 || numCards > this.countVisibleCards()) {
+      throw new IllegalArgumentException("Cannot move " + numCards + " cards from this pile");
+    }
+    int start = this.cards.size() - numCards;
+    for (int index = start; index < this.cards.size(); index++) {
+      dest.addCard(this.cards.get(index));
+    }
+    this.cards.subList(start, this.cards.size()).clear();
+  }
+
+  /**
+   * Reveals the card at the given index. Since face-down cards only sit at the bottom of a pile,
+   * every card above it is revealed too.
    *
    * @param index the index to reveal a card at
    */
   public void revealIndex(int index) {
-    this.visibilityTracker.set(index, true);
+    Objects.checkIndex(index, this.cards.size());
+    this.faceDown = Math.min(this.faceDown, index);
+  }
+
+  /**
+   * Hides the card at the given index. Since face-down cards only sit at the bottom of a pile,
+   * every card below it is hidden too.
+   *
+   * @param index the index to hide a card at
+   */
+  public void hideIndex(int index) {
+    Objects.checkIndex(index, this.cards.size());
+    this.faceDown = Math.max(this.faceDown, index + 1);
+  }
+
+  /**
+   * Replaces the card at the given index with another, keeping whether it is face-up.
+   *
+   * @param index the index of the card to replace
+   * @param card  the card to put in its place
+   * @throws IndexOutOfBoundsException if the index is not in the Pile
+   */
+  public void replaceCard(int index, C card) throws IndexOutOfBoundsException {
+    this.cards.set(index, card);
   }
 }
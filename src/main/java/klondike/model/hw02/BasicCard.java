@@ -1,13 +1,27 @@
 package klondike.model.hw02;
 
-import java.util.Objects;
-
 /**
  * Represents a basic card that has no additional fields associated with it.
+ * Each (Rank, Suit) pair has one canonical, shared instance available through
+ * {@link BasicCard#of(Rank, Suit)}, so models can hand out the same card objects instead of
+ * allocating new ones, and comparing canonical cards only takes a reference check.
  */
 public class BasicCard implements PlayingCard {
+  private static final int NUM_RANKS = Rank.values().length;
+  private static final BasicCard[] CARDS = new BasicCard[Suit.values().length * NUM_RANKS];
+
+  static {
+    for (Suit suit : Suit.values()) {
+      for (Rank rank : Rank.values()) {
+        CARDS[suit.ordinal() * NUM_RANKS + rank.ordinal()] = new BasicCard(rank, suit);
+      }
+    }
+  }
+
   private final Rank num;
   private final Suit suit;
+  private final int id;
+  private final String display;
 
   /**
    * Constructor to make a BasicCard.
@@ -22,6 +36,8 @@ public class BasicCard implements PlayingCard {
     }
     this.num = num;
     this.suit = suit;
+    this.id = suit.ordinal() * NUM_RANKS + num.ordinal();
+    this.display = num.toString() + suit.toString();
   }
 
   /**
@@ -33,6 +49,54 @@ public class BasicCard implements PlayingCard {
     this(toCopy.getRank(), toCopy.getSuit());
   }
 
+  /**
+   * Returns the canonical shared card with the given rank and suit.
+   *
+   * @param num  represents the rank of the card
+   * @param suit represents the suit of the card
+   * @return the canonical card
+   * @throws IllegalArgumentException when an enum is null
+   */
+  public static BasicCard of(Rank num, Suit suit) throws IllegalArgumentException {
+    if (num == null || suit == null) {
+      throw new IllegalArgumentException("Card properties must not be null");
+    }
+    return CARDS[suit.ordinal() * NUM_RANKS + num.ordinal()];
+  }
+
+  /**
+   * Returns the canonical shared card with the given id.
+   *
+   * @param id the id of the card, as given by {@link BasicCard#getId()}
+   * @return the canonical card
+   * @throws IllegalArgumentException if there is no card with that id
+   */
+  public static BasicCard fromId(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= CARDS.length) {
+      throw new IllegalArgumentException("Invalid card id");
+    }
+    return CARDS[id];
+  }
+
+  /**
+   * Returns the number of distinct card ids.
+   *
+   * @return one more than the largest card id
+   */
+  public static int numIds() {
+    return CARDS.length;
+  }
+
+  /**
+   * Returns a small number identifying this card's rank and suit, from 0 (inclusive) to
+   * {@link BasicCard#numIds()} (exclusive). Cards with the same rank and suit share an id.
+   *
+   * @return the id of this card
+   */
+  public int getId() {
+    return this.id;
+  }
+
   /**
    * Returns the suit of the card for the purposes of move validation.
    *
@@ -80,7 +144,7 @@ public class BasicCard implements PlayingCard {
    */
   @Override
   public String toString() {
-    return this.num.toString() + this.suit.toString();
+    return this.display;
   }
 
   /**
@@ -91,7 +155,7 @@ public class BasicCard implements PlayingCard {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(this.num, this.suit);
+    return this.id;
   }
 
   /**
@@ -106,10 +170,13 @@ public class BasicCard implements PlayingCard {
     if (this == other) {
       return true;
     }
+    if (other instanceof BasicCard) {
+      return this.id == ((BasicCard) other).id;
+    }
     if (!(other instanceof Card)) {
       return false;
     }
     Card that = (Card) other;
-    return this.toString().equals(that.toString());
+    return this.display.equals(that.toString());
   }
 }
@@ -4,7 +4,6 @@ import static java.lang.Math.max;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
 import klondike.model.hw04.AbstractKlondike;
 
 /**
@@ -23,42 +22,33 @@ public class BasicKlondike extends AbstractKlondike implements KlondikeModel<Bas
   }
 
   /**
-   * Deal a new game of Klondike.
-   * The cards to be used and their order are specified by the given deck,
-   * unless the {@code shuffle} parameter indicates the order should be ignored.
+   * Initializes the game into the same state as the given game, sharing its piles until either
+   * game changes them.
    *
-   * <p>This method first verifies that the deck is valid. It deals cards in rows
-   * (left-to-right, top-to-bottom) into the characteristic cascade shape
-   * with the specified number of rows, followed by (at most) the specified number of
-   * drawCards cards. When {@code shuffle} is {@code false}, the {@code deck}
-   * must be used in order and
-   * the 0th card in {@code deck} is used as the first card dealt.
-   * There will be as many foundation piles as there are Aces in the deck.</p>
-   *
-   * <p>A valid deck must consist cards that can be grouped into equal-length,
-   * consecutive runs of cards (each one starting at an Ace, and each of a single suit).</p>
-   *
-   * <p>This method should have no side effects other than configuring this model instance,
-   * and should work for any valid arguments.</p>
+   * @param other the game to copy
+   */
+  protected BasicKlondike(BasicKlondike other) {
+    super(other);
+  }
+
+  /**
+   * Returns an independent game in the same state as this one, which can be played without
+   * affecting this game. The fork starts with no undo history.
    *
-   * @param deck     the deck to be dealt
-   * @param shuffle  if {@code false}, use the order as given by {@code deck},
-   *                 otherwise use a randomly shuffled order
-   * @param numPiles number of piles to be dealt
-   * @param numDraw  maximum number of drawCards cards available at a time
-   * @throws IllegalStateException    if the game has already started
-   * @throws IllegalArgumentException if the deck is null or invalid,
-   *                                  a full cascade cannot be dealt with the given sizes,
-   *                                  or another input is invalid
+   * @return a copy of this game
    */
   @Override
-  public void startGame(List<BasicCard> deck, boolean shuffle, int numPiles, int numDraw)
-      throws IllegalArgumentException, IllegalStateException {
-    super.startGame(deck, shuffle, numPiles, numDraw);
+  public BasicKlondike fork() {
+    return new BasicKlondike(this);
+  }
 
-    for (BasicPile pile : this.cascades) {
-      pile.revealLast();
+  /**
+   * Turns face-up the last card of each pile, leaving the rest face-down.
+   */
+  @Override
+  protected void revealDealtCards() {
+    for (int pile = 0; pile < this.getNumPiles(); pile++) {
+      this.revealCard(pile, this.getPileHeight(pile) - 1);
     }
   }
 }
-
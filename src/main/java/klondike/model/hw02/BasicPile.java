@@ -8,8 +8,7 @@ import java.util.ArrayList;
 public class BasicPile extends AbstractPile<BasicCard> {
 
   /**
-   * Creates an AbstractPile with a list of cards, and initializes the visibilityTracker to the
-   * same length with each Card assumed to be starting as face-up.
+   * Creates a BasicPile with a list of cards, with each Card assumed to be starting as face-up.
    *
    * @param cards the cards in the Pile
    */
@@ -23,4 +22,13 @@ public class BasicPile extends AbstractPile<BasicCard> {
   public BasicPile() {
     super();
   }
+
+  /**
+   * Creates a copy of the given BasicPile, with the same cards showing.
+   *
+   * @param other the pile to copy
+   */
+  public BasicPile(BasicPile other) {
+    super(other);
+  }
 }
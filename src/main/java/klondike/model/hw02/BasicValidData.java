@@ -11,11 +11,15 @@ import klondike.model.hw04.AbstractValidData;
  * models.
  */
 public class BasicValidData extends AbstractValidData {
+  private static final long[] NEXT_ROWS = ruleTable((top, bottom) ->
+      !top.getSuit().sameColor(bottom.getSuit())
+          && top.getRank().getValue() == bottom.getRank().getValue() - 1);
 
   /**
-   * Creates the validator object.
+   * Creates the validator object. Builds must be descending and alternate colors.
    */
   public BasicValidData() {
+    super(NEXT_ROWS);
   }
 
   /**
@@ -29,30 +33,46 @@ public class BasicValidData extends AbstractValidData {
    */
   public void validAddToCascade(BasicPile srcPile, BasicPile adding)
       throws IllegalStateException {
-    PlayingCard top = adding.getList().getFirst();
+    PlayingCard top = adding.getCard(0);
 
-    if (srcPile.getList().isEmpty()) {
+    if (srcPile.isEmpty()) {
       if (!top.isRank(Rank.KING)) {
         throw new IllegalStateException("Can only add King to empty cascade pile");
       }
     } else {
-      if (!this.validNext(top, srcPile.getList().getLast())) {
+      if (!this.validNext(top, srcPile.getTopCard())) {
         throw new IllegalStateException("Invalid card add to pile");
       }
     }
   }
 
   /**
-   * Checks that this top card is allowed to be placed on top of the given bottom card in
-   * a cascade pile. Requires different suit colors.
+   * Signals whether the top cards of one cascade pile may be moved onto another. A King may
+   * start an empty pile, and otherwise the first moving card must follow the destination's top.
    *
-   * @param top    The card being moved onto the pile
-   * @param bottom The card that is at the top of the pile being moved onto
-   * @return whether it is valid
+   * @param destPile the cascade pile to be added to
+   * @param srcPile  the cascade pile the cards are moving from
+   * @param numCards how many cards from the top of srcPile are moving
+   * @return whether the move is allowable
    */
   @Override
-  public boolean validNext(PlayingCard top, PlayingCard bottom) {
-    return !top.getSuit().sameColor(bottom.getSuit())
-        && top.getRank().getValue() == bottom.getRank().getValue() - 1;
+  public boolean canMoveRun(BasicPile destPile, BasicPile srcPile, int numCards) {
+    return this.canAddToCascade(destPile, srcPile.getCard(srcPile.getPileSize() - numCards));
+  }
+
+  /**
+   * Signals whether a single card may be added to the end of the given cascade pile.
+   * Only a King may start an empty pile.
+   *
+   * @param destPile the cascade pile to be added to
+   * @param adding   the card being added
+   * @return whether the move is allowable
+   */
+  @Override
+  public boolean canAddToCascade(BasicPile destPile, PlayingCard adding) {
+    if (destPile.isEmpty()) {
+      return adding.isRank(Rank.KING);
+    }
+    return this.validNext(adding, destPile.getTopCard());
   }
 }
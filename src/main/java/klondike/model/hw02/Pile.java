@@ -4,6 +4,7 @@ import java.util.List;
 
 /**
  * Represents an ordered grouping of Cards that can be face-up (visible) or face-down (invisible).
+ * Any face-down cards are always at the bottom of the pile, below every face-up card.
  */
 public interface Pile<C extends Card> {
 
@@ -14,6 +15,46 @@ public interface Pile<C extends Card> {
    */
   public List<C> getList();
 
+  /**
+   * Returns the Card at the top (end) of this Pile without copying anything.
+   *
+   * @return the top Card, or null if the Pile is empty
+   */
+  public C getTopCard();
+
+  /**
+   * Returns the Card at the given index of this Pile without copying anything, whether or not
+   * it is visible. Assumes 0-indexing.
+   *
+   * @param cardIndex the index of the card in the pile, starting from 0 at the top.
+   * @return the Card at that index
+   * @throws IndexOutOfBoundsException if the index is not in the Pile
+   */
+  public C getCard(int cardIndex) throws IndexOutOfBoundsException;
+
+  /**
+   * Determines whether this Pile has no Cards.
+   *
+   * @return whether it is empty
+   */
+  public boolean isEmpty();
+
+  /**
+   * Returns the index of the lowest visible Card. Every Card from this index to the top of the
+   * Pile is visible, and if no Card is visible this is the size of the Pile.
+   *
+   * @return the index of the first visible Card
+   */
+  public int getFirstVisibleIndex();
+
+  /**
+   * Returns a read-only view of the visible Cards in this Pile, in order, without copying them.
+   * The view reflects later changes to the Pile, so it should not be kept past the next one.
+   *
+   * @return the visible Cards
+   */
+  public List<C> viewVisibleCards();
+
   /**
    * Counts the number of visible cards in the Pile.
    *
@@ -40,8 +81,9 @@ public interface Pile<C extends Card> {
    * Adds a Card to the end of the Pile, assumes it is NOT visible.
    *
    * @param card the card to add
+   * @throws IllegalStateException if the pile already has a face-up card
    */
-  public void buildPile(C card);
+  public void buildPile(C card) throws IllegalStateException;
 
   /**
    * Adds a Card to the end of the Pile, assumes it is visible.
@@ -84,9 +126,36 @@ public interface Pile<C extends Card> {
   public void removeAll(List<C> cards);
 
   /**
-   * Reveals the card at the given index.
+   * Moves the top cards of this Pile onto the end of another Pile in one step, keeping their
+   * order. The moved cards are face-up on the other Pile.
+   *
+   * @param numCards how many cards to move from the top of this Pile
+   * @param dest     the Pile to move the cards onto
+   * @throws IllegalArgumentException if dest is this Pile, or numCards is not between 1 and the
+   *                                  number of visible cards
+   */
+  public void moveTail(int numCards, Pile<C> dest) throws IllegalArgumentException;
+
+  /**
+   * Reveals the card at the given index, along with every card above it.
    *
    * @param index the index to reveal a card at
    */
   public void revealIndex(int index);
+
+  /**
+   * Turns face-down the card at the given index and every card below it, undoing a reveal.
+   *
+   * @param index the index of the highest card to hide
+   */
+  public void hideIndex(int index);
+
+  /**
+   * Replaces the card at the given index with another, keeping whether it is face-up.
+   *
+   * @param index the index of the card to replace
+   * @param card  the card to put in its place
+   * @throws IndexOutOfBoundsException if the index is not in the Pile
+   */
+  public void replaceCard(int index, C card) throws IndexOutOfBoundsException;
 }
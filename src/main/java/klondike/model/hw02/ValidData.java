@@ -51,6 +51,38 @@ public interface ValidData<C extends Card> {
   public void validAddToFoundation(PlayingCard adding, ArrayList<BasicCard> pile)
       throws IllegalStateException;
 
+  /**
+   * Signals whether the top cards of one cascade pile may be moved onto another, following the
+   * same rules as {@link #validAddToCascade} without building a pile of the moving cards or
+   * throwing. Does not check that the moving cards are face-up.
+   *
+   * @param destPile the cascade pile to be added to
+   * @param srcPile  the cascade pile the cards are moving from
+   * @param numCards how many cards from the top of srcPile are moving, at least one
+   * @return whether the move is allowable
+   */
+  public boolean canMoveRun(BasicPile destPile, BasicPile srcPile, int numCards);
+
+  /**
+   * Signals whether a single card may be added to the end of the given cascade pile, following
+   * the same rules as {@link #validAddToCascade} without throwing.
+   *
+   * @param destPile the cascade pile to be added to
+   * @param adding   the card being added
+   * @return whether the move is allowable
+   */
+  public boolean canAddToCascade(BasicPile destPile, PlayingCard adding);
+
+  /**
+   * Signals whether the given card may be added to a foundation pile with the given top card,
+   * following the same rules as {@link #validAddToFoundation} without throwing.
+   *
+   * @param adding the card to be added to the foundation pile
+   * @param top    the top card of the foundation pile, or null if it is empty
+   * @return whether the move is allowable
+   */
+  public boolean canAddToFoundation(PlayingCard adding, PlayingCard top);
+
   /**
    * Checks that adding this card on top of the given last card in a foundation pile is valid.
    * The given card must be the same suit and sequential numerical value.
@@ -60,6 +92,17 @@ public interface ValidData<C extends Card> {
    */
   public boolean validCardForFoundation(PlayingCard top, PlayingCard last);
 
+  /**
+   * Checks that the card with the given id may be added on top of the card with the other id
+   * in a foundation pile, as {@link #validCardForFoundation(PlayingCard, PlayingCard)} does
+   * for the cards themselves.
+   *
+   * @param top  the id of the card being added, as given by {@link BasicCard#getId()}
+   * @param last the id of the last card in the foundation pile being added to
+   * @return whether it is valid
+   */
+  public boolean validCardForFoundation(int top, int last);
+
   /**
    * Checks that this top card is allowed to be placed on top of the given bottom card in
    * a cascade pile.
@@ -70,6 +113,18 @@ public interface ValidData<C extends Card> {
    */
   public boolean validNext(PlayingCard top, PlayingCard bottom);
 
+  /**
+   * Checks that the card with the given id may be placed on top of the card with the other id
+   * in a cascade pile, as {@link #validNext(PlayingCard, PlayingCard)} does for the cards
+   * themselves.
+   *
+   * @param top    the id of the card being moved onto the pile, as given by
+   *               {@link BasicCard#getId()}
+   * @param bottom the id of the card at the top of the pile being moved onto
+   * @return whether it is valid
+   */
+  public boolean validNext(int top, int bottom);
+
   /**
    * Determines whether the pile specified by the source parameters can legally be moved onto
    * the specified pile.
@@ -1,14 +1,14 @@
 package klondike.model.hw04;
 
-import static java.lang.Math.max;
-
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 import klondike.model.hw02.BasicCard;
 import klondike.model.hw02.BasicPile;
 import klondike.model.hw02.KlondikeModel;
-import klondike.model.hw02.PlayingCard;
 import klondike.model.hw02.Rank;
 import klondike.model.hw02.Suit;
 import klondike.model.hw02.ValidData;
@@ -16,15 +16,45 @@ import klondike.model.hw02.ValidData;
 /**
  * An abstract class containing duplicate code across implementations of KlondikeModels.
  * Expects implementations to handle most face-up and face-down rules.
+ * Every move is recorded in a journal, so moves can be undone and redone.
+ *
+ * <p>A started game can be forked into an independent copy. Forks share their piles, and the
+ * tables the game keeps about them, until one side changes something. That side then copies the
+ * tables and its lists of piles, and after that copies just the piles it changes.</p>
  */
-public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
+public abstract class AbstractKlondike implements ReversibleKlondikeModel<BasicCard> {
+  private static final long REVEALED = 1L << 32;
+  private static final int DISCARDS_SHIFT = 33;
+
   private boolean started;
-  private List<BasicCard> deck;
+  private StockPile<BasicCard> stock;
   private ArrayList<ArrayList<BasicCard>> foundations;
   protected ArrayList<BasicPile> cascades;
-  private List<BasicCard> drawCards;
   private int numDrawCards;
   private final ValidData<BasicCard> dataChecker;
+  private int score;
+  private int numRows;
+  private int[] pilesOfHeight;
+  private long[] pileHashes;
+  private long cascadeHash;
+  private long foundationHash;
+  private long unorderedHash;
+  private long[] journal;
+  private int journalTop;
+  private int journalSize;
+  private boolean[] ownedCascades;
+  private boolean[] ownedFoundations;
+  private boolean ownsStock;
+  private boolean[] pileMoves;
+  private boolean[] foundationMoves;
+  private int availableMoves;
+  private int[] changed;
+  private int numChanged;
+  private boolean[] isChanged;
+  private int[] waitingHead;
+  private int[] waitingNext;
+  private int[] waitingPrev;
+  private Sharing sharing;
 
 
   /**
@@ -36,6 +66,70 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
     this.dataChecker = dataChecker;
   }
 
+  /**
+   * Initializes the game into the same state as the given game, sharing its piles until either
+   * game changes them. The undo history is not copied. If the given game has not been started,
+   * neither is this one.
+   *
+   * @param other the game to copy
+   */
+  protected AbstractKlondike(AbstractKlondike other) {
+    this.dataChecker = other.dataChecker;
+    this.started = other.started;
+    if (!other.started) {
+      return;
+    }
+
+    // The other game is only read, apart from the mark they now share, which is only ever set,
+    // so any number of threads may fork it at once.
+    other.sharing.forked = true;
+    this.sharing = other.sharing;
+    this.cascades = other.cascades;
+    this.foundations = other.foundations;
+    this.stock = other.stock;
+    this.ownedCascades = other.ownedCascades;
+    this.ownedFoundations = other.ownedFoundations;
+    this.ownsStock = other.ownsStock;
+
+    this.numDrawCards = other.numDrawCards;
+    this.score = other.score;
+    this.numRows = other.numRows;
+    this.pilesOfHeight = other.pilesOfHeight;
+    this.pileHashes = other.pileHashes;
+    this.cascadeHash = other.cascadeHash;
+    this.foundationHash = other.foundationHash;
+    this.unorderedHash = other.unorderedHash;
+
+    this.pileMoves = other.pileMoves;
+    this.foundationMoves = other.foundationMoves;
+    this.availableMoves = other.availableMoves;
+    this.changed = other.changed;
+    this.numChanged = other.numChanged;
+    this.isChanged = other.isChanged;
+    this.waitingHead = other.waitingHead;
+    this.waitingNext = other.waitingNext;
+    this.waitingPrev = other.waitingPrev;
+
+    this.journal = new long[64];
+    this.journalTop = 0;
+    this.journalSize = 0;
+  }
+
+  /**
+   * Returns an independent game in the same state as this one, which can be played without
+   * affecting this game. Forking takes constant time, as the two games share everything until
+   * either changes something. The first move on each side then takes time proportional to the
+   * size of the game's tables, and later moves copy only the piles they change. The fork starts
+   * with no undo history.
+   *
+   * <p>Forking does not change this game, so several threads may fork it at once, as long as
+   * none of them is making a move in it. The forks themselves can be handed to other
+   * threads.</p>
+   *
+   * @return a copy of this game
+   */
+  public abstract AbstractKlondike fork();
+
   /**
    * Return a valid and complete deck of cards for a game of Klondike.
    * There is no restriction imposed on the ordering of these cards in the deck.
@@ -57,12 +151,33 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
 
     for (Suit suit : suits) {
       for (Rank rank : ranks) {
-        newDeck.add(new BasicCard(rank, suit));
+        newDeck.add(BasicCard.of(rank, suit));
       }
     }
     return newDeck;
   }
 
+  /**
+   * Return a deck made of the given number of complete decks of cards, for playing Klondike
+   * with several decks at once. There is one foundation pile for each Ace, so a game dealt
+   * from this deck has four foundation piles per deck.
+   *
+   * @param decks the number of complete decks to combine
+   * @return the combined deck of cards as a list
+   * @throws IllegalArgumentException if the number of decks is not positive
+   */
+  public List<BasicCard> createNewDeck(int decks) throws IllegalArgumentException {
+    if (decks <= 0) {
+      throw new IllegalArgumentException("Must use at least one deck");
+    }
+    List<BasicCard> oneDeck = this.createNewDeck();
+    List<BasicCard> newDeck = new ArrayList<>(oneDeck.size() * decks);
+    for (int deck = 0; deck < decks; deck++) {
+      newDeck.addAll(oneDeck);
+    }
+    return newDeck;
+  }
+
   /**
    * Deal a new game of Klondike.
    * The cards to be used and their order are specified by the given deck,
@@ -95,21 +210,78 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
   @Override
   public void startGame(List<BasicCard> deck, boolean shuffle, int numPiles, int numDraw)
       throws IllegalArgumentException, IllegalStateException {
+    if (shuffle) {
+      this.startGame(deck, ThreadLocalRandom.current().nextLong(), numPiles, numDraw);
+    } else {
+      this.deal(deck, null, numPiles, numDraw);
+    }
+  }
+
+  /**
+   * Deal a new game of Klondike from the given deck, shuffled in an order decided only by the
+   * given seed. The same deck and seed always give the same deal, on any thread, so games can
+   * be replayed and dealt in parallel by seed. Otherwise behaves as
+   * {@link #startGame(List, boolean, int, int)} does with shuffling.
+   *
+   * @param deck     the deck to be dealt
+   * @param seed     the seed deciding the shuffled order of the deck
+   * @param numPiles number of piles to be dealt
+   * @param numDraw  maximum number of drawCards cards available at a time
+   * @throws IllegalStateException    if the game has already started
+   * @throws IllegalArgumentException if the deck is null or invalid,
+   *                                  a full cascade cannot be dealt with the given sizes,
+   *                                  or another input is invalid
+   */
+  public void startGame(List<BasicCard> deck, long seed, int numPiles, int numDraw)
+      throws IllegalArgumentException, IllegalStateException {
+    this.deal(deck, new SplittableRandom(seed), numPiles, numDraw);
+  }
+
+  /**
+   * Turns face-up the cards that start the game face-up under the rules of this variant. Called
+   * once all the cards are dealt, and should reveal cards through {@link #revealCard}.
+   */
+  protected abstract void revealDealtCards();
+
+  /**
+   * Deals a new game, shuffling a copy of the deck with the given generator first if there is
+   * one. The cards are dealt straight from the shuffled array.
+   *
+   * @param deck     the deck to be dealt
+   * @param random   the generator to shuffle with, or null to keep the deck's order
+   * @param numPiles number of piles to be dealt
+   * @param numDraw  maximum number of drawCards cards available at a time
+   * @throws IllegalStateException    if the game has already started
+   * @throws IllegalArgumentException if the deck is null or invalid,
+   *                                  a full cascade cannot be dealt with the given sizes,
+   *                                  or another input is invalid
+   */
+  private void deal(List<BasicCard> deck, SplittableRandom random, int numPiles, int numDraw)
+      throws IllegalArgumentException, IllegalStateException {
     if (started) {
       throw new IllegalStateException("Game is already started");
     }
-    if (!this.dataChecker.validateDeck(deck) || deck.size() < numPiles || numDraw <= 0
-        || numPiles <= 0) {
+    if (!this.dataChecker.validateDeck(deck) || numDraw <= 0 || numPiles <= 0
+        || (long) numPiles * (numPiles + 1) / 2 > deck.size()) {
       throw new IllegalArgumentException("Invalid state to start a game in");
     }
 
-    this.started = true;
-    this.deck = new ArrayList<>(deck);
-
-    if (shuffle) {
-      Collections.shuffle(this.deck);
+    BasicCard[] dealing = new BasicCard[deck.size()];
+    for (int index = 0; index < dealing.length; index++) {
+      BasicCard card = deck.get(index);
+      dealing[index] = BasicCard.of(card.getRank(), card.getSuit());
+    }
+    if (random != null) {
+      for (int index = dealing.length - 1; index > 0; index--) {
+        int swap = random.nextInt(index + 1);
+        BasicCard card = dealing[index];
+        dealing[index] = dealing[swap];
+        dealing[swap] = card;
+      }
     }
 
+    this.started = true;
+
     this.cascades = new ArrayList<BasicPile>();
     for (int index = 0; index < numPiles; index++) {
       this.cascades.add(new BasicPile());
@@ -120,17 +292,63 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
       this.foundations.add(new ArrayList<BasicCard>());
     }
 
+    int next = 0;
     for (int row = 0; row < numPiles; row++) {
       for (int column = row; column < numPiles; column++) {
-        this.cascades.get(column).buildPile(this.deck.removeFirst());
+        this.cascades.get(column).buildPile(dealing[next++]);
       }
     }
 
-    this.drawCards = new ArrayList<BasicCard>();
+    this.score = 0;
+    this.numRows = 0;
+    this.pilesOfHeight = new int[dealing.length + 1];
+    this.pilesOfHeight[0] = numPiles;
+    for (int pile = 0; pile < numPiles; pile++) {
+      this.pileResized(0, this.cascades.get(pile).getPileSize());
+    }
+
+    this.pileHashes = new long[numPiles];
+    this.cascadeHash = 0;
+    this.foundationHash = 0;
+    this.unorderedHash = 0;
+    for (int pile = 0; pile < numPiles; pile++) {
+      this.cascadeHash ^= ZobristKeys.cascade(pile, 0);
+      this.unorderedHash += ZobristKeys.anyCascade(0);
+      this.rehashPile(pile, this.rowsHash(pile, 0));
+    }
+
     this.numDrawCards = numDraw;
-    for (int index = 0; index < numDraw; index++) {
-      this.revealNextDraw();
+    this.stock = new StockPile<>(Arrays.asList(dealing).subList(next, dealing.length), numDraw);
+
+    this.journal = new long[64];
+    this.journalTop = 0;
+    this.journalSize = 0;
+    this.ownedCascades = new boolean[numPiles];
+    Arrays.fill(this.ownedCascades, true);
+    this.ownedFoundations = new boolean[this.foundations.size()];
+    Arrays.fill(this.ownedFoundations, true);
+    this.ownsStock = true;
+    this.sharing = new Sharing();
+
+    this.pileMoves = new boolean[numPiles * numPiles];
+    this.foundationMoves = new boolean[numPiles * this.foundations.size()];
+    this.availableMoves = 0;
+    this.changed = new int[numPiles + this.foundations.size()];
+    this.numChanged = 0;
+    this.isChanged = new boolean[this.changed.length];
+    for (int pile = 0; pile < numPiles; pile++) {
+      this.markChanged(pile);
+    }
+
+    this.waitingHead = new int[BasicCard.numIds() + 1];
+    Arrays.fill(this.waitingHead, -1);
+    this.waitingNext = new int[this.foundations.size()];
+    this.waitingPrev = new int[this.foundations.size()];
+    for (int foundation = 0; foundation < this.foundations.size(); foundation++) {
+      this.linkWaiting(foundation);
     }
+
+    this.revealDealtCards();
   }
 
   /**
@@ -159,20 +377,13 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
       throw new IllegalArgumentException("Move is not physically possible");
     }
 
-    ArrayList<BasicCard> movingPile = new ArrayList<>();
-    int removeIndex = this.getPileHeight(srcPile) - numCards;
-    while (this.getPileHeight(srcPile) > removeIndex) {
-      movingPile.add(this.cascades.get(srcPile).removeIndex(removeIndex));
+    if (!this.dataChecker.canMoveRun(this.cascades.get(destPile), this.cascades.get(srcPile),
+        numCards)) {
+      throw new IllegalStateException("Move is not allowable");
     }
 
-    this.dataChecker.validAddToCascade(this.cascades.get(destPile), new BasicPile(movingPile));
-
-    this.cascades.get(destPile).addAll(movingPile);
-    this.cascades.get(srcPile).removeAll(movingPile);
-
-    if (!this.cascades.get(srcPile).getList().isEmpty()) {
-      this.cascades.get(srcPile).revealLast();
-    }
+    int move = KlondikeMoves.movePile(srcPile, numCards, destPile);
+    this.record(move, this.cascadeToCascade(srcPile, numCards, destPile), 0);
   }
 
   /**
@@ -193,34 +404,18 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
       throw new IllegalArgumentException("Invalid destination pile index");
     }
 
-    if (this.getDrawCards().isEmpty()) {
+    if (this.stock.getDrawCount() == 0) {
       throw new IllegalStateException("No draw cards to move");
     }
 
-    BasicCard nextDraw = this.drawCards.getFirst();
-    ArrayList<BasicCard> toAdd = new ArrayList<>();
-    toAdd.add(nextDraw);
-    this.dataChecker.validAddToCascade(this.cascades.get(destPile), new BasicPile(toAdd));
-
-    this.cascades.get(destPile).addCard(nextDraw);
-    this.drawCards.remove(nextDraw);
-    this.revealNextDraw();
-  }
-
-  /**
-   * Reveals the next draw card, taking it from the top of the deck and adding it to the list of
-   * draw cards. If the draw pile deck is empty, does not flip over a card.
-   *
-   * @throws IllegalStateException if the maximum number of draw cards are already visible
-   */
-  private void revealNextDraw() throws IllegalStateException {
-    if (this.getDrawCards().size() >= this.getNumDraw()) {
-      throw new IllegalStateException("Cannot reveal next draw card");
-    }
-    if (!this.deck.isEmpty()) {
-      this.drawCards.add(this.deck.getFirst());
-      this.deck.removeFirst();
+    if (!this.dataChecker.canAddToCascade(this.cascades.get(destPile),
+        this.stock.getDrawCard(0))) {
+      throw new IllegalStateException("Move is not allowable");
     }
+
+    int discards = this.stock.getDiscardsSinceTake();
+    this.addToCascade(destPile, this.writableStock().takeDraw());
+    this.record(KlondikeMoves.moveDraw(destPile), false, discards);
   }
 
   /**
@@ -242,20 +437,16 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
       throw new IllegalArgumentException("Invalid pile index");
     }
 
-    if (this.cascades.get(srcPile).getList().isEmpty()) {
+    if (this.cascades.get(srcPile).isEmpty()) {
       throw new IllegalStateException("Cascade source pile is empty");
     }
 
-    BasicCard moving = this.cascades.get(srcPile).getList().getLast();
+    BasicCard moving = this.cascades.get(srcPile).getTopCard();
 
     this.dataChecker.validAddToFoundation(moving, this.foundations.get(foundationPile));
 
-    this.cascades.get(srcPile).removeCard(moving);
-    this.foundations.get(foundationPile).add(moving);
-
-    if (!this.cascades.get(srcPile).getList().isEmpty()) {
-      this.cascades.get(srcPile).revealLast();
-    }
+    int move = KlondikeMoves.moveToFoundation(srcPile, foundationPile);
+    this.record(move, this.cascadeToFoundation(srcPile, foundationPile), 0);
   }
 
   /**
@@ -276,16 +467,17 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
     if (foundationPile < 0 || foundationPile >= this.getNumFoundations()) {
       throw new IllegalArgumentException("Invalid pile index");
     }
-    if (this.getDrawCards().isEmpty()) {
+    if (this.stock.getDrawCount() == 0) {
       throw new IllegalStateException("Draw card pile is empty");
     }
 
-    BasicCard moving = this.drawCards.getFirst();
+    BasicCard moving = this.stock.getDrawCard(0);
 
     this.dataChecker.validAddToFoundation(moving, this.foundations.get(foundationPile));
 
-    this.drawCards.remove(moving);
-    this.foundations.get(foundationPile).add(moving);
+    int discards = this.stock.getDiscardsSinceTake();
+    this.addToFoundation(foundationPile, this.writableStock().takeDraw());
+    this.record(KlondikeMoves.moveDrawToFoundation(foundationPile), false, discards);
   }
 
   /**
@@ -297,14 +489,237 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
   @Override
   public void discardDraw() throws IllegalStateException {
     this.checkStarted();
+    int discards = this.stock.getDiscardsSinceTake();
+    this.writableStock().discardDraw();
+    this.record(KlondikeMoves.discardDraw(), false, discards);
+  }
+
+  /**
+   * Moves the top card of the given pile to a foundation pile it can go on. The foundation pile
+   * is looked up by the card it is waiting for, rather than by trying each one, so this takes
+   * the same time however many decks are in play.
+   *
+   * @param srcPile the 0-based index (from the left) of the pile to move a card
+   * @return the 0-based index of the foundation pile the card was moved to
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if the pile number is invalid
+   * @throws IllegalStateException    if the source pile is empty or no foundation pile can take
+   *                                  its top card
+   */
+  public int autoFoundation(int srcPile) throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+    if (srcPile < 0 || srcPile >= this.cascades.size()) {
+      throw new IllegalArgumentException("Invalid pile index");
+    }
+    if (this.cascades.get(srcPile).isEmpty()) {
+      throw new IllegalStateException("Cascade source pile is empty");
+    }
+
+    int foundationPile = this.openFoundation(this.cascades.get(srcPile).getTopCard());
+    if (foundationPile < 0) {
+      throw new IllegalStateException("No foundation pile can take this card");
+    }
+    this.moveToFoundation(srcPile, foundationPile);
+    return foundationPile;
+  }
+
+  /**
+   * Moves the topmost draw card to a foundation pile it can go on, looked up in the same way
+   * as {@link #autoFoundation}.
+   *
+   * @return the 0-based index of the foundation pile the card was moved to
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalStateException if there are no draw cards or no foundation pile can take the
+   *                               top one
+   */
+  public int autoFoundationDraw() throws IllegalStateException {
+    this.checkStarted();
+    if (this.stock.getDrawCount() == 0) {
+      throw new IllegalStateException("Draw card pile is empty");
+    }
+
+    int foundationPile = this.openFoundation(this.stock.getDrawCard(0));
+    if (foundationPile < 0) {
+      throw new IllegalStateException("No foundation pile can take this card");
+    }
+    this.moveDrawToFoundation(foundationPile);
+    return foundationPile;
+  }
+
+  /**
+   * Signals whether {@link #movePile} would succeed with the given arguments, without
+   * throwing if it would not.
+   *
+   * @param srcPile  the 0-based index (from the left) of the pile to be moved
+   * @param numCards how many cards to be moved from that pile
+   * @param destPile the 0-based index (from the left) of the destination pile for the moved cards
+   * @return whether the move is possible and allowable
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public boolean canMovePile(int srcPile, int numCards, int destPile)
+      throws IllegalStateException {
+    this.checkStarted();
+    return this.dataChecker.validPileIndex(srcPile, this.cascades.size())
+        && this.dataChecker.validPileMove(srcPile, numCards, destPile, this.cascades.size(),
+        this.cascades.get(srcPile).countVisibleCards())
+        && this.dataChecker.canMoveRun(this.cascades.get(destPile), this.cascades.get(srcPile),
+        numCards);
+  }
+
+  /**
+   * Signals whether {@link #moveDraw} would succeed with the given argument, without throwing
+   * if it would not.
+   *
+   * @param destPile the 0-based index (from the left) of the destination pile for the card
+   * @return whether the move is possible and allowable
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public boolean canMoveDraw(int destPile) throws IllegalStateException {
+    this.checkStarted();
+    return destPile >= 0 && destPile < this.cascades.size() && this.stock.getDrawCount() > 0
+        && this.dataChecker.canAddToCascade(this.cascades.get(destPile),
+        this.stock.getDrawCard(0));
+  }
+
+  /**
+   * Signals whether {@link #moveToFoundation} would succeed with the given arguments, without
+   * throwing if it would not.
+   *
+   * @param srcPile        the 0-based index (from the left) of the pile to move a card
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to place card
+   * @return whether the move is possible and allowable
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public boolean canMoveToFoundation(int srcPile, int foundationPile)
+      throws IllegalStateException {
+    this.checkStarted();
+    return srcPile >= 0 && srcPile < this.cascades.size()
+        && foundationPile >= 0 && foundationPile < this.foundations.size()
+        && !this.cascades.get(srcPile).isEmpty()
+        && this.dataChecker.canAddToFoundation(this.cascades.get(srcPile).getTopCard(),
+        this.foundationTop(foundationPile));
+  }
 
-    if (this.deck.isEmpty()) {
-      throw new IllegalStateException("Cannot discard to empty draw pile");
+  /**
+   * Signals whether {@link #moveDrawToFoundation} would succeed with the given argument,
+   * without throwing if it would not.
+   *
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to place card
+   * @return whether the move is possible and allowable
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public boolean canMoveDrawToFoundation(int foundationPile) throws IllegalStateException {
+    this.checkStarted();
+    return foundationPile >= 0 && foundationPile < this.foundations.size()
+        && this.stock.getDrawCount() > 0
+        && this.dataChecker.canAddToFoundation(this.stock.getDrawCard(0),
+        this.foundationTop(foundationPile));
+  }
+
+  /**
+   * Takes back the most recent move that has not been undone, including turning back over any
+   * card that move revealed. Takes time proportional to the number of cards the move moved.
+   *
+   * @throws IllegalStateException if the game hasn't been started yet, or there is no move to
+   *                               undo
+   */
+  @Override
+  public void undo() throws IllegalStateException {
+    this.checkStarted();
+    if (this.journalTop == 0) {
+      throw new IllegalStateException("No move to undo");
     }
 
-    this.deck.add(this.drawCards.getFirst());
-    this.drawCards.removeFirst();
-    this.revealNextDraw();
+    long entry = this.journal[--this.journalTop];
+    int move = (int) entry;
+    boolean revealed = (entry & REVEALED) != 0;
+    int discards = (int) (entry >>> DISCARDS_SHIFT);
+    int source = KlondikeMoves.source(move);
+    int destination = KlondikeMoves.destination(move);
+    switch (KlondikeMoves.kind(move)) {
+      case KlondikeMoves.MOVE_PILE:
+        if (revealed) {
+          this.hideCard(source, this.cascades.get(source).getPileSize() - 1);
+        }
+        this.cascadeToCascade(destination, KlondikeMoves.count(move), source);
+        break;
+      case KlondikeMoves.MOVE_DRAW:
+        this.writableStock().returnDraw(this.takeFromCascade(destination), discards);
+        break;
+      case KlondikeMoves.MOVE_TO_FOUNDATION:
+        BasicCard card = this.takeFromFoundation(destination);
+        if (revealed) {
+          this.hideCard(source, this.cascades.get(source).getPileSize() - 1);
+        }
+        this.addToCascade(source, card);
+        break;
+      case KlondikeMoves.MOVE_DRAW_TO_FOUNDATION:
+        this.writableStock().returnDraw(this.takeFromFoundation(destination), discards);
+        break;
+      default:
+        this.writableStock().undoDiscard(discards);
+        break;
+    }
+  }
+
+  /**
+   * Makes again the most recently undone move. Takes time proportional to the number of cards
+   * the move moves.
+   *
+   * @throws IllegalStateException if the game hasn't been started yet, or there is no move to
+   *                               redo
+   */
+  @Override
+  public void redo() throws IllegalStateException {
+    this.checkStarted();
+    if (this.journalTop == this.journalSize) {
+      throw new IllegalStateException("No move to redo");
+    }
+
+    int move = (int) this.journal[this.journalTop++];
+    int source = KlondikeMoves.source(move);
+    int destination = KlondikeMoves.destination(move);
+    switch (KlondikeMoves.kind(move)) {
+      case KlondikeMoves.MOVE_PILE:
+        this.cascadeToCascade(source, KlondikeMoves.count(move), destination);
+        break;
+      case KlondikeMoves.MOVE_DRAW:
+        this.addToCascade(destination, this.writableStock().takeDraw());
+        break;
+      case KlondikeMoves.MOVE_TO_FOUNDATION:
+        this.cascadeToFoundation(source, destination);
+        break;
+      case KlondikeMoves.MOVE_DRAW_TO_FOUNDATION:
+        this.addToFoundation(destination, this.writableStock().takeDraw());
+        break;
+      default:
+        this.writableStock().discardDraw();
+        break;
+    }
+  }
+
+  /**
+   * Signals whether there is a move that can be undone.
+   *
+   * @return true if {@link #undo()} would succeed
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean canUndo() throws IllegalStateException {
+    this.checkStarted();
+    return this.journalTop > 0;
+  }
+
+  /**
+   * Signals whether there is an undone move that can be redone.
+   *
+   * @return true if {@link #redo()} would succeed
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean canRedo() throws IllegalStateException {
+    this.checkStarted();
+    return this.journalTop < this.journalSize;
   }
 
   /**
@@ -316,12 +731,7 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
   @Override
   public int getNumRows() throws IllegalStateException {
     this.checkStarted();
-    int maxHeight = 0;
-
-    for (int index = 0; index < this.getNumPiles(); index++) {
-      maxHeight = max(maxHeight, this.getPileHeight(index));
-    }
-    return maxHeight;
+    return this.numRows;
   }
 
   /**
@@ -351,6 +761,10 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
   /**
    * Signal if the game is over or not.  A game is over if there are no more
    * possible moves to be made, and no drawCards cards to be used (or discarded).
+   * Moves of cards into empty cascade piles are not counted as possible moves.
+   *
+   * <p>The moves available are counted as the game goes, so this only rechecks the piles
+   * changed since it was last called.</p>
    *
    * @return true if game is over, false otherwise
    * @throws IllegalStateException if the game hasn't been started yet
@@ -359,50 +773,12 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
   public boolean isGameOver() throws IllegalStateException {
     this.checkStarted();
 
-    if (!this.getDrawCards().isEmpty()) {
+    if (this.stock.getDrawCount() > 0) {
       return false;
     }
 
-    boolean moveExists = false;
-
-    for (BasicPile pile : this.cascades) {
-      if (!pile.getList().isEmpty()) {
-        for (ArrayList<BasicCard> foundation : this.foundations) {
-          try {
-            this.dataChecker.validAddToFoundation(pile.getList().getLast(), foundation);
-            moveExists = true;
-          } catch (IllegalStateException exception) {
-            moveExists = moveExists || false;
-          }
-        }
-      }
-    }
-    if (moveExists) {
-      return false;
-    }
-
-    for (BasicPile pile : this.cascades) {
-      if (!pile.getList().isEmpty()) {
-        ArrayList<PlayingCard> visibleCards = new ArrayList<>();
-        for (int index = Math.max(0, (pile.getPileSize() - pile.countVisibleCards() - 1));
-             index < pile.getPileSize(); index++) {
-          visibleCards.add(pile.getList().get(index));
-        }
-
-        for (int repeats = visibleCards.size(); repeats > 0; repeats--) {
-          for (BasicPile cascade : this.cascades) {
-            if (!visibleCards.isEmpty() && !cascade.getList().isEmpty()) {
-              if (cascade != pile && this.dataChecker.validNext(visibleCards.getFirst(),
-                  cascade.getList().getLast())) {
-                return false;
-              }
-              visibleCards.removeFirst();
-            }
-          }
-        }
-      }
-    }
-    return true;
+    this.recountMoves();
+    return this.availableMoves == 0;
   }
 
   /**
@@ -414,14 +790,24 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
   @Override
   public int getScore() throws IllegalStateException {
     this.checkStarted();
-    int score = 0;
+    return this.score;
+  }
 
-    for (ArrayList<BasicCard> pile : this.foundations) {
-      if (!pile.isEmpty()) {
-        score += pile.size();
-      }
+  /**
+   * Returns the number of cards in the specified foundation pile.
+   *
+   * @param foundationPile 0-based index (from the left) of the foundation pile
+   * @return the number of cards in that foundation pile
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if the foundation pile number is invalid
+   */
+  public int getFoundationHeight(int foundationPile)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+    if (foundationPile < 0 || foundationPile >= this.foundations.size()) {
+      throw new IllegalArgumentException("Invalid pile index");
     }
-    return score;
+    return this.foundations.get(foundationPile).size();
   }
 
   /**
@@ -462,7 +848,7 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
       throw new IllegalArgumentException("Invalid coordinates, only get card when it is visible");
     }
 
-    return this.cascades.get(pileNum).getList().get(card);
+    return this.cascades.get(pileNum).getCard(card);
   }
 
   /**
@@ -516,7 +902,7 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
    * There should be at most {@link KlondikeModel#getNumDraw} cards (the number
    * specified when the game started) -- there may be fewer, if cards have been removed.
    * If any user modifies the resulting list, there should be no effect on
-   * the model.
+   * the model. The cards themselves are the shared, immutable canonical cards.
    *
    * @return the ordered list of available drawCards cards (first element = first to draw)
    * @throws IllegalStateException if the game hasn't been started yet
@@ -524,13 +910,155 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
   @Override
   public List<BasicCard> getDrawCards() throws IllegalStateException {
     this.checkStarted();
+    return this.stock.getDrawCards();
+  }
 
-    ArrayList<BasicCard> drawCards = new ArrayList<>();
-    for (BasicCard card : this.drawCards) {
-      drawCards.add(new BasicCard(card));
+  /**
+   * Returns how many draw cards are currently available, without copying them.
+   *
+   * @return the number of draw cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public int getDrawCount() throws IllegalStateException {
+    this.checkStarted();
+    return this.stock.getDrawCount();
+  }
+
+  /**
+   * Returns the available draw card at the given position, without copying the draw cards.
+   *
+   * @param index the 0-based position among the draw cards, 0 being the first to draw
+   * @return the draw card at that position
+   * @throws IllegalStateException     if the game hasn't been started yet
+   * @throws IndexOutOfBoundsException if there is no draw card at that position
+   */
+  public BasicCard getDrawCard(int index) throws IllegalStateException, IndexOutOfBoundsException {
+    this.checkStarted();
+    return this.stock.getDrawCard(index);
+  }
+
+  /**
+   * Returns the number of cards still face-down in the stock, behind the visible draw cards.
+   *
+   * @return the number of face-down stock cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public int getStockCount() throws IllegalStateException {
+    this.checkStarted();
+    return this.stock.getStockCount();
+  }
+
+  /**
+   * Returns how many more discards are left before the draw cards start repeating an order
+   * already shown since a draw card was last played. Discarding past that point cycles the
+   * stock without making progress.
+   *
+   * @return the number of discards left in the current cycle of the stock
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public int getDiscardsBeforeRepeat() throws IllegalStateException {
+    this.checkStarted();
+    return this.stock.getDiscardsBeforeRepeat();
+  }
+
+  /**
+   * Returns a 64-bit Zobrist hash of the whole position: every card in the cascades with whether
+   * it is face-up, the cards on each foundation, and the order of the stock and draw cards.
+   * Equal positions always have equal hashes, and the hash is kept up to date by every move, so
+   * reading it is constant time. It is the same across runs, so it may be stored.
+   *
+   * @return the hash of the current position
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public long stateHash() throws IllegalStateException {
+    this.checkStarted();
+    return this.cascadeHash ^ this.foundationHash ^ this.stock.getHash();
+  }
+
+  /**
+   * Returns a 64-bit hash of the position like {@link #stateHash()}, except that it does not
+   * depend on the order of the cascade piles or of the foundation piles. Positions that differ
+   * only by which columns their piles sit in have equal hashes, so a search can treat them as
+   * one position. It is kept up to date by every move, so reading it is constant time.
+   *
+   * @return the order-free hash of the current position
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public long unorderedHash() throws IllegalStateException {
+    this.checkStarted();
+    return this.unorderedHash ^ this.stock.getHash();
+  }
+
+  /**
+   * Returns how many cards the player cannot see: the face-down cards of the cascades and the
+   * face-down cards of the stock behind the draw cards.
+   *
+   * @return the number of hidden cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public int getHiddenCount() throws IllegalStateException {
+    this.checkStarted();
+    int hidden = this.stock.getStockCount();
+    for (BasicPile pile : this.cascades) {
+      hidden += pile.getFirstVisibleIndex();
     }
+    return hidden;
+  }
 
-    return drawCards;
+  /**
+   * Returns a fork of this game that looks exactly the same to the player, but whose hidden
+   * cards are the given ones. The cards fill the face-down cascade cards first, from the
+   * leftmost pile to the rightmost and from the bottom of each pile up, and then the face-down
+   * stock cards in the order they will be revealed. They are meant to be the hidden cards of
+   * this game in some other order; they are not checked, so that sampling many such games
+   * stays cheap.
+   *
+   * <p>Like {@link #fork()}, this does not change this game, so several threads may call it at
+   * once.</p>
+   *
+   * @param hidden the array holding the new hidden cards
+   * @param offset the index in the array of the first of them
+   * @return a copy of this game with the given hidden cards
+   * @throws IllegalStateException     if the game hasn't been started yet
+   * @throws IndexOutOfBoundsException if the array holds fewer than {@link #getHiddenCount()}
+   *                                   cards from that index
+   */
+  public AbstractKlondike forkWithHiddenCards(BasicCard[] hidden, int offset)
+      throws IllegalStateException, IndexOutOfBoundsException {
+    Objects.checkFromIndexSize(offset, this.getHiddenCount(), hidden.length);
+    AbstractKlondike world = this.fork();
+    int next = offset;
+    for (int pileNum = 0; pileNum < world.cascades.size(); pileNum++) {
+      int faceDown = world.cascades.get(pileNum).getFirstVisibleIndex();
+      if (faceDown == 0) {
+        continue;
+      }
+      long change = world.rowsHash(pileNum, 0);
+      BasicPile pile = world.writableCascade(pileNum);
+      for (int row = 0; row < faceDown; row++) {
+        pile.replaceCard(row, hidden[next++]);
+      }
+      world.rehashPile(pileNum, change ^ world.rowsHash(pileNum, 0));
+    }
+    if (world.stock.getStockCount() > 0) {
+      world.writableStock().replaceStock(hidden, next);
+    }
+    return world;
+  }
+
+  /**
+   * Turns face-up the card at the given position of a cascade pile, and every card above it.
+   * Implementations should reveal cards through this method, rather than through the pile,
+   * so that the hash of the position stays up to date.
+   *
+   * @param pileNum the 0-based index (from the left) of the pile
+   * @param card    the 0-based row of the card to reveal
+   * @throws IndexOutOfBoundsException if there is no such card
+   */
+  protected void revealCard(int pileNum, int card) throws IndexOutOfBoundsException {
+    long change = this.rowsHash(pileNum, card);
+    this.writableCascade(pileNum).revealIndex(card);
+    this.rehashPile(pileNum, change ^ this.rowsHash(pileNum, card));
   }
 
   /**
@@ -545,6 +1073,435 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
     return this.foundations.size();
   }
 
+  /**
+   * Records that a cascade pile changed height, keeping the tallest height up to date.
+   * The tallest height only has to be searched for when the last pile of that height shrinks.
+   *
+   * @param oldHeight the height of the pile before it changed
+   * @param newHeight the height of the pile after it changed
+   */
+  private void pileResized(int oldHeight, int newHeight) {
+    this.pilesOfHeight[oldHeight]--;
+    this.pilesOfHeight[newHeight]++;
+    this.numRows = Math.max(this.numRows, newHeight);
+    while (this.numRows > 0 && this.pilesOfHeight[this.numRows] == 0) {
+      this.numRows--;
+    }
+  }
+
+  /**
+   * Records a move that was just made, forgetting any moves that could have been redone.
+   *
+   * @param move     the encoded move
+   * @param revealed whether the move turned a cascade card face-up
+   * @param discards the discard count of the stock before the move
+   */
+  private void record(int move, boolean revealed, int discards) {
+    if (this.journalTop == this.journal.length) {
+      this.journal = Arrays.copyOf(this.journal, this.journal.length * 2);
+    }
+    this.journal[this.journalTop++] = (long) discards << DISCARDS_SHIFT
+        | (revealed ? REVEALED : 0) | (move & 0xFFFFFFFFL);
+    this.journalSize = this.journalTop;
+  }
+
+  /**
+   * Moves the top cards of one cascade pile onto another, and turns face-up the new top card of
+   * the source pile. Does not check that the move is allowed.
+   *
+   * @param srcPile  the 0-based index of the pile to move from
+   * @param numCards how many cards to move
+   * @param destPile the 0-based index of the pile to move to
+   * @return whether a card of the source pile was turned face-up
+   */
+  private boolean cascadeToCascade(int srcPile, int numCards, int destPile) {
+    BasicPile source = this.writableCascade(srcPile);
+    BasicPile dest = this.writableCascade(destPile);
+    int srcHeight = source.getPileSize();
+    final int destHeight = dest.getPileSize();
+    int removeIndex = srcHeight - numCards;
+    int changedRow = Math.max(0, removeIndex - 1);
+    final long srcChange = this.rowsHash(srcPile, changedRow);
+
+    source.moveTail(numCards, dest);
+
+    boolean revealed = removeIndex > 0 && !source.isCardVisible(removeIndex - 1);
+    if (revealed) {
+      source.revealLast();
+    }
+    this.rehashPile(srcPile, srcChange ^ this.rowsHash(srcPile, changedRow));
+    this.rehashPile(destPile, this.rowsHash(destPile, destHeight));
+    this.pileResized(srcHeight, removeIndex);
+    this.pileResized(destHeight, destHeight + numCards);
+    return revealed;
+  }
+
+  /**
+   * Moves the top card of a cascade pile to a foundation pile, and turns face-up the new top
+   * card of the cascade pile. Does not check that the move is allowed.
+   *
+   * @param srcPile        the 0-based index of the pile to move from
+   * @param foundationPile the 0-based index of the foundation pile to move to
+   * @return whether a card of the source pile was turned face-up
+   */
+  private boolean cascadeToFoundation(int srcPile, int foundationPile) {
+    BasicPile source = this.writableCascade(srcPile);
+    int height = source.getPileSize();
+    int changedRow = Math.max(0, height - 2);
+    final long srcChange = this.rowsHash(srcPile, changedRow);
+
+    final BasicCard moving = source.removeIndex(height - 1);
+    boolean revealed = height > 1 && !source.isCardVisible(height - 2);
+    if (revealed) {
+      source.revealLast();
+    }
+    this.rehashPile(srcPile, srcChange ^ this.rowsHash(srcPile, changedRow));
+    this.pileResized(height, height - 1);
+    this.addToFoundation(foundationPile, moving);
+    return revealed;
+  }
+
+  /**
+   * Puts a face-up card on top of a cascade pile.
+   *
+   * @param pileNum the 0-based index of the pile
+   * @param card    the card to add
+   */
+  private void addToCascade(int pileNum, BasicCard card) {
+    BasicPile pile = this.writableCascade(pileNum);
+    pile.addCard(card);
+    int height = pile.getPileSize();
+    this.rehashPile(pileNum, this.rowsHash(pileNum, height - 1));
+    this.pileResized(height - 1, height);
+  }
+
+  /**
+   * Removes the top card of a cascade pile.
+   *
+   * @param pileNum the 0-based index of the pile
+   * @return the card that was removed
+   */
+  private BasicCard takeFromCascade(int pileNum) {
+    BasicPile pile = this.writableCascade(pileNum);
+    int height = pile.getPileSize();
+    this.rehashPile(pileNum, this.rowsHash(pileNum, height - 1));
+    this.pileResized(height, height - 1);
+    return pile.removeIndex(height - 1);
+  }
+
+  /**
+   * Puts a card on top of a foundation pile, scoring it.
+   *
+   * @param foundationPile the 0-based index of the foundation pile
+   * @param card           the card to add
+   */
+  private void addToFoundation(int foundationPile, BasicCard card) {
+    ArrayList<BasicCard> foundation = this.writableFoundation(foundationPile);
+    this.unlinkWaiting(foundationPile);
+    foundation.add(card);
+    this.linkWaiting(foundationPile);
+    this.foundationHash ^= ZobristKeys.foundationCard(foundationPile, card.getId());
+    this.unorderedHash += ZobristKeys.anyFoundationCard(card.getId());
+    this.score++;
+  }
+
+  /**
+   * Removes the top card of a foundation pile, taking back its point.
+   *
+   * @param foundationPile the 0-based index of the foundation pile
+   * @return the card that was removed
+   */
+  private BasicCard takeFromFoundation(int foundationPile) {
+    ArrayList<BasicCard> foundation = this.writableFoundation(foundationPile);
+    this.unlinkWaiting(foundationPile);
+    BasicCard card = foundation.removeLast();
+    this.linkWaiting(foundationPile);
+    this.foundationHash ^= ZobristKeys.foundationCard(foundationPile, card.getId());
+    this.unorderedHash -= ZobristKeys.anyFoundationCard(card.getId());
+    this.score--;
+    return card;
+  }
+
+  /**
+   * Turns face-down the card at the given position of a cascade pile, and every card below it.
+   *
+   * @param pileNum the 0-based index of the pile
+   * @param card    the 0-based row of the card to hide
+   */
+  private void hideCard(int pileNum, int card) {
+    long change = this.rowsHash(pileNum, card);
+    this.writableCascade(pileNum).hideIndex(card);
+    this.rehashPile(pileNum, change ^ this.rowsHash(pileNum, card));
+  }
+
+  /**
+   * Returns a foundation pile the given card can be added to, using the lists of foundation
+   * piles kept by the card each is waiting for. Any Ace may start an empty foundation pile.
+   *
+   * @param card the card to find a foundation pile for
+   * @return the 0-based index of a foundation pile, or -1 if none is waiting for the card
+   */
+  private int openFoundation(BasicCard card) {
+    if (card.isRank(Rank.ACE)) {
+      return this.waitingHead[BasicCard.numIds()];
+    }
+    return this.waitingHead[card.getId()];
+  }
+
+  /**
+   * Returns which list a foundation pile belongs in: the id of the card it is waiting for,
+   * {@link BasicCard#numIds()} if it is empty and waiting for any Ace, or -1 if it is complete.
+   *
+   * @param foundationPile the 0-based index of the foundation pile
+   * @return the key of its list
+   */
+  private int waitingKey(int foundationPile) {
+    BasicCard top = this.foundationTop(foundationPile);
+    if (top == null) {
+      return BasicCard.numIds();
+    }
+    if (top.isRank(Rank.KING)) {
+      return -1;
+    }
+    return top.getId() + 1;
+  }
+
+  /**
+   * Adds a foundation pile to the front of the list for the card it is waiting for.
+   *
+   * @param foundationPile the 0-based index of the foundation pile
+   */
+  private void linkWaiting(int foundationPile) {
+    int key = this.waitingKey(foundationPile);
+    if (key < 0) {
+      return;
+    }
+    int next = this.waitingHead[key];
+    this.waitingNext[foundationPile] = next;
+    this.waitingPrev[foundationPile] = -1;
+    if (next >= 0) {
+      this.waitingPrev[next] = foundationPile;
+    }
+    this.waitingHead[key] = foundationPile;
+  }
+
+  /**
+   * Removes a foundation pile from the list for the card it is waiting for.
+   *
+   * @param foundationPile the 0-based index of the foundation pile
+   */
+  private void unlinkWaiting(int foundationPile) {
+    int key = this.waitingKey(foundationPile);
+    if (key < 0) {
+      return;
+    }
+    int next = this.waitingNext[foundationPile];
+    int prev = this.waitingPrev[foundationPile];
+    if (prev >= 0) {
+      this.waitingNext[prev] = next;
+    } else {
+      this.waitingHead[key] = next;
+    }
+    if (next >= 0) {
+      this.waitingPrev[next] = prev;
+    }
+  }
+
+  /**
+   * Returns the top card of a foundation pile.
+   *
+   * @param foundationPile the 0-based index of the foundation pile
+   * @return the top card, or null if the pile is empty
+   */
+  private BasicCard foundationTop(int foundationPile) {
+    ArrayList<BasicCard> foundation = this.foundations.get(foundationPile);
+    return foundation.isEmpty() ? null : foundation.getLast();
+  }
+
+  /**
+   * Brings the count of available moves up to date, by rechecking the moves into and out of
+   * every cascade pile that changed, and the moves onto every foundation pile that changed.
+   */
+  private void recountMoves() {
+    this.unshare();
+    int numPiles = this.cascades.size();
+    int numFoundations = this.foundations.size();
+    for (int index = 0; index < this.numChanged; index++) {
+      int changedPile = this.changed[index];
+      this.isChanged[changedPile] = false;
+      if (changedPile < numPiles) {
+        for (int other = 0; other < numPiles; other++) {
+          this.setPileMove(changedPile, other);
+          this.setPileMove(other, changedPile);
+        }
+        for (int foundation = 0; foundation < numFoundations; foundation++) {
+          this.setFoundationMove(changedPile, foundation);
+        }
+      } else {
+        for (int pile = 0; pile < numPiles; pile++) {
+          this.setFoundationMove(pile, changedPile - numPiles);
+        }
+      }
+    }
+    this.numChanged = 0;
+  }
+
+  /**
+   * Rechecks whether any face-up run of one cascade pile can move onto another, non-empty,
+   * cascade pile, and updates the count of available moves.
+   *
+   * @param srcPile  the 0-based index of the pile to move from
+   * @param destPile the 0-based index of the pile to move to
+   */
+  private void setPileMove(int srcPile, int destPile) {
+    BasicPile source = this.cascades.get(srcPile);
+    BasicPile dest = this.cascades.get(destPile);
+    boolean canMove = false;
+    if (srcPile != destPile && !dest.isEmpty()) {
+      for (int numCards = source.countVisibleCards(); numCards > 0 && !canMove; numCards--) {
+        canMove = this.dataChecker.canMoveRun(dest, source, numCards);
+      }
+    }
+    int slot = srcPile * this.cascades.size() + destPile;
+    this.availableMoves += Boolean.compare(canMove, this.pileMoves[slot]);
+    this.pileMoves[slot] = canMove;
+  }
+
+  /**
+   * Rechecks whether the top card of a cascade pile can move onto a foundation pile, and
+   * updates the count of available moves.
+   *
+   * @param srcPile        the 0-based index of the pile to move from
+   * @param foundationPile the 0-based index of the foundation pile to move to
+   */
+  private void setFoundationMove(int srcPile, int foundationPile) {
+    BasicCard top = this.cascades.get(srcPile).getTopCard();
+    boolean canMove = top != null
+        && this.dataChecker.canAddToFoundation(top, this.foundationTop(foundationPile));
+    int slot = srcPile * this.foundations.size() + foundationPile;
+    this.availableMoves += Boolean.compare(canMove, this.foundationMoves[slot]);
+    this.foundationMoves[slot] = canMove;
+  }
+
+  /**
+   * Records that a pile changed, so the moves involving it are rechecked by the next call to
+   * {@link #isGameOver()}. Cascade piles are numbered first, then foundation piles.
+   *
+   * @param pile the index of the changed pile
+   */
+  private void markChanged(int pile) {
+    if (!this.isChanged[pile]) {
+      this.isChanged[pile] = true;
+      this.changed[this.numChanged++] = pile;
+    }
+  }
+
+  /**
+   * Returns the given cascade pile, first copying it if it is shared with a fork, and records
+   * that it is about to change.
+   *
+   * @param pileNum the 0-based index of the pile
+   * @return a pile this game alone may change
+   */
+  private BasicPile writableCascade(int pileNum) {
+    this.unshare();
+    this.markChanged(pileNum);
+    if (!this.ownedCascades[pileNum]) {
+      this.cascades.set(pileNum, new BasicPile(this.cascades.get(pileNum)));
+      this.ownedCascades[pileNum] = true;
+    }
+    return this.cascades.get(pileNum);
+  }
+
+  /**
+   * Returns the given foundation pile, first copying it if it is shared with a fork, and
+   * records that it is about to change.
+   *
+   * @param foundationPile the 0-based index of the foundation pile
+   * @return a foundation pile this game alone may change
+   */
+  private ArrayList<BasicCard> writableFoundation(int foundationPile) {
+    this.unshare();
+    this.markChanged(this.cascades.size() + foundationPile);
+    if (!this.ownedFoundations[foundationPile]) {
+      this.foundations.set(foundationPile,
+          new ArrayList<>(this.foundations.get(foundationPile)));
+      this.ownedFoundations[foundationPile] = true;
+    }
+    return this.foundations.get(foundationPile);
+  }
+
+  /**
+   * Returns the stock, first copying it if it is shared with a fork.
+   *
+   * @return a stock this game alone may change
+   */
+  private StockPile<BasicCard> writableStock() {
+    this.unshare();
+    if (!this.ownsStock) {
+      this.stock = new StockPile<>(this.stock);
+      this.ownsStock = true;
+    }
+    return this.stock;
+  }
+
+  /**
+   * Stops sharing anything with the games this one was forked from or into, if it has been, by
+   * copying its tables and its lists of piles. The piles themselves stay shared, and are marked
+   * as not owned, so each is copied only when it is first changed. Every change to the game goes
+   * through this first.
+   */
+  private void unshare() {
+    if (!this.sharing.forked) {
+      return;
+    }
+    this.sharing = new Sharing();
+    this.cascades = new ArrayList<>(this.cascades);
+    this.foundations = new ArrayList<>(this.foundations);
+    this.ownedCascades = new boolean[this.ownedCascades.length];
+    this.ownedFoundations = new boolean[this.ownedFoundations.length];
+    this.ownsStock = false;
+    this.pilesOfHeight = this.pilesOfHeight.clone();
+    this.pileHashes = this.pileHashes.clone();
+    this.pileMoves = this.pileMoves.clone();
+    this.foundationMoves = this.foundationMoves.clone();
+    this.changed = this.changed.clone();
+    this.isChanged = this.isChanged.clone();
+    this.waitingHead = this.waitingHead.clone();
+    this.waitingNext = this.waitingNext.clone();
+    this.waitingPrev = this.waitingPrev.clone();
+  }
+
+  /**
+   * Returns the XOR of the hash keys of the cards of a cascade pile from the given row up.
+   *
+   * @param pileNum the 0-based index of the pile
+   * @param fromRow the first row to include
+   * @return the combined keys of those cards as they are now
+   */
+  private long rowsHash(int pileNum, int fromRow) {
+    BasicPile pile = this.cascades.get(pileNum);
+    long hash = 0;
+    for (int row = fromRow; row < pile.getPileSize(); row++) {
+      hash ^= ZobristKeys.cascadeCard(pile.getCard(row).getId(), row, pile.isCardVisible(row));
+    }
+    return hash;
+  }
+
+  /**
+   * Applies a change to the hash of one cascade pile, and to the hash of all the cascades.
+   *
+   * @param pileNum the 0-based index of the pile
+   * @param change  the keys to toggle in the hash of that pile
+   */
+  private void rehashPile(int pileNum, long change) {
+    this.cascadeHash ^= ZobristKeys.cascade(pileNum, this.pileHashes[pileNum]);
+    this.unorderedHash -= ZobristKeys.anyCascade(this.pileHashes[pileNum]);
+    this.pileHashes[pileNum] ^= change;
+    this.cascadeHash ^= ZobristKeys.cascade(pileNum, this.pileHashes[pileNum]);
+    this.unorderedHash += ZobristKeys.anyCascade(this.pileHashes[pileNum]);
+  }
+
   /**
    * Ensures the game has been started so other methods can run safely.
    *
@@ -556,4 +1513,12 @@ public abstract class AbstractKlondike implements KlondikeModel<BasicCard> {
     }
   }
 
+  /**
+   * A mark shared by a game and the games forked from it, which it shares its piles and tables
+   * with. Forking sets it, and a game that finds it set copies what it shares before changing
+   * anything, taking a fresh mark of its own.
+   */
+  private static final class Sharing {
+    private volatile boolean forked;
+  }
 }
@@ -4,6 +4,7 @@ import static java.lang.Math.max;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiPredicate;
 import klondike.model.hw02.BasicCard;
 import klondike.model.hw02.BasicPile;
 import klondike.model.hw02.PlayingCard;
@@ -12,9 +13,56 @@ import klondike.model.hw02.ValidData;
 
 /**
  * An abstract class containing validation methods for various moves and rules of Klondike
- * implementations.
+ * implementations. Rules between two cards are precomputed into tables with one row of bits per
+ * card id, so checking a pair of cards is a single bit test.
  */
 public abstract class AbstractValidData implements ValidData<BasicCard> {
+  private static final long[] FOUNDATION_ROWS = ruleTable((top, last) ->
+      top.getSuit() == last.getSuit() && top.getValue() == last.getValue() + 1);
+
+  private final long[] nextRows;
+
+  /**
+   * Creates a validator whose cascade builds follow the given table.
+   *
+   * @param nextRows the table of which cards may be placed on which in a cascade pile, as made
+   *                 by {@link #ruleTable}
+   */
+  protected AbstractValidData(long[] nextRows) {
+    this.nextRows = nextRows;
+  }
+
+  /**
+   * Precomputes a rule between two cards for every pair of card ids. Bit {@code second} of row
+   * {@code first} of the table is set when the rule holds for those two cards.
+   *
+   * @param rule the rule, given the first and second card
+   * @return the table of the rule
+   */
+  protected static long[] ruleTable(BiPredicate<PlayingCard, PlayingCard> rule) {
+    long[] rows = new long[BasicCard.numIds()];
+    for (int first = 0; first < rows.length; first++) {
+      for (int second = 0; second < rows.length; second++) {
+        if (rule.test(BasicCard.fromId(first), BasicCard.fromId(second))) {
+          rows[first] |= 1L << second;
+        }
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Returns the id of the given card, as given by {@link BasicCard#getId()}.
+   *
+   * @param card the card
+   * @return its id
+   */
+  protected static int cardId(PlayingCard card) {
+    if (card instanceof BasicCard) {
+      return ((BasicCard) card).getId();
+    }
+    return BasicCard.of(card.getRank(), card.getSuit()).getId();
+  }
 
   /**
    * Ensures the given deck consists of equal-length single-suit runs of consecutive values
@@ -84,6 +132,22 @@ public abstract class AbstractValidData implements ValidData<BasicCard> {
     }
   }
 
+  /**
+   * Signals whether the given card may be added to a foundation pile with the given top card.
+   * Only an Ace may start an empty pile, and otherwise the card must follow the top card.
+   *
+   * @param adding the card to be added to the foundation pile
+   * @param top    the top card of the foundation pile, or null if it is empty
+   * @return whether the move is allowable
+   */
+  @Override
+  public boolean canAddToFoundation(PlayingCard adding, PlayingCard top) {
+    if (top == null) {
+      return adding.isRank(Rank.ACE);
+    }
+    return this.validCardForFoundation(adding, top);
+  }
+
   /**
    * Checks that adding this card on top of the given last card in a foundation pile is valid.
    * The given card must be the same suit and sequential numerical value.
@@ -93,7 +157,20 @@ public abstract class AbstractValidData implements ValidData<BasicCard> {
    */
   @Override
   public boolean validCardForFoundation(PlayingCard top, PlayingCard last) {
-    return top.getSuit() == last.getSuit() && top.getValue() == last.getValue() + 1;
+    return this.validCardForFoundation(cardId(top), cardId(last));
+  }
+
+  /**
+   * Checks that the card with the given id may be added on top of the card with the other id
+   * in a foundation pile, with a single lookup in a precomputed table.
+   *
+   * @param top  the id of the card being added
+   * @param last the id of the last card in the foundation pile being added to
+   * @return whether it is valid
+   */
+  @Override
+  public boolean validCardForFoundation(int top, int last) {
+    return (FOUNDATION_ROWS[top] >>> last & 1L) != 0;
   }
 
   /**
@@ -122,14 +199,30 @@ public abstract class AbstractValidData implements ValidData<BasicCard> {
 
   /**
    * Checks that this top card is allowed to be placed on top of the given bottom card in
-   * a cascade pile. The requirements for that are determined by implementation.
+   * a cascade pile. The requirements for that are determined by implementation, through the
+   * table it was created with.
    *
    * @param top    The card being moved onto the pile
    * @param bottom The card that is at the top of the pile being moved onto
    * @return whether it is valid
    */
   @Override
-  public abstract boolean validNext(PlayingCard top, PlayingCard bottom);
+  public boolean validNext(PlayingCard top, PlayingCard bottom) {
+    return this.validNext(cardId(top), cardId(bottom));
+  }
+
+  /**
+   * Checks that the card with the given id may be placed on top of the card with the other id
+   * in a cascade pile, with a single lookup in the table this validator was created with.
+   *
+   * @param top    the id of the card being moved onto the pile
+   * @param bottom the id of the card at the top of the pile being moved onto
+   * @return whether it is valid
+   */
+  @Override
+  public boolean validNext(int top, int bottom) {
+    return (this.nextRows[top] >>> bottom & 1L) != 0;
+  }
 
   /**
    * Determines whether the pile specified by the following parameters is a legal Klondike move,
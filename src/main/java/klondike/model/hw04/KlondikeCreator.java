@@ -2,6 +2,8 @@ package klondike.model.hw04;
 
 import klondike.model.hw02.BasicKlondike;
 import klondike.model.hw02.KlondikeModel;
+import klondike.model.packed.BasicPackedKlondike;
+import klondike.model.packed.WhiteheadPackedKlondike;
 
 /**
  * A factory that contains a static method that delivers a requested model of Klondike.
@@ -9,9 +11,10 @@ import klondike.model.hw02.KlondikeModel;
 public class KlondikeCreator {
 
   /**
-   * Representing the different versions of Klondike.
+   * Representing the different versions of Klondike. The packed versions follow the same rules
+   * as their list-based counterparts while storing the game in primitive arrays.
    */
-  public enum GameType { BASIC, WHITEHEAD }
+  public enum GameType { BASIC, WHITEHEAD, PACKED_BASIC, PACKED_WHITEHEAD }
 
   /**
    * A factory method that returns the requested type of KlondikeModel.
@@ -20,10 +23,15 @@ public class KlondikeCreator {
    * @return a model implementation of KlondikeModel
    */
   public static KlondikeModel create(GameType type) {
-    if (type == GameType.WHITEHEAD) {
-      return new WhiteheadKlondike();
-    } else {
-      return new BasicKlondike();
+    switch (type) {
+      case WHITEHEAD:
+        return new WhiteheadKlondike();
+      case PACKED_BASIC:
+        return new BasicPackedKlondike();
+      case PACKED_WHITEHEAD:
+        return new WhiteheadPackedKlondike();
+      default:
+        return new BasicKlondike();
     }
   }
 }
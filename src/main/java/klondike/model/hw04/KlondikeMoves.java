@@ -0,0 +1,207 @@
+package klondike.model.hw04;
+
+import klondike.model.hw02.Card;
+import klondike.model.hw02.KlondikeModel;
+
+/**
+ * Encodes the moves of a Klondike game as single ints, so they can be stored in journals and
+ * move lists without allocating an object per move. A move packs its kind together with up to
+ * three arguments, each a 0-based index or count as taken by the methods of
+ * {@link KlondikeModel}.
+ */
+public final class KlondikeMoves {
+  /**
+   * The kind of a move made with {@link KlondikeModel#movePile}.
+   */
+  public static final int MOVE_PILE = 0;
+  /**
+   * The kind of a move made with {@link KlondikeModel#moveDraw}.
+   */
+  public static final int MOVE_DRAW = 1;
+  /**
+   * The kind of a move made with {@link KlondikeModel#moveToFoundation}.
+   */
+  public static final int MOVE_TO_FOUNDATION = 2;
+  /**
+   * The kind of a move made with {@link KlondikeModel#moveDrawToFoundation}.
+   */
+  public static final int MOVE_DRAW_TO_FOUNDATION = 3;
+  /**
+   * The kind of a move made with {@link KlondikeModel#discardDraw}.
+   */
+  public static final int DISCARD_DRAW = 4;
+
+  private static final int PILE_BITS = 10;
+  private static final int PILE_MASK = (1 << PILE_BITS) - 1;
+  private static final int COUNT_BITS = 8;
+  private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;
+  private static final int DEST_SHIFT = PILE_BITS;
+  private static final int COUNT_SHIFT = 2 * PILE_BITS;
+  private static final int KIND_SHIFT = 2 * PILE_BITS + COUNT_BITS;
+
+  private KlondikeMoves() {
+  }
+
+  /**
+   * Encodes moving cards from one cascade pile to another.
+   *
+   * @param srcPile  the 0-based index of the pile to move from
+   * @param numCards how many cards to move
+   * @param destPile the 0-based index of the pile to move to
+   * @return the encoded move
+   * @throws IllegalArgumentException if an argument is negative or too large to encode
+   */
+  public static int movePile(int srcPile, int numCards, int destPile)
+      throws IllegalArgumentException {
+    return encode(MOVE_PILE, srcPile, destPile, numCards);
+  }
+
+  /**
+   * Encodes moving the first draw card to a cascade pile.
+   *
+   * @param destPile the 0-based index of the pile to move to
+   * @return the encoded move
+   * @throws IllegalArgumentException if the pile is negative or too large to encode
+   */
+  public static int moveDraw(int destPile) throws IllegalArgumentException {
+    return encode(MOVE_DRAW, 0, destPile, 0);
+  }
+
+  /**
+   * Encodes moving the top card of a cascade pile to a foundation pile.
+   *
+   * @param srcPile        the 0-based index of the pile to move from
+   * @param foundationPile the 0-based index of the foundation pile to move to
+   * @return the encoded move
+   * @throws IllegalArgumentException if a pile is negative or too large to encode
+   */
+  public static int moveToFoundation(int srcPile, int foundationPile)
+      throws IllegalArgumentException {
+    return encode(MOVE_TO_FOUNDATION, srcPile, foundationPile, 0);
+  }
+
+  /**
+   * Encodes moving the first draw card to a foundation pile.
+   *
+   * @param foundationPile the 0-based index of the foundation pile to move to
+   * @return the encoded move
+   * @throws IllegalArgumentException if the pile is negative or too large to encode
+   */
+  public static int moveDrawToFoundation(int foundationPile) throws IllegalArgumentException {
+    return encode(MOVE_DRAW_TO_FOUNDATION, 0, foundationPile, 0);
+  }
+
+  /**
+   * Encodes discarding the first draw card.
+   *
+   * @return the encoded move
+   */
+  public static int discardDraw() {
+    return encode(DISCARD_DRAW, 0, 0, 0);
+  }
+
+  /**
+   * Returns the kind of the given move, one of the constants of this class.
+   *
+   * @param move the encoded move
+   * @return the kind of move
+   */
+  public static int kind(int move) {
+    return move >>> KIND_SHIFT;
+  }
+
+  /**
+   * Returns the cascade pile the given move takes cards from, or 0 if it takes from the draw.
+   *
+   * @param move the encoded move
+   * @return the 0-based index of the source pile
+   */
+  public static int source(int move) {
+    return move & PILE_MASK;
+  }
+
+  /**
+   * Returns the cascade or foundation pile the given move puts cards on, or 0 for a discard.
+   *
+   * @param move the encoded move
+   * @return the 0-based index of the destination pile
+   */
+  public static int destination(int move) {
+    return (move >>> DEST_SHIFT) & PILE_MASK;
+  }
+
+  /**
+   * Returns how many cards the given move takes from one cascade pile to another, or 0 for the
+   * other kinds of move.
+   *
+   * @param move the encoded move
+   * @return the number of cards moved between cascades
+   */
+  public static int count(int move) {
+    return (move >>> COUNT_SHIFT) & COUNT_MASK;
+  }
+
+  /**
+   * Makes the given move in the given game.
+   *
+   * @param model the game to play the move in
+   * @param move  the encoded move
+   * @param <C>   the type of card in the game
+   * @throws IllegalArgumentException if the move is not physically possible
+   * @throws IllegalStateException    if the move is not allowable, or the game has not started
+   */
+  public static <C extends Card> void apply(KlondikeModel<C> model, int move)
+      throws IllegalArgumentException, IllegalStateException {
+    switch (kind(move)) {
+      case MOVE_PILE:
+        model.movePile(source(move), count(move), destination(move));
+        break;
+      case MOVE_DRAW:
+        model.moveDraw(destination(move));
+        break;
+      case MOVE_TO_FOUNDATION:
+        model.moveToFoundation(source(move), destination(move));
+        break;
+      case MOVE_DRAW_TO_FOUNDATION:
+        model.moveDrawToFoundation(destination(move));
+        break;
+      default:
+        model.discardDraw();
+        break;
+    }
+  }
+
+  /**
+   * Describes the given move as the command a player would type to make it, with 1-based
+   * indices, such as {@code "mpp 1 3 2"}.
+   *
+   * @param move the encoded move
+   * @return the command for the move
+   */
+  public static String toString(int move) {
+    switch (kind(move)) {
+      case MOVE_PILE:
+        return "mpp " + (source(move) + 1) + " " + count(move) + " " + (destination(move) + 1);
+      case MOVE_DRAW:
+        return "md " + (destination(move) + 1);
+      case MOVE_TO_FOUNDATION:
+        return "mpf " + (source(move) + 1) + " " + (destination(move) + 1);
+      case MOVE_DRAW_TO_FOUNDATION:
+        return "mdf " + (destination(move) + 1);
+      default:
+        return "dd";
+    }
+  }
+
+  /**
+   * Packs a move into an int, checking every field fits.
+   */
+  private static int encode(int kind, int source, int destination, int count)
+      throws IllegalArgumentException {
+    if (source < 0 || source > PILE_MASK || destination < 0 || destination > PILE_MASK
+        || count < 0 || count > COUNT_MASK) {
+      throw new IllegalArgumentException("Move cannot be encoded");
+    }
+    return kind << KIND_SHIFT | count << COUNT_SHIFT | destination << DEST_SHIFT | source;
+  }
+}
@@ -0,0 +1,106 @@
+package klondike.model.hw04;
+
+/**
+ * Lists every legal move of a started game, encoded with {@link KlondikeMoves}, into an array
+ * supplied by the caller. Nothing is allocated per move, and no move is tried by catching an
+ * exception, so a bot can reuse one array for every position it looks at. The rules of the game
+ * come from the game itself, so each variant gets its own moves.
+ */
+public final class MoveGenerator {
+
+  private MoveGenerator() {
+  }
+
+  /**
+   * Returns an upper bound on how many legal moves the given game has in its current position,
+   * which is a safe size for the array passed to {@link #legalMoves}.
+   *
+   * @param game the game to bound the moves of
+   * @return the most legal moves the game could have right now
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public static int maxMoves(AbstractKlondike game) throws IllegalStateException {
+    int piles = game.getNumPiles();
+    int foundations = game.getNumFoundations();
+    int visible = 0;
+    for (int pile = 0; pile < piles; pile++) {
+      for (int card = game.getPileHeight(pile) - 1; card >= 0; card--) {
+        if (!game.isCardVisible(pile, card)) {
+          break;
+        }
+        visible++;
+      }
+    }
+    return visible * Math.max(0, piles - 1) + piles * foundations + piles + foundations + 1;
+  }
+
+  /**
+   * Writes every legal move of the given game into the start of the given array, and returns
+   * how many there are. Moves to foundation piles come first, then moves between cascade piles,
+   * then moves of the draw card, and a discard, if allowed, comes last.
+   *
+   * @param game  the game to list the moves of
+   * @param moves the array to write the encoded moves into
+   * @return the number of legal moves written
+   * @throws IllegalStateException     if the game hasn't been started yet
+   * @throws IndexOutOfBoundsException if the array is too small to hold every legal move
+   */
+  public static int legalMoves(AbstractKlondike game, int[] moves)
+      throws IllegalStateException, IndexOutOfBoundsException {
+    return legalMoves(game, moves, 0);
+  }
+
+  /**
+   * Writes every legal move of the given game into the given array from the given index on, in
+   * the same order as {@link #legalMoves(AbstractKlondike, int[])}, and returns how many there
+   * are. This lets a search keep the moves of a whole line of play in one array.
+   *
+   * @param game   the game to list the moves of
+   * @param moves  the array to write the encoded moves into
+   * @param offset the index of the array to write the first move at
+   * @return the number of legal moves written
+   * @throws IllegalStateException     if the game hasn't been started yet
+   * @throws IndexOutOfBoundsException if the array is too small to hold every legal move after
+   *                                   the offset
+   */
+  public static int legalMoves(AbstractKlondike game, int[] moves, int offset)
+      throws IllegalStateException, IndexOutOfBoundsException {
+    int piles = game.getNumPiles();
+    int foundations = game.getNumFoundations();
+    int count = offset;
+
+    for (int foundation = 0; foundation < foundations; foundation++) {
+      for (int pile = 0; pile < piles; pile++) {
+        if (game.canMoveToFoundation(pile, foundation)) {
+          moves[count++] = KlondikeMoves.moveToFoundation(pile, foundation);
+        }
+      }
+      if (game.canMoveDrawToFoundation(foundation)) {
+        moves[count++] = KlondikeMoves.moveDrawToFoundation(foundation);
+      }
+    }
+
+    for (int pile = 0; pile < piles; pile++) {
+      int height = game.getPileHeight(pile);
+      for (int numCards = 1; numCards <= height && game.isCardVisible(pile, height - numCards);
+           numCards++) {
+        for (int dest = 0; dest < piles; dest++) {
+          if (game.canMovePile(pile, numCards, dest)) {
+            moves[count++] = KlondikeMoves.movePile(pile, numCards, dest);
+          }
+        }
+      }
+    }
+
+    for (int dest = 0; dest < piles; dest++) {
+      if (game.canMoveDraw(dest)) {
+        moves[count++] = KlondikeMoves.moveDraw(dest);
+      }
+    }
+
+    if (game.getStockCount() > 0) {
+      moves[count++] = KlondikeMoves.discardDraw();
+    }
+    return count - offset;
+  }
+}
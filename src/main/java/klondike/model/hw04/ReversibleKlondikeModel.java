@@ -0,0 +1,46 @@
+package klondike.model.hw04;
+
+import klondike.model.hw02.Card;
+import klondike.model.hw02.KlondikeModel;
+
+/**
+ * A KlondikeModel that remembers the moves made in it, so they can be taken back and made
+ * again. Making a new move after an undo forgets the moves that could have been redone.
+ *
+ * @param <C> the type of card used in the game
+ */
+public interface ReversibleKlondikeModel<C extends Card> extends KlondikeModel<C> {
+
+  /**
+   * Takes back the most recent move that has not been undone, including turning back over any
+   * card that move revealed.
+   *
+   * @throws IllegalStateException if the game hasn't been started yet, or there is no move to
+   *                               undo
+   */
+  void undo() throws IllegalStateException;
+
+  /**
+   * Makes again the most recently undone move.
+   *
+   * @throws IllegalStateException if the game hasn't been started yet, or there is no move to
+   *                               redo
+   */
+  void redo() throws IllegalStateException;
+
+  /**
+   * Signals whether there is a move that can be undone.
+   *
+   * @return true if {@link #undo()} would succeed
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  boolean canUndo() throws IllegalStateException;
+
+  /**
+   * Signals whether there is an undone move that can be redone.
+   *
+   * @return true if {@link #redo()} would succeed
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  boolean canRedo() throws IllegalStateException;
+}
@@ -0,0 +1,258 @@
+package klondike.model.hw04;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import klondike.model.hw02.Card;
+
+/**
+ * The stock of a Klondike game together with its face-up draw cards, kept in one circular buffer.
+ * The first few cards of the buffer are the visible draw cards, and the rest are the face-down
+ * stock in the order they will be revealed. Taking the top draw card, discarding it to the
+ * bottom of the stock, and revealing the next card are all constant time, and so is keeping
+ * a hash of the order of the cards up to date.
+ *
+ * @param <C> the type of card in the stock
+ */
+public class StockPile<C extends Card> {
+  private final Object[] cards;
+  private final int numDraw;
+  private int head;
+  private int count;
+  private int discardsSinceTake;
+  private long hash;
+  private long lastPower;
+
+  /**
+   * Creates a stock from the given cards, revealing up to the given number of draw cards.
+   *
+   * @param cards   the cards in the stock, first card on top
+   * @param numDraw the maximum number of draw cards visible at a time
+   */
+  public StockPile(List<C> cards, int numDraw) {
+    this.cards = cards.toArray();
+    this.numDraw = numDraw;
+    this.head = 0;
+    this.count = this.cards.length;
+    this.discardsSinceTake = 0;
+    this.rehash();
+  }
+
+  /**
+   * Creates a copy of the given stock, in the same position. The copy can be changed without
+   * affecting the original.
+   *
+   * @param other the stock to copy
+   */
+  public StockPile(StockPile<C> other) {
+    this.cards = other.cards.clone();
+    this.numDraw = other.numDraw;
+    this.head = other.head;
+    this.count = other.count;
+    this.discardsSinceTake = other.discardsSinceTake;
+    this.hash = other.hash;
+    this.lastPower = other.lastPower;
+  }
+
+  /**
+   * Returns how many draw cards are currently visible.
+   *
+   * @return the number of visible draw cards
+   */
+  public int getDrawCount() {
+    return Math.min(this.numDraw, this.count);
+  }
+
+  /**
+   * Returns how many cards are still face-down in the stock, behind the visible draw cards.
+   *
+   * @return the number of face-down stock cards
+   */
+  public int getStockCount() {
+    return this.count - this.getDrawCount();
+  }
+
+  /**
+   * Returns how many more times the top draw card can be discarded before the draw cards repeat
+   * an order already shown since a card was last taken. Once this reaches zero, discarding
+   * further only cycles through positions that have been seen before.
+   *
+   * @return the number of discards left in the current cycle of the stock
+   */
+  public int getDiscardsBeforeRepeat() {
+    if (this.getStockCount() == 0) {
+      return 0;
+    }
+    return this.count - this.discardsSinceTake;
+  }
+
+  /**
+   * Returns a hash of the cards in the stock in order, starting from the first draw card. Stocks
+   * holding equal cards in the same order have equal hashes. Every card is hashed by its place,
+   * so reordering the cards changes the hash even when the stock holds several copies of a card.
+   *
+   * @return the hash of the stock
+   */
+  public long getHash() {
+    return ZobristKeys.stock(this.hash);
+  }
+
+  /**
+   * Returns the visible draw card at the given position.
+   *
+   * @param index the 0-based position among the draw cards, 0 being the first to draw
+   * @return the draw card at that position
+   * @throws IndexOutOfBoundsException if there is no draw card at that position
+   */
+  @SuppressWarnings("unchecked")
+  public C getDrawCard(int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= this.getDrawCount()) {
+      throw new IndexOutOfBoundsException("No draw card at " + index);
+    }
+    return (C) this.cards[(this.head + index) % this.cards.length];
+  }
+
+  /**
+   * Returns a copy of the visible draw cards, first to draw first.
+   *
+   * @return the list of draw cards
+   */
+  public List<C> getDrawCards() {
+    List<C> drawCards = new ArrayList<>(this.getDrawCount());
+    for (int index = 0; index < this.getDrawCount(); index++) {
+      drawCards.add(this.getDrawCard(index));
+    }
+    return drawCards;
+  }
+
+  /**
+   * Removes and returns the first draw card, revealing the next stock card in its place.
+   *
+   * @return the card that was taken
+   * @throws IllegalStateException if there are no draw cards
+   */
+  public C takeDraw() throws IllegalStateException {
+    if (this.count == 0) {
+      throw new IllegalStateException("No draw cards to take");
+    }
+    final C taken = this.getDrawCard(0);
+    this.hash = (this.hash - this.cardKey(0)) * ZobristKeys.STOCK_BASE_INVERSE;
+    this.lastPower *= ZobristKeys.STOCK_BASE_INVERSE;
+    this.cards[this.head] = null;
+    this.head = (this.head + 1) % this.cards.length;
+    this.count--;
+    this.discardsSinceTake = 0;
+    return taken;
+  }
+
+  /**
+   * Moves the first draw card to the bottom of the stock, revealing the next stock card.
+   *
+   * @throws IllegalStateException if the stock has no face-down cards to reveal
+   */
+  public void discardDraw() throws IllegalStateException {
+    if (this.getStockCount() == 0) {
+      throw new IllegalStateException("Cannot discard to empty draw pile");
+    }
+    long top = this.cardKey(0);
+    this.hash = (this.hash - top) * ZobristKeys.STOCK_BASE_INVERSE + top * this.lastPower;
+    int tail = (this.head + this.count) % this.cards.length;
+    this.cards[tail] = this.cards[this.head];
+    if (tail != this.head) {
+      this.cards[this.head] = null;
+    }
+    this.head = (this.head + 1) % this.cards.length;
+    this.discardsSinceTake = Math.min(this.discardsSinceTake + 1, this.count);
+  }
+
+  /**
+   * Returns how many times the first draw card has been discarded since a card was last taken,
+   * capped at the size of the stock. Undoing a move restores this count.
+   *
+   * @return the number of discards since the last take
+   */
+  public int getDiscardsSinceTake() {
+    return this.discardsSinceTake;
+  }
+
+  /**
+   * Puts a taken card back in front of the draw cards, undoing {@link #takeDraw()}.
+   *
+   * @param card              the card that was taken
+   * @param discardsSinceTake the discard count from before the card was taken
+   * @throws IllegalStateException if the stock has never held that many cards
+   */
+  public void returnDraw(C card, int discardsSinceTake) throws IllegalStateException {
+    if (this.count == this.cards.length) {
+      throw new IllegalStateException("No card was taken from the stock");
+    }
+    this.head = (this.head + this.cards.length - 1) % this.cards.length;
+    this.cards[this.head] = card;
+    this.count++;
+    this.hash = this.hash * ZobristKeys.STOCK_BASE + this.cardKey(0);
+    this.lastPower *= ZobristKeys.STOCK_BASE;
+    this.discardsSinceTake = discardsSinceTake;
+  }
+
+  /**
+   * Moves the bottom card of the stock back to the front of the draw cards, undoing
+   * {@link #discardDraw()}.
+   *
+   * @param discardsSinceTake the discard count from before the card was discarded
+   * @throws IllegalStateException if the stock is empty
+   */
+  public void undoDiscard(int discardsSinceTake) throws IllegalStateException {
+    if (this.count == 0) {
+      throw new IllegalStateException("No discard to undo");
+    }
+    long bottom = this.cardKey(this.count - 1);
+    this.hash = (this.hash - bottom * this.lastPower) * ZobristKeys.STOCK_BASE + bottom;
+    int tail = (this.head + this.count - 1) % this.cards.length;
+    this.head = (this.head + this.cards.length - 1) % this.cards.length;
+    this.cards[this.head] = this.cards[tail];
+    if (tail != this.head) {
+      this.cards[tail] = null;
+    }
+    this.discardsSinceTake = discardsSinceTake;
+  }
+
+  /**
+   * Replaces the face-down stock cards, behind the draw cards, with cards from the given array
+   * in the order they will be revealed. The draw cards and the discard count are kept.
+   *
+   * @param replacements the array holding the new stock cards
+   * @param offset       the index in the array of the new card to reveal first
+   * @throws IndexOutOfBoundsException if the array holds too few cards from that index
+   */
+  public void replaceStock(C[] replacements, int offset) throws IndexOutOfBoundsException {
+    Objects.checkFromIndexSize(offset, this.getStockCount(), replacements.length);
+    for (int index = this.getDrawCount(); index < this.count; index++) {
+      this.cards[(this.head + index) % this.cards.length] =
+          replacements[offset + index - this.getDrawCount()];
+    }
+    this.rehash();
+  }
+
+  /**
+   * Hashes the cards as they are now from scratch, as the sum of the key of each card times
+   * {@link ZobristKeys#STOCK_BASE} to the power of its place. Also works out that power for the
+   * last place, which a card discarded to the bottom of the stock takes.
+   */
+  private void rehash() {
+    long power = 1;
+    this.hash = 0;
+    for (int index = 0; index < this.count; index++) {
+      this.hash += this.cardKey(index) * power;
+      power *= ZobristKeys.STOCK_BASE;
+    }
+    this.lastPower = power * ZobristKeys.STOCK_BASE_INVERSE;
+  }
+
+  /**
+   * Returns the hash key of the card at the given place in the stock, 0 being the first draw
+   * card.
+   */
+  private long cardKey(int index) {
+    return ZobristKeys.stockCard(this.cards[(this.head + index) % this.cards.length].hashCode());
+  }
+}
@@ -9,6 +9,17 @@ import klondike.model.hw02.Suit;
  * the rules of Whitehead Klondike.
  */
 public class WhiteheadValidData extends AbstractValidData {
+  private static final long[] NEXT_ROWS = ruleTable((top, bottom) ->
+      top.getSuit().sameColor(bottom.getSuit())
+          && top.getRank().getValue() == bottom.getRank().getValue() - 1);
+
+  /**
+   * Creates the validator object. Builds must be descending and single-colored.
+   */
+  public WhiteheadValidData() {
+    super(NEXT_ROWS);
+  }
+
   /**
    * Ensures the cards specified can be added to the end of the specified cascade pile.
    * Any cards can be added to empty piles, not just Kings. All cards moved must be the same Suit.
@@ -19,47 +30,60 @@ public class WhiteheadValidData extends AbstractValidData {
    */
   @Override
   public void validAddToCascade(BasicPile srcPile, BasicPile adding) throws IllegalStateException {
-    if (!srcPile.getList().isEmpty()) {
-      if (!this.validNext(adding.getList().getFirst(), srcPile.getList().getLast())) {
+    if (!srcPile.isEmpty()) {
+      if (!this.validNext(adding.getCard(0), srcPile.getTopCard())) {
         throw new IllegalStateException("Invalid card add to pile");
       }
     }
-    if (!this.allSameSuit(adding)) {
+    if (!this.allSameSuit(adding, 0)) {
       throw new IllegalStateException("Invalid pile move, must be all same suit.");
     }
   }
 
   /**
-   * Checks that this top card is allowed to be placed on top of the given bottom card in
-   * a cascade pile. Requires builds to be single-colored.
+   * Signals whether the top cards of one cascade pile may be moved onto another. Any card may
+   * start an empty pile, and all the moving cards must share a suit.
+   *
+   * @param destPile the cascade pile to be added to
+   * @param srcPile  the cascade pile the cards are moving from
+   * @param numCards how many cards from the top of srcPile are moving
+   * @return whether the move is allowable
+   */
+  @Override
+  public boolean canMoveRun(BasicPile destPile, BasicPile srcPile, int numCards) {
+    int start = srcPile.getPileSize() - numCards;
+    return this.canAddToCascade(destPile, srcPile.getCard(start))
+        && this.allSameSuit(srcPile, start);
+  }
+
+  /**
+   * Signals whether a single card may be added to the end of the given cascade pile.
+   * Any card may start an empty pile.
    *
-   * @param top    The card being moved onto the pile
-   * @param bottom The card that is at the top of the pile being moved onto
-   * @return whether it is valid
+   * @param destPile the cascade pile to be added to
+   * @param adding   the card being added
+   * @return whether the move is allowable
    */
   @Override
-  public boolean validNext(PlayingCard top, PlayingCard bottom) {
-    return top.getSuit().sameColor(bottom.getSuit())
-        && top.getRank().getValue() == bottom.getRank().getValue() - 1;
+  public boolean canAddToCascade(BasicPile destPile, PlayingCard adding) {
+    return destPile.isEmpty() || this.validNext(adding, destPile.getTopCard());
   }
 
   /**
-   * Determines if all the Cards in the Pile are the same Suit.
+   * Determines if all the Cards in the Pile from the given index up are the same Suit.
    *
    * @param toCheck the Cards to compare
+   * @param from    the index of the first Card to compare
    * @return whether they are the same Suit
    */
-  private boolean allSameSuit(BasicPile toCheck) {
-    Suit matchSuit = null;
-    boolean same = true;
+  private boolean allSameSuit(BasicPile toCheck, int from) {
+    Suit matchSuit = toCheck.getCard(from).getSuit();
 
-    for (PlayingCard card : toCheck.getList()) {
-      if (matchSuit != null) {
-        same = same && card.getSuit() == matchSuit;
-      } else {
-        matchSuit = card.getSuit();
+    for (int index = from + 1; index < toCheck.getPileSize(); index++) {
+      if (toCheck.getCard(index).getSuit() != matchSuit) {
+        return false;
       }
     }
-    return same;
+    return true;
   }
 }
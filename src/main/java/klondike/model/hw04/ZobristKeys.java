@@ -0,0 +1,131 @@
+package klondike.model.hw04;
+
+/**
+ * The random keys behind the Zobrist hashes of Klondike positions. Each key is the mix of a
+ * packed description of one fact about a position, such as "this card is face-up at this row",
+ * so the keys need no table and are the same on every run.
+ */
+final class ZobristKeys {
+  private static final long CASCADE_CARD = 1L << 60;
+  private static final long CASCADE = 2L << 60;
+  private static final long FOUNDATION_CARD = 3L << 60;
+  private static final long STOCK_CARD = 4L << 60;
+  private static final long STOCK = 5L << 60;
+  private static final long ANY_CASCADE = 6L << 60;
+  private static final long ANY_FOUNDATION_CARD = 7L << 60;
+
+  /**
+   * The odd number a stock card's key is multiplied by for each card in front of it.
+   */
+  static final long STOCK_BASE = 0xD1B54A32D192ED03L;
+
+  /**
+   * The inverse of {@link #STOCK_BASE}, modulo 2<sup>64</sup>, which takes a card's place back
+   * by one.
+   */
+  static final long STOCK_BASE_INVERSE = inverse(STOCK_BASE);
+
+  private ZobristKeys() {
+  }
+
+  /**
+   * Returns the key for a card sitting at the given row of a cascade pile.
+   *
+   * @param cardId the id of the card
+   * @param row    the 0-based row of the card in its pile
+   * @param faceUp whether the card is face-up
+   * @return the key for that card in that position
+   */
+  static long cascadeCard(int cardId, int row, boolean faceUp) {
+    return mix(CASCADE_CARD | (long) cardId << 24 | (long) row << 1 | (faceUp ? 1 : 0));
+  }
+
+  /**
+   * Returns the contribution of a whole cascade pile to the hash of a position. The pile hash
+   * is mixed with its index so that identical piles in different columns do not cancel out.
+   *
+   * @param pile     the 0-based index of the pile
+   * @param pileHash the XOR of the keys of every card in the pile
+   * @return the key for that pile in that column
+   */
+  static long cascade(int pile, long pileHash) {
+    return mix(pileHash ^ mix(CASCADE | pile));
+  }
+
+  /**
+   * Returns the contribution of a whole cascade pile to a hash that ignores which column each
+   * pile is in. These keys are added up rather than XORed, so identical piles do not cancel.
+   *
+   * @param pileHash the XOR of the keys of every card in the pile
+   * @return the key for that pile in any column
+   */
+  static long anyCascade(long pileHash) {
+    return mix(pileHash ^ ANY_CASCADE);
+  }
+
+  /**
+   * Returns the key for a card sitting on the given foundation pile.
+   *
+   * @param foundation the 0-based index of the foundation pile
+   * @param cardId     the id of the card
+   * @return the key for that card on that foundation
+   */
+  static long foundationCard(int foundation, int cardId) {
+    return mix(FOUNDATION_CARD | (long) foundation << 24 | cardId);
+  }
+
+  /**
+   * Returns the key for a card sitting on any foundation pile. These keys are added up rather
+   * than XORed, so the same card on two foundations does not cancel.
+   *
+   * @param cardId the id of the card
+   * @return the key for that card on some foundation
+   */
+  static long anyFoundationCard(int cardId) {
+    return mix(ANY_FOUNDATION_CARD | cardId);
+  }
+
+  /**
+   * Returns the key for a card in the stock. A stock is hashed as the sum of the keys of its
+   * cards, each multiplied by {@link #STOCK_BASE} once for every card in front of it, so the
+   * hash depends on the place of every card and copies of a card never cancel out.
+   *
+   * @param card the hash code of the card
+   * @return the key for that card in the stock
+   */
+  static long stockCard(int card) {
+    return mix(STOCK_CARD ^ (card & 0xFFFFFFFFL));
+  }
+
+  /**
+   * Returns the contribution of a whole stock to the hash of a position.
+   *
+   * @param stockHash the sum of the keys of the stock cards, weighted by their places
+   * @return the key for that stock
+   */
+  static long stock(long stockHash) {
+    return mix(stockHash ^ STOCK);
+  }
+
+  /**
+   * Returns the multiplicative inverse of an odd number, modulo 2<sup>64</sup>, by Newton's
+   * method: each step doubles the number of correct low bits, starting from three.
+   */
+  private static long inverse(long odd) {
+    long inverse = odd;
+    for (int step = 0; step < 5; step++) {
+      inverse *= 2 - odd * inverse;
+    }
+    return inverse;
+  }
+
+  /**
+   * Scrambles the bits of a value, using the finalizer of the SplitMix64 generator.
+   */
+  private static long mix(long value) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
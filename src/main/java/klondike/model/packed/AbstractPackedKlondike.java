@@ -0,0 +1,648 @@
+package klondike.model.packed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.KlondikeModel;
+import klondike.model.hw02.Rank;
+import klondike.model.hw02.Suit;
+import klondike.model.hw02.ValidData;
+
+/**
+ * An abstract KlondikeModel that stores the whole table in a handful of primitive arrays instead
+ * of lists of card objects. Every card is encoded as its byte id ({@link BasicCard#getId()}), each
+ * cascade is a fixed-width slice of one shared byte array with a single face-down boundary, each
+ * foundation is just the id of its top card, and the stock and draw cards share one circular
+ * byte array. Games played with this model behave like the list-based models, but take a small
+ * fraction of the memory, which matters when many games are kept alive at once.
+ */
+public abstract class AbstractPackedKlondike implements KlondikeModel<BasicCard> {
+  private static final int NUM_RANKS = Rank.values().length;
+  private static final byte EMPTY = -1;
+
+  private final ValidData<BasicCard> dataChecker;
+  private boolean started;
+  private int numPiles;
+  private int pileWidth;
+  private byte[] cascades;
+  private int[] heights;
+  private int[] faceDown;
+  private byte[] foundations;
+  private byte[] stock;
+  private int stockHead;
+  private int stockCount;
+  private int numDrawCards;
+
+  /**
+   * Initializes the game into a state that is ready for someone to call startGame and begin
+   * playing. Game is not yet playable after just running the constructor.
+   *
+   * @param dataChecker the validator holding the build rules of this variant
+   */
+  public AbstractPackedKlondike(ValidData<BasicCard> dataChecker) {
+    this.started = false;
+    this.dataChecker = dataChecker;
+  }
+
+  /**
+   * Return a valid and complete deck of cards for a game of Klondike.
+   * There is no restriction imposed on the ordering of these cards in the deck.
+   * The validity of the deck is determined by the rules of the specific game in
+   * the classes implementing this interface.  This method may be called as often
+   * as desired.
+   *
+   * @return the deck of cards as a list
+   */
+  @Override
+  public List<BasicCard> createNewDeck() {
+    List<BasicCard> newDeck = new ArrayList<>();
+    for (Suit suit : List.of(Suit.DIAMONDS, Suit.CLUBS, Suit.HEARTS, Suit.SPADES)) {
+      for (Rank rank : Rank.values()) {
+        newDeck.add(BasicCard.of(rank, suit));
+      }
+    }
+    return newDeck;
+  }
+
+  /**
+   * Deal a new game of Klondike.
+   * The cards to be used and their order are specified by the given deck,
+   * unless the {@code shuffle} parameter indicates the order should be ignored.
+   *
+   * <p>This method first verifies that the deck is valid. It deals cards in rows
+   * (left-to-right, top-to-bottom) into the characteristic cascade shape
+   * with the specified number of rows, followed by (at most) the specified number of
+   * draw cards. When {@code shuffle} is {@code false}, the {@code deck} must be used in order and
+   * the 0th card in {@code deck} is used as the first card dealt.
+   * There will be as many foundation piles as there are Aces in the deck.
+   * Every dealt card starts face-down; implementations reveal cards as their rules require.</p>
+   *
+   * @param deck     the deck to be dealt
+   * @param shuffle  if {@code false}, use the order as given by {@code deck},
+   *                 otherwise use a randomly shuffled order
+   * @param numPiles number of piles to be dealt
+   * @param numDraw  maximum number of draw cards available at a time
+   * @throws IllegalStateException    if the game has already started
+   * @throws IllegalArgumentException if the deck is null or invalid,
+   *                                  a full cascade cannot be dealt with the given sizes,
+   *                                  or another input is invalid
+   */
+  @Override
+  public void startGame(List<BasicCard> deck, boolean shuffle, int numPiles, int numDraw)
+      throws IllegalArgumentException, IllegalStateException {
+    if (this.started) {
+      throw new IllegalStateException("Game is already started");
+    }
+    if (!this.dataChecker.validateDeck(deck) || numDraw <= 0 || numPiles <= 0
+        || deck.size() < numPiles * (numPiles + 1) / 2) {
+      throw new IllegalArgumentException("Invalid state to start a game in");
+    }
+
+    byte[] ids = new byte[deck.size()];
+    for (int index = 0; index < ids.length; index++) {
+      ids[index] = (byte) deck.get(index).getId();
+    }
+    if (shuffle) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      for (int index = ids.length - 1; index > 0; index--) {
+        int swap = random.nextInt(index + 1);
+        byte temp = ids[index];
+        ids[index] = ids[swap];
+        ids[swap] = temp;
+      }
+    }
+
+    this.started = true;
+    this.numPiles = numPiles;
+    this.pileWidth = this.maxPileHeight(numPiles, ids.length);
+    this.cascades = new byte[numPiles * this.pileWidth];
+    this.heights = new int[numPiles];
+    this.faceDown = new int[numPiles];
+
+    this.foundations = new byte[this.dataChecker.numAces(deck)];
+    Arrays.fill(this.foundations, EMPTY);
+
+    int next = 0;
+    for (int row = 0; row < numPiles; row++) {
+      for (int column = row; column < numPiles; column++) {
+        this.cascades[column * this.pileWidth + row] = ids[next++];
+        this.heights[column]++;
+        this.faceDown[column]++;
+      }
+    }
+
+    this.stockCount = ids.length - next;
+    this.stock = new byte[this.stockCount];
+    System.arraycopy(ids, next, this.stock, 0, this.stockCount);
+    this.stockHead = 0;
+    this.numDrawCards = numDraw;
+  }
+
+  /**
+   * Moves the requested number of cards from the source pile to the destination pile,
+   * if allowable by the rules of the game.
+   *
+   * @param srcPile  the 0-based index (from the left) of the pile to be moved
+   * @param numCards how many cards to be moved from that pile
+   * @param destPile the 0-based index (from the left) of the destination pile for the moved cards
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if either pile number is invalid, if the pile numbers are
+   *                                  the same, or there are not enough cards to move
+   *                                  from the srcPile to the
+   *                                  destPile (i.e. the move is not physically possible)
+   * @throws IllegalStateException    if the move is not allowable (i.e. the move is not logically
+   *                                  possible)
+   */
+  @Override
+  public void movePile(int srcPile, int numCards, int destPile)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+
+    if (!this.dataChecker.validPileIndex(srcPile, this.numPiles)
+        || !this.dataChecker.validPileMove(srcPile, numCards, destPile, this.numPiles,
+        this.countVisible(srcPile))) {
+      throw new IllegalArgumentException("Move is not physically possible");
+    }
+
+    int start = this.heights[srcPile] - numCards;
+    int first = this.cascades[srcPile * this.pileWidth + start];
+    if (!this.canPlaceOn(destPile, first)) {
+      throw new IllegalStateException("Invalid card add to pile");
+    }
+    if (!this.validRun(srcPile, start)) {
+      throw new IllegalStateException("Invalid pile move, must be all same suit.");
+    }
+
+    System.arraycopy(this.cascades, srcPile * this.pileWidth + start, this.cascades,
+        destPile * this.pileWidth + this.heights[destPile], numCards);
+    this.heights[destPile] += numCards;
+    this.heights[srcPile] = start;
+    this.revealTop(srcPile);
+  }
+
+  /**
+   * Moves the topmost draw card to the destination pile. Reveals the next
+   * available draw card (if any).
+   *
+   * @param destPile the 0-based index (from the left) of the destination pile for the card
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if destination pile number is invalid
+   * @throws IllegalStateException    if there are no draw cards, or
+   *                                  if the move is not allowable
+   */
+  @Override
+  public void moveDraw(int destPile) throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+
+    if (destPile < 0 || destPile >= this.numPiles) {
+      throw new IllegalArgumentException("Invalid destination pile index");
+    }
+    if (this.drawCount() == 0) {
+      throw new IllegalStateException("No draw cards to move");
+    }
+
+    byte moving = this.stock[this.stockHead];
+    if (!this.canPlaceOn(destPile, moving)) {
+      throw new IllegalStateException("Invalid card add to pile");
+    }
+
+    this.cascades[destPile * this.pileWidth + this.heights[destPile]] = moving;
+    this.heights[destPile]++;
+    this.takeDraw();
+  }
+
+  /**
+   * Moves the top card of the given pile to the requested foundation pile.
+   *
+   * @param srcPile        the 0-based index (from the left) of the pile to move a card
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to place card
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if either pile number is invalid
+   * @throws IllegalStateException    if the source pile is empty or if the move is not allowable
+   */
+  @Override
+  public void moveToFoundation(int srcPile, int foundationPile)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+
+    if (srcPile < 0 || foundationPile < 0 || srcPile >= this.numPiles
+        || foundationPile >= this.foundations.length) {
+      throw new IllegalArgumentException("Invalid pile index");
+    }
+    if (this.heights[srcPile] == 0) {
+      throw new IllegalStateException("Cascade source pile is empty");
+    }
+
+    byte moving = this.cascades[srcPile * this.pileWidth + this.heights[srcPile] - 1];
+    this.checkFoundationMove(moving, foundationPile);
+
+    this.foundations[foundationPile] = moving;
+    this.heights[srcPile]--;
+    this.revealTop(srcPile);
+  }
+
+  /**
+   * Moves the topmost draw card directly to a foundation pile, and reveals
+   * the next draw card, if there are any.
+   *
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to place card
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if the foundation pile number is invalid
+   * @throws IllegalStateException    if there are no draw cards
+   *                                  or if the move is not allowable
+   */
+  @Override
+  public void moveDrawToFoundation(int foundationPile)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+
+    if (foundationPile < 0 || foundationPile >= this.foundations.length) {
+      throw new IllegalArgumentException("Invalid pile index");
+    }
+    if (this.drawCount() == 0) {
+      throw new IllegalStateException("Draw card pile is empty");
+    }
+
+    byte moving = this.stock[this.stockHead];
+    this.checkFoundationMove(moving, foundationPile);
+
+    this.foundations[foundationPile] = moving;
+    this.takeDraw();
+  }
+
+  /**
+   * Discards the topmost draw card to the bottom of the stock.
+   *
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalStateException if move is not allowable
+   */
+  @Override
+  public void discardDraw() throws IllegalStateException {
+    this.checkStarted();
+
+    if (this.stockCount == this.drawCount()) {
+      throw new IllegalStateException("Cannot discard to empty draw pile");
+    }
+
+    this.stock[(this.stockHead + this.stockCount) % this.stock.length] =
+        this.stock[this.stockHead];
+    this.stockHead = (this.stockHead + 1) % this.stock.length;
+  }
+
+  /**
+   * Returns the number of rows currently in the game.
+   *
+   * @return the height of the current table of cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getNumRows() throws IllegalStateException {
+    this.checkStarted();
+    int maxHeight = 0;
+    for (int height : this.heights) {
+      maxHeight = Math.max(maxHeight, height);
+    }
+    return maxHeight;
+  }
+
+  /**
+   * Returns the number of piles for this game.
+   *
+   * @return the number of piles
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getNumPiles() throws IllegalStateException {
+    this.checkStarted();
+    return this.numPiles;
+  }
+
+  /**
+   * Returns the maximum number of visible cards in the draw pile set in initialization.
+   *
+   * @return the maximum allowable number of visible cards in the draw pile
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getNumDraw() throws IllegalStateException {
+    this.checkStarted();
+    return this.numDrawCards;
+  }
+
+  /**
+   * Signal if the game is over or not. A game is over if there are no draw cards left to be
+   * used, no cascade card can be moved to a foundation, and no face-up card can be moved onto
+   * the top of another non-empty cascade.
+   *
+   * @return true if game is over, false otherwise
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean isGameOver() throws IllegalStateException {
+    this.checkStarted();
+
+    if (this.drawCount() > 0) {
+      return false;
+    }
+
+    for (int pile = 0; pile < this.numPiles; pile++) {
+      if (this.heights[pile] == 0) {
+        continue;
+      }
+      int top = this.cascades[pile * this.pileWidth + this.heights[pile] - 1];
+      for (int foundation = 0; foundation < this.foundations.length; foundation++) {
+        if (this.validFoundationMove(top, foundation)) {
+          return false;
+        }
+      }
+    }
+
+    for (int pile = 0; pile < this.numPiles; pile++) {
+      for (int index = this.faceDown[pile]; index < this.heights[pile]; index++) {
+        if (!this.validRun(pile, index)) {
+          continue;
+        }
+        int moving = this.cascades[pile * this.pileWidth + index];
+        for (int dest = 0; dest < this.numPiles; dest++) {
+          if (dest != pile && this.heights[dest] > 0 && this.canPlaceOn(dest, moving)) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Return the current score, which is the number of cards in the foundation piles.
+   *
+   * @return the score
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getScore() throws IllegalStateException {
+    this.checkStarted();
+    int score = 0;
+    for (byte top : this.foundations) {
+      if (top != EMPTY) {
+        score += top % NUM_RANKS + 1;
+      }
+    }
+    return score;
+  }
+
+  /**
+   * Returns the number of cards in the specified pile.
+   *
+   * @param pileNum the 0-based index (from the left) of the pile
+   * @return the number of cards in the specified pile
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if pile number is invalid
+   */
+  @Override
+  public int getPileHeight(int pileNum) throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+    if (pileNum >= this.numPiles || pileNum < 0) {
+      throw new IllegalArgumentException("Pile number given is invalid.");
+    }
+    return this.heights[pileNum];
+  }
+
+  /**
+   * Returns the card at the specified coordinates, if it is visible.
+   *
+   * @param pileNum column of the desired card (0-indexed from the left)
+   * @param card    row of the desired card (0-indexed from the top)
+   * @return the card at the given position
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if the coordinates are invalid
+   */
+  @Override
+  public BasicCard getCardAt(int pileNum, int card)
+      throws IllegalArgumentException, IllegalStateException {
+    if (!this.isCardVisible(pileNum, card)) {
+      throw new IllegalArgumentException("Invalid coordinates, only get card when it is visible");
+    }
+    return BasicCard.fromId(this.cascades[pileNum * this.pileWidth + card]);
+  }
+
+  /**
+   * Returns the card at the top of the specified foundation pile.
+   *
+   * @param foundationPile 0-based index (from the left) of the foundation pile
+   * @return the card at the given position, or null if no card is there
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if the foundation pile number is invalid
+   */
+  @Override
+  public BasicCard getCardAt(int foundationPile)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+
+    if (foundationPile < 0 || foundationPile >= this.foundations.length) {
+      throw new IllegalArgumentException("Invalid pile index");
+    }
+    if (this.foundations[foundationPile] == EMPTY) {
+      return null;
+    }
+    return BasicCard.fromId(this.foundations[foundationPile]);
+  }
+
+  /**
+   * Returns whether the card at the specified coordinates is face-up or not.
+   *
+   * @param pileNum column of the desired card (0-indexed from the left)
+   * @param card    row of the desired card (0-indexed from the top)
+   * @return whether the card at the given position is face-up or not
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if the coordinates are invalid
+   */
+  @Override
+  public boolean isCardVisible(int pileNum, int card)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkStarted();
+
+    if (pileNum < 0 || pileNum >= this.numPiles || card < 0 || card >= this.heights[pileNum]) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return card >= this.faceDown[pileNum];
+  }
+
+  /**
+   * Returns the currently available draw cards.
+   * There should be at most {@link KlondikeModel#getNumDraw} cards (the number
+   * specified when the game started) -- there may be fewer, if cards have been removed.
+   * If any user modifies the resulting list, there should be no effect on
+   * the model.
+   *
+   * @return the ordered list of available draw cards (first element = first to draw)
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public List<BasicCard> getDrawCards() throws IllegalStateException {
+    this.checkStarted();
+
+    List<BasicCard> drawCards = new ArrayList<>(this.drawCount());
+    for (int index = 0; index < this.drawCount(); index++) {
+      drawCards.add(BasicCard.fromId(this.stock[(this.stockHead + index) % this.stock.length]));
+    }
+    return drawCards;
+  }
+
+  /**
+   * Return the number of foundation piles in this game.
+   *
+   * @return the number of foundation piles
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getNumFoundations() throws IllegalStateException {
+    this.checkStarted();
+    return this.foundations.length;
+  }
+
+  /**
+   * Makes the card at the given index of a cascade face-up, along with every card above it,
+   * since face-down cards only ever sit at the bottom of a cascade.
+   *
+   * @param pileNum the 0-based index of the cascade
+   * @param index   the 0-based index of the card in that cascade
+   */
+  protected void revealIndex(int pileNum, int index) {
+    this.faceDown[pileNum] = Math.min(this.faceDown[pileNum], index);
+  }
+
+  /**
+   * Returns the id of the card at the given index of a cascade, whether or not it is visible.
+   *
+   * @param pileNum the 0-based index of the cascade
+   * @param index   the 0-based index of the card in that cascade
+   * @return the id of that card
+   */
+  protected int cardIdAt(int pileNum, int index) {
+    return this.cascades[pileNum * this.pileWidth + index];
+  }
+
+  /**
+   * Determines the most cards a single cascade can ever hold under this variant's rules.
+   *
+   * @param numPiles the number of cascades being dealt
+   * @param deckSize the number of cards in the deck
+   * @return the width of each cascade's slice of storage
+   */
+  protected abstract int maxPileHeight(int numPiles, int deckSize);
+
+  /**
+   * Determines whether the given card may be placed on an empty cascade.
+   *
+   * @param card the card being placed
+   * @return whether it is allowed
+   */
+  protected abstract boolean validEmptyCascadeCard(BasicCard card);
+
+  /**
+   * Determines whether the cards from the given index to the top of a cascade may be moved
+   * together, ignoring where they are moved to.
+   *
+   * @param pileNum the 0-based index of the cascade
+   * @param start   the 0-based index of the first card being moved
+   * @return whether the run may be moved as one
+   */
+  protected abstract boolean validRun(int pileNum, int start);
+
+  /**
+   * Determines whether the given card may be placed on top of the given cascade.
+   *
+   * @param destPile the cascade being added to
+   * @param cardId   the id of the card being added
+   * @return whether it is allowed
+   */
+  private boolean canPlaceOn(int destPile, int cardId) {
+    if (this.heights[destPile] == 0) {
+      return this.validEmptyCascadeCard(BasicCard.fromId(cardId));
+    }
+    return this.dataChecker.validNext(cardId,
+        this.cascades[destPile * this.pileWidth + this.heights[destPile] - 1]);
+  }
+
+  /**
+   * Determines whether the given card may be added to the given foundation.
+   *
+   * @param cardId     the id of the card being added
+   * @param foundation the foundation being added to
+   * @return whether it is allowed
+   */
+  private boolean validFoundationMove(int cardId, int foundation) {
+    if (this.foundations[foundation] == EMPTY) {
+      return BasicCard.fromId(cardId).isRank(Rank.ACE);
+    }
+    return this.dataChecker.validCardForFoundation(cardId, this.foundations[foundation]);
+  }
+
+  /**
+   * Ensures the given card may be added to the given foundation.
+   *
+   * @param cardId     the id of the card being added
+   * @param foundation the foundation being added to
+   * @throws IllegalStateException if the move is not allowable
+   */
+  private void checkFoundationMove(int cardId, int foundation) throws IllegalStateException {
+    if (!this.validFoundationMove(cardId, foundation)) {
+      if (this.foundations[foundation] == EMPTY) {
+        throw new IllegalStateException("Must move an Ace card to empty foundation pile");
+      }
+      throw new IllegalStateException("Cannot add this card to foundation pile");
+    }
+  }
+
+  /**
+   * Counts the face-up cards in a cascade.
+   *
+   * @param pileNum the 0-based index of the cascade
+   * @return the count
+   */
+  private int countVisible(int pileNum) {
+    return this.heights[pileNum] - this.faceDown[pileNum];
+  }
+
+  /**
+   * Turns the top card of a cascade face-up, if there is one.
+   *
+   * @param pileNum the 0-based index of the cascade
+   */
+  private void revealTop(int pileNum) {
+    if (this.heights[pileNum] > 0) {
+      this.revealIndex(pileNum, this.heights[pileNum] - 1);
+    }
+  }
+
+  /**
+   * Counts the visible draw cards, which are the first cards of the stock.
+   *
+   * @return the count
+   */
+  private int drawCount() {
+    return Math.min(this.numDrawCards, this.stockCount);
+  }
+
+  /**
+   * Removes the first draw card from the stock, revealing the next stock card in its place.
+   */
+  private void takeDraw() {
+    this.stockHead = (this.stockHead + 1) % this.stock.length;
+    this.stockCount--;
+  }
+
+  /**
+   * Ensures the game has been started so other methods can run safely.
+   *
+   * @throws IllegalStateException when game has not been started.
+   */
+  private void checkStarted() throws IllegalStateException {
+    if (!this.started) {
+      throw new IllegalStateException("Game has not been started");
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package klondike.model.packed;
+
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicValidData;
+import klondike.model.hw02.KlondikeModel;
+import klondike.model.hw02.Rank;
+
+/**
+ * A packed version of BasicKlondike. Builds must alternate colors, only Kings may be moved to an
+ * empty cascade, and only the top card of each cascade starts face-up.
+ */
+public class BasicPackedKlondike extends AbstractPackedKlondike
+    implements KlondikeModel<BasicCard> {
+
+  /**
+   * Initializes the game into a state that is ready for someone to call startGame and begin
+   * playing. Game is not yet playable after just running the constructor.
+   */
+  public BasicPackedKlondike() {
+    super(new BasicValidData());
+  }
+
+  /**
+   * Deal a new game of Klondike.
+   * The cards to be used and their order are specified by the given deck,
+   * unless the {@code shuffle} parameter indicates the order should be ignored.
+   * Only the last card of each cascade is dealt face-up.
+   *
+   * @param deck     the deck to be dealt
+   * @param shuffle  if {@code false}, use the order as given by {@code deck},
+   *                 otherwise use a randomly shuffled order
+   * @param numPiles number of piles to be dealt
+   * @param numDraw  maximum number of draw cards available at a time
+   * @throws IllegalStateException    if the game has already started
+   * @throws IllegalArgumentException if the deck is null or invalid,
+   *                                  a full cascade cannot be dealt with the given sizes,
+   *                                  or another input is invalid
+   */
+  @Override
+  public void startGame(List<BasicCard> deck, boolean shuffle, int numPiles, int numDraw)
+      throws IllegalArgumentException, IllegalStateException {
+    super.startGame(deck, shuffle, numPiles, numDraw);
+
+    for (int pile = 0; pile < numPiles; pile++) {
+      this.revealIndex(pile, this.getPileHeight(pile) - 1);
+    }
+  }
+
+  /**
+   * Face-down cards never grow past the initial deal, and the face-up cards above them always
+   * form a single build of at most one card per rank.
+   *
+   * @param numPiles the number of cascades being dealt
+   * @param deckSize the number of cards in the deck
+   * @return the width of each cascade's slice of storage
+   */
+  @Override
+  protected int maxPileHeight(int numPiles, int deckSize) {
+    return Math.min(deckSize, numPiles - 1 + Rank.values().length);
+  }
+
+  /**
+   * Only Kings may start an empty cascade.
+   *
+   * @param card the card being placed
+   * @return whether it is allowed
+   */
+  @Override
+  protected boolean validEmptyCascadeCard(BasicCard card) {
+    return card.isRank(Rank.KING);
+  }
+
+  /**
+   * Any face-up run may be moved, since it is always a valid build.
+   *
+   * @param pileNum the 0-based index of the cascade
+   * @param start   the 0-based index of the first card being moved
+   * @return true
+   */
+  @Override
+  protected boolean validRun(int pileNum, int start) {
+    return true;
+  }
+}
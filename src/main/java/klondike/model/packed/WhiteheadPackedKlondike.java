@@ -0,0 +1,92 @@
+package klondike.model.packed;
+
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.KlondikeModel;
+import klondike.model.hw02.Rank;
+import klondike.model.hw04.WhiteheadValidData;
+
+/**
+ * A packed version of WhiteheadKlondike. Builds must be a single color, moved piles must be a
+ * single suit, any card may be moved to an empty cascade, and all cards are dealt face-up.
+ */
+public class WhiteheadPackedKlondike extends AbstractPackedKlondike
+    implements KlondikeModel<BasicCard> {
+
+  /**
+   * Initializes the game into a state that is ready for someone to call startGame and begin
+   * playing. Game is not yet playable after just running the constructor.
+   */
+  public WhiteheadPackedKlondike() {
+    super(new WhiteheadValidData());
+  }
+
+  /**
+   * Deal a new game of Klondike.
+   * The cards to be used and their order are specified by the given deck,
+   * unless the {@code shuffle} parameter indicates the order should be ignored.
+   * Every card of every cascade is dealt face-up.
+   *
+   * @param deck     the deck to be dealt
+   * @param shuffle  if {@code false}, use the order as given by {@code deck},
+   *                 otherwise use a randomly shuffled order
+   * @param numPiles number of piles to be dealt
+   * @param numDraw  maximum number of draw cards available at a time
+   * @throws IllegalStateException    if the game has already started
+   * @throws IllegalArgumentException if the deck is null or invalid,
+   *                                  a full cascade cannot be dealt with the given sizes,
+   *                                  or another input is invalid
+   */
+  @Override
+  public void startGame(List<BasicCard> deck, boolean shuffle, int numPiles, int numDraw)
+      throws IllegalArgumentException, IllegalStateException {
+    super.startGame(deck, shuffle, numPiles, numDraw);
+
+    for (int pile = 0; pile < numPiles; pile++) {
+      this.revealIndex(pile, 0);
+    }
+  }
+
+  /**
+   * Dealt cards never grow past the initial deal, and the cards added above them always form a
+   * single build of at most one card per rank below the top dealt card. A cascade emptied and
+   * started again holds one such build alone.
+   *
+   * @param numPiles the number of cascades being dealt
+   * @param deckSize the number of cards in the deck
+   * @return the width of each cascade's slice of storage
+   */
+  @Override
+  protected int maxPileHeight(int numPiles, int deckSize) {
+    return Math.min(deckSize, numPiles - 1 + Rank.values().length);
+  }
+
+  /**
+   * Any card may start an empty cascade.
+   *
+   * @param card the card being placed
+   * @return true
+   */
+  @Override
+  protected boolean validEmptyCascadeCard(BasicCard card) {
+    return true;
+  }
+
+  /**
+   * Only runs of a single suit may be moved together.
+   *
+   * @param pileNum the 0-based index of the cascade
+   * @param start   the 0-based index of the first card being moved
+   * @return whether every card in the run has the same suit
+   */
+  @Override
+  protected boolean validRun(int pileNum, int start) {
+    int suit = BasicCard.fromId(this.cardIdAt(pileNum, start)).getSuit().ordinal();
+    for (int index = start + 1; index < this.getPileHeight(pileNum); index++) {
+      if (BasicCard.fromId(this.cardIdAt(pileNum, index)).getSuit().ordinal() != suit) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,207 @@
+package klondike.solver;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+
+/**
+ * Searches for a winning line of play best-first: of all the positions found but not yet
+ * expanded, it always expands the one whose moves so far plus its {@link Heuristic} estimate
+ * is lowest. This is A* search, and weighting the heuristic with
+ * {@link Heuristics#weighted} turns it into weighted A*, which trusts the estimate more and
+ * finds a win sooner at the cost of a longer line.
+ *
+ * <p>A position waiting in the frontier is kept only as the move that led to it and the
+ * position it came from, a few dozen bytes, so the node budget also bounds the memory of the
+ * frontier. The search plays in one fork of the game. To expand a position, it undoes moves
+ * back to where the line of the last position expanded and the line of this one part, and then
+ * plays this one's moves from there. Positions expanded one after another are usually close
+ * together. As with {@link Solver}, positions are remembered in a {@link TranspositionTable}
+ * so none is expanded twice, and the search is bounded by the number of positions it may find
+ * and the memory of the table. The search sees each face-down card as it is turned over, so it
+ * solves with full knowledge of the deal. A {@link MovePruner} can cut down the moves expanded
+ * from each position.</p>
+ */
+public final class BestFirstSolver {
+  private static final Comparator<Node> BY_PRIORITY =
+      Comparator.<Node>comparingLong(node -> node.priority)
+          .thenComparing(Comparator.<Node>comparingLong(node -> node.order).reversed());
+
+  private final Heuristic heuristic;
+  private final long maxNodes;
+  private final long maxTableBytes;
+  private final MovePruner pruner;
+
+  /**
+   * Creates a solver that orders its search by the given heuristic, within the given budgets,
+   * and expands every legal move.
+   *
+   * @param heuristic     the estimate of how far each position is from a win
+   * @param maxNodes      the most positions a search may find
+   * @param maxTableBytes the most memory the table of seen positions may use
+   * @throws IllegalArgumentException if the heuristic is null, the node budget is not positive,
+   *                                  or the memory budget is less than
+   *                                  {@link TranspositionTable#MIN_BYTES}
+   */
+  public BestFirstSolver(Heuristic heuristic, long maxNodes, long maxTableBytes)
+      throws IllegalArgumentException {
+    this(heuristic, maxNodes, maxTableBytes, MovePruners.none());
+  }
+
+  /**
+   * Creates a solver that orders its search by the given heuristic, within the given budgets,
+   * and expands the moves the given pruner keeps.
+   *
+   * @param heuristic     the estimate of how far each position is from a win
+   * @param maxNodes      the most positions a search may find
+   * @param maxTableBytes the most memory the table of seen positions may use
+   * @param pruner        the pruner of the moves of each position
+   * @throws IllegalArgumentException if the heuristic or pruner is null, the node budget is not
+   *                                  positive, or the memory budget is less than
+   *                                  {@link TranspositionTable#MIN_BYTES}
+   */
+  public BestFirstSolver(Heuristic heuristic, long maxNodes, long maxTableBytes,
+      MovePruner pruner) throws IllegalArgumentException {
+    if (heuristic == null || pruner == null || maxNodes <= 0
+        || maxTableBytes < TranspositionTable.MIN_BYTES) {
+      throw new IllegalArgumentException("Invalid search budget");
+    }
+    this.heuristic = heuristic;
+    this.maxNodes = maxNodes;
+    this.maxTableBytes = maxTableBytes;
+    this.pruner = pruner;
+  }
+
+  /**
+   * Searches for moves that win the given game from its current position. The game itself is
+   * not changed.
+   *
+   * @param game the started game to solve
+   * @return the outcome of the search, with the winning moves if there are any
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public SolveResult solve(AbstractKlondike game) throws IllegalStateException {
+    final long start = System.nanoTime();
+    AbstractKlondike position = game.fork();
+    int total = DepthFirstSearch.cardsInPlay(position);
+    TranspositionTable table = new TranspositionTable(this.maxTableBytes);
+    table.add(position.stateHash() ^ this.pruner.key(position));
+    if (position.getScore() == total) {
+      return new SolveResult(SolveStatus.SOLVED, new int[0], 0, System.nanoTime() - start);
+    }
+
+    PriorityQueue<Node> frontier = new PriorityQueue<>(BY_PRIORITY);
+    Node current = new Node(null, 0, 0, 0);
+    frontier.add(current);
+    int[] moves = new int[256];
+    long nodes = 0;
+
+    while (!frontier.isEmpty()) {
+      Node parent = frontier.poll();
+      moveTo(position, current, parent);
+      current = parent;
+      int needed = MoveGenerator.maxMoves(position);
+      if (needed > moves.length) {
+        moves = new int[Math.max(needed, moves.length * 2)];
+      }
+      int count = this.pruner.prune(position,
+          parent.parent == null ? MovePruner.NO_MOVE : parent.move, moves, 0,
+          MoveGenerator.legalMoves(position, moves));
+
+      for (int index = 0; index < count; index++) {
+        KlondikeMoves.apply(position, moves[index]);
+        long hash = position.stateHash() ^ this.pruner.key(position);
+        if (table.contains(hash)) {
+          position.undo();
+          continue;
+        }
+        if (table.isFull()) {
+          return new SolveResult(SolveStatus.MEMORY_LIMIT, new int[0], nodes,
+              System.nanoTime() - start);
+        }
+        table.add(hash);
+        nodes++;
+
+        Node node = new Node(parent, moves[index], parent.depth + 1, nodes);
+        if (position.getScore() == total) {
+          return new SolveResult(SolveStatus.SOLVED, node.line(), nodes,
+              System.nanoTime() - start);
+        }
+        if (nodes >= this.maxNodes) {
+          return new SolveResult(SolveStatus.NODE_LIMIT, new int[0], nodes,
+              System.nanoTime() - start);
+        }
+        node.priority = node.depth + (long) this.heuristic.estimate(position);
+        frontier.add(node);
+        position.undo();
+      }
+    }
+    return new SolveResult(SolveStatus.UNSOLVABLE, new int[0], nodes, System.nanoTime() - start);
+  }
+
+  /**
+   * Changes the given game from the position of one node to the position of another, by undoing
+   * the moves of the first node's line back to the last node the two lines share, and then
+   * playing the moves of the second node's line from there.
+   */
+  private static void moveTo(AbstractKlondike position, Node from, Node to) {
+    Deque<Node> path = new ArrayDeque<>();
+    Node target = to;
+    while (target.depth > from.depth) {
+      path.push(target);
+      target = target.parent;
+    }
+    Node source = from;
+    while (source.depth > target.depth) {
+      position.undo();
+      source = source.parent;
+    }
+    while (source != target) {
+      position.undo();
+      source = source.parent;
+      path.push(target);
+      target = target.parent;
+    }
+    while (!path.isEmpty()) {
+      KlondikeMoves.apply(position, path.pop().move);
+    }
+  }
+
+  /**
+   * A position found by the search, kept as the move that led to it from its parent.
+   */
+  private static final class Node {
+    private final Node parent;
+    private final int move;
+    private final int depth;
+    private final long order;
+    private long priority;
+
+    /**
+     * Creates a node for the position the given move leads to from the given parent, which is
+     * the order-th position found.
+     */
+    private Node(Node parent, int move, int depth, long order) {
+      this.parent = parent;
+      this.move = move;
+      this.depth = depth;
+      this.order = order;
+      this.priority = 0;
+    }
+
+    /**
+     * Returns the moves that lead from the starting position to this one.
+     */
+    private int[] line() {
+      int[] line = new int[this.depth];
+      for (Node node = this; node.parent != null; node = node.parent) {
+        line[node.depth - 1] = node.move;
+      }
+      return line;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package klondike.solver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A set of position hashes that many threads can add to at once without locking. Hashes are
+ * kept in open-addressed slots claimed with compare-and-set, and a slot once claimed never
+ * changes, so a reader needs no lock either. All the memory is allocated up front, since the
+ * slots cannot be moved while other threads are probing them.
+ *
+ * <p>Fullness is checked before adding rather than during, so when many threads add at once
+ * the table may take a few more hashes than {@link #isFull()} promised. Room is left for this,
+ * and an add never fails.</p>
+ */
+public final class ConcurrentTranspositionTable implements PositionTable {
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final AtomicLongArray slots;
+  private final int mask;
+  private final int maxLoad;
+  private final AtomicInteger size;
+  private final AtomicBoolean hasZero;
+
+  /**
+   * Creates an empty table using about the given number of bytes.
+   *
+   * @param maxBytes the memory to give the table
+   * @throws IllegalArgumentException if that is less than {@link TranspositionTable#MIN_BYTES}
+   */
+  public ConcurrentTranspositionTable(long maxBytes) throws IllegalArgumentException {
+    if (maxBytes < TranspositionTable.MIN_BYTES) {
+      throw new IllegalArgumentException("Transposition table needs at least "
+          + TranspositionTable.MIN_BYTES + " bytes");
+    }
+    int capacity = (int) Long.highestOneBit(Math.min(maxBytes / Long.BYTES, MAX_CAPACITY));
+    this.slots = new AtomicLongArray(capacity);
+    this.mask = capacity - 1;
+    this.maxLoad = capacity / 2;
+    this.size = new AtomicInteger();
+    this.hasZero = new AtomicBoolean();
+  }
+
+  @Override
+  public boolean contains(long hash) {
+    if (hash == 0) {
+      return this.hasZero.get();
+    }
+    for (int index = spread(hash) & this.mask; ; index = (index + 1) & this.mask) {
+      long slot = this.slots.get(index);
+      if (slot == hash) {
+        return true;
+      }
+      if (slot == 0) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Adds the given hash, unless it is already there. When two threads add the same hash at
+   * once, exactly one of them is told it was new.
+   *
+   * @param hash the hash of a position
+   * @return true if the hash was not in the table before, false if it was
+   */
+  @Override
+  public boolean add(long hash) {
+    if (hash == 0) {
+      if (!this.hasZero.compareAndSet(false, true)) {
+        return false;
+      }
+      this.size.incrementAndGet();
+      return true;
+    }
+    for (int index = spread(hash) & this.mask; ; index = (index + 1) & this.mask) {
+      long slot = this.slots.get(index);
+      if (slot == 0) {
+        slot = this.slots.compareAndExchange(index, 0, hash);
+        if (slot == 0) {
+          this.size.incrementAndGet();
+          return true;
+        }
+      }
+      if (slot == hash) {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public boolean isFull() {
+    return this.size.get() >= this.maxLoad;
+  }
+
+  /**
+   * Returns how many hashes are in the table.
+   *
+   * @return the number of positions remembered
+   */
+  public int size() {
+    return this.size.get();
+  }
+
+  /**
+   * Folds the high bits of a hash into the low bits used to pick a slot.
+   */
+  private static int spread(long hash) {
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
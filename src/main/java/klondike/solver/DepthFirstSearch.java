@@ -0,0 +1,188 @@
+package klondike.solver;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+
+/**
+ * One depth-first search below a single position, playing moves in that position and taking
+ * them back with undo. Searches that share a {@link PositionTable} and a {@link NodeBudget} can
+ * run on different threads, each with its own position, and never search the same position
+ * twice between them.
+ */
+final class DepthFirstSearch {
+  private static final long BATCH = 1024;
+
+  private final PositionTable table;
+  private final NodeBudget budget;
+  private final MovePruner pruner;
+  private final ToLongFunction<AbstractKlondike> hasher;
+  private int[] path;
+  private int pathLength;
+  private long nodes;
+
+  /**
+   * Creates a search that remembers positions in the given table, spends the given budget, and
+   * tries the moves the given pruner keeps.
+   */
+  DepthFirstSearch(PositionTable table, NodeBudget budget, MovePruner pruner) {
+    this(table, budget, pruner, AbstractKlondike::stateHash);
+  }
+
+  /**
+   * Creates a search that remembers positions in the given table by the given hash of each,
+   * spends the given budget, and tries the moves the given pruner keeps. Positions with equal
+   * hashes are searched once, so the hash may leave out whatever never decides a win.
+   */
+  DepthFirstSearch(PositionTable table, NodeBudget budget, MovePruner pruner,
+      ToLongFunction<AbstractKlondike> hasher) {
+    this.table = table;
+    this.budget = budget;
+    this.pruner = pruner;
+    this.hasher = hasher;
+    this.path = new int[0];
+    this.pathLength = 0;
+    this.nodes = 0;
+  }
+
+  /**
+   * Searches every position reachable from the given one, which must already be in the table
+   * and not won, until one wins or the budget runs out. The position is changed by the search.
+   *
+   * @return how the search ended, or null if it was stopped by another search
+   */
+  SolveStatus run(AbstractKlondike position, int total) {
+    // The moves of every position on the current line sit end to end in one array. Position
+    // depth has its untried moves from next[depth] up to end[depth], and line[depth] is the
+    // move that was played from it.
+    int[] moves = generate(position, new int[256], 0);
+    int[] next = new int[64];
+    int[] end = new int[64];
+    int[] line = new int[64];
+    int depth = 0;
+    end[0] = this.candidateMoves(position, MovePruner.NO_MOVE, moves, 0);
+    long allowance = 0;
+    SolveStatus status = null;
+
+    while (status == null) {
+      if (next[depth] == end[depth]) {
+        depth--;
+        if (depth < 0) {
+          status = SolveStatus.UNSOLVABLE;
+        } else {
+          position.undo();
+        }
+        continue;
+      }
+
+      int move = moves[next[depth]++];
+      KlondikeMoves.apply(position, move);
+      long hash = this.key(position);
+      if (this.table.contains(hash)) {
+        position.undo();
+        continue;
+      }
+      if (this.table.isFull()) {
+        status = SolveStatus.MEMORY_LIMIT;
+        continue;
+      }
+      if (allowance == 0) {
+        allowance = this.budget.reserve(BATCH);
+        if (allowance == 0) {
+          status = this.budget.isStopped() ? null : SolveStatus.NODE_LIMIT;
+          break;
+        }
+      }
+      if (!this.table.add(hash)) {
+        position.undo();
+        continue;
+      }
+      allowance--;
+      this.nodes++;
+      line[depth] = move;
+
+      if (position.getScore() == total) {
+        status = SolveStatus.SOLVED;
+      } else {
+        depth++;
+        if (depth == next.length) {
+          next = Arrays.copyOf(next, depth * 2);
+          end = Arrays.copyOf(end, depth * 2);
+          line = Arrays.copyOf(line, depth * 2);
+        }
+        moves = generate(position, moves, end[depth - 1]);
+        next[depth] = end[depth - 1];
+        end[depth] = next[depth] + this.candidateMoves(position, move, moves, next[depth]);
+      }
+    }
+
+    this.budget.release(allowance);
+    this.path = line;
+    this.pathLength = status == SolveStatus.SOLVED ? depth + 1 : 0;
+    return status;
+  }
+
+  /**
+   * Returns the key the given position is remembered by: its hash, combined with the pruner's
+   * key for it.
+   */
+  long key(AbstractKlondike position) {
+    return this.hasher.applyAsLong(position) ^ this.pruner.key(position);
+  }
+
+  /**
+   * Writes the moves the pruner keeps in the given position, which the given move led to, into
+   * the given array from the given index on, and returns how many there are.
+   */
+  private int candidateMoves(AbstractKlondike position, int previous, int[] moves, int offset) {
+    int count = MoveGenerator.legalMoves(position, moves, offset);
+    return this.pruner.prune(position, previous, moves, offset, count);
+  }
+
+  /**
+   * Returns the moves from the searched position to the win the last run found, or an empty
+   * array if it found none.
+   */
+  int[] winningMoves() {
+    return Arrays.copyOf(this.path, this.pathLength);
+  }
+
+  /**
+   * Returns how many positions this search has visited over all its runs.
+   */
+  long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Counts every card in the given game, wherever it is, which is the score that wins it.
+   */
+  static int cardsInPlay(AbstractKlondike game) {
+    int cards = game.getScore() + game.getStockCount() + game.getDrawCount();
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      cards += game.getPileHeight(pile);
+    }
+    return cards;
+  }
+
+  /**
+   * Counts the cards in the given game that are not on a foundation pile.
+   */
+  static int cardsOffFoundations(AbstractKlondike game) {
+    return cardsInPlay(game) - game.getScore();
+  }
+
+  /**
+   * Returns the given array, or a larger copy of it, with room for every legal move of the
+   * given position after the given offset.
+   */
+  private static int[] generate(AbstractKlondike position, int[] moves, int offset) {
+    int needed = offset + MoveGenerator.maxMoves(position);
+    if (needed > moves.length) {
+      return Arrays.copyOf(moves, Math.max(needed, moves.length * 2));
+    }
+    return moves;
+  }
+}
@@ -0,0 +1,153 @@
+package klondike.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.Rank;
+import klondike.model.hw04.AbstractKlondike;
+
+/**
+ * Samples full deals that agree with everything a player can see of a game, so that a player
+ * that searches or plays out those deals never gains from the cards it cannot see. The
+ * determinizer works out which cards are unseen from the deck the game was dealt from and the
+ * visible cards alone: the face-up cascade cards, the draw cards, and the foundations, whose
+ * cards follow from their top cards and heights. Each sample deals those unseen cards at random
+ * into the face-down cascade and stock places of a fork of the game, using
+ * {@link AbstractKlondike#forkWithHiddenCards}.
+ *
+ * <p>Stock cards that have already been drawn and discarded count as unseen, as the game does
+ * not remember them for the player. A sample costs one shuffle of the unseen cards, which are
+ * kept in one array, and one fork, which shares every pile without face-down cards with the
+ * game, so tens of thousands of samples a second are cheap. The samples are independent games,
+ * so they can be solved or played out on other threads, but a determinizer itself samples on
+ * one thread at a time.</p>
+ */
+public final class Determinizer {
+  private static final Rank[] RANKS = Rank.values();
+
+  private final AbstractKlondike observed;
+  private final BasicCard[] unseen;
+
+  /**
+   * Creates a determinizer for the current position of the given game, which was dealt from
+   * the given deck. Later moves in the game do not affect the determinizer.
+   *
+   * @param game the started game to sample deals of
+   * @param deck the cards the game was dealt from, in any order
+   * @throws IllegalArgumentException if the deck is null, or does not hold every visible card
+   *                                  of the game and as many others as it has hidden cards
+   * @throws IllegalStateException    if the game hasn't been started yet
+   */
+  public Determinizer(AbstractKlondike game, List<BasicCard> deck)
+      throws IllegalArgumentException, IllegalStateException {
+    if (deck == null) {
+      throw new IllegalArgumentException("Deck cannot be null");
+    }
+    int[] counts = new int[BasicCard.numIds()];
+    for (BasicCard card : deck) {
+      counts[card.getId()]++;
+    }
+
+    for (int foundation = 0; foundation < game.getNumFoundations(); foundation++) {
+      int height = game.getFoundationHeight(foundation);
+      if (height > 0) {
+        BasicCard top = game.getCardAt(foundation);
+        for (int rank = 0; rank < height; rank++) {
+          see(counts, BasicCard.of(RANKS[rank], top.getSuit()));
+        }
+      }
+    }
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      for (int row = game.getPileHeight(pile) - 1;
+           row >= 0 && game.isCardVisible(pile, row); row--) {
+        see(counts, game.getCardAt(pile, row));
+      }
+    }
+    for (BasicCard card : game.getDrawCards()) {
+      see(counts, card);
+    }
+
+    int hidden = game.getHiddenCount();
+    this.unseen = new BasicCard[hidden];
+    int next = 0;
+    for (int id = 0; id < counts.length; id++) {
+      for (int copy = 0; copy < counts[id]; copy++) {
+        if (next == hidden) {
+          throw new IllegalArgumentException("Deck holds more cards than the game");
+        }
+        this.unseen[next++] = BasicCard.fromId(id);
+      }
+    }
+    if (next != hidden) {
+      throw new IllegalArgumentException("Deck holds fewer cards than the game");
+    }
+    this.observed = game.fork();
+  }
+
+  /**
+   * Returns the cards the player cannot see, in order of their ids.
+   *
+   * @return a copy of the unseen cards
+   */
+  public List<BasicCard> getUnseenCards() {
+    BasicCard[] sorted = this.unseen.clone();
+    Arrays.sort(sorted, (first, second) -> Integer.compare(first.getId(), second.getId()));
+    return new ArrayList<>(Arrays.asList(sorted));
+  }
+
+  /**
+   * Returns a deal that agrees with everything visible in the observed position, with its
+   * unseen cards placed uniformly at random.
+   *
+   * @param random the generator to place the cards with
+   * @return a new game in the sampled deal, with no undo history
+   * @throws IllegalArgumentException if the generator is null
+   */
+  public AbstractKlondike sample(SplittableRandom random) throws IllegalArgumentException {
+    if (random == null) {
+      throw new IllegalArgumentException("Generator cannot be null");
+    }
+    // Shuffling the previous sample again is as uniform as shuffling a fresh copy, and saves
+    // copying the cards.
+    for (int index = this.unseen.length - 1; index > 0; index--) {
+      int other = random.nextInt(index + 1);
+      BasicCard card = this.unseen[index];
+      this.unseen[index] = this.unseen[other];
+      this.unseen[other] = card;
+    }
+    return this.observed.forkWithHiddenCards(this.unseen, 0);
+  }
+
+  /**
+   * Returns the given number of sampled deals, as {@link #sample(SplittableRandom)} would give
+   * them one after another from a generator with the given seed.
+   *
+   * @param worlds how many deals to sample
+   * @param seed   the seed of the generator to place the cards with
+   * @return the sampled games
+   * @throws IllegalArgumentException if the number of deals is negative
+   */
+  public List<AbstractKlondike> sample(int worlds, long seed) throws IllegalArgumentException {
+    if (worlds < 0) {
+      throw new IllegalArgumentException("Invalid number of samples");
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    List<AbstractKlondike> samples = new ArrayList<>(worlds);
+    for (int world = 0; world < worlds; world++) {
+      samples.add(this.sample(random));
+    }
+    return samples;
+  }
+
+  /**
+   * Takes one copy of the given visible card out of the given counts of unseen cards.
+   */
+  private static void see(int[] counts, BasicCard card) {
+    if (counts[card.getId()] == 0) {
+      throw new IllegalArgumentException("Deck is missing " + card);
+    }
+    counts[card.getId()]--;
+  }
+}
@@ -0,0 +1,20 @@
+package klondike.solver;
+
+import klondike.model.hw04.AbstractKlondike;
+
+/**
+ * Estimates how far a position is from being won, so that a {@link BestFirstSolver} can look
+ * at the most promising positions first. Built-in estimates are in {@link Heuristics}.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+  /**
+   * Estimates how much work is left to win the given game. Lower estimates are searched first,
+   * and a won game should be estimated at 0.
+   *
+   * @param game the started game to estimate
+   * @return a non-negative estimate of the distance to a win
+   */
+  int estimate(AbstractKlondike game);
+}
@@ -0,0 +1,112 @@
+package klondike.solver;
+
+import klondike.model.hw04.AbstractKlondike;
+
+/**
+ * The built-in {@link Heuristic}s, each measuring one thing a winning player wants less of,
+ * and ways to combine them.
+ */
+public final class Heuristics {
+
+  private Heuristics() {
+  }
+
+  /**
+   * Counts the cards not yet on a foundation pile. Every one of them takes at least one more
+   * move, so this never overestimates the moves left to win.
+   *
+   * @return the heuristic
+   */
+  public static Heuristic cardsOffFoundations() {
+    return DepthFirstSearch::cardsOffFoundations;
+  }
+
+  /**
+   * Counts the face-down cards in the cascade piles, which are what most often blocks a win.
+   *
+   * @return the heuristic
+   */
+  public static Heuristic faceDownCards() {
+    return game -> {
+      int faceDown = 0;
+      for (int pile = 0; pile < game.getNumPiles(); pile++) {
+        for (int card = 0; card < game.getPileHeight(pile) && !game.isCardVisible(pile, card);
+             card++) {
+          faceDown++;
+        }
+      }
+      return faceDown;
+    };
+  }
+
+  /**
+   * Counts the cascade piles that still hold cards, so that emptying a pile, and with it
+   * making room to move a run, looks like progress.
+   *
+   * @return the heuristic
+   */
+  public static Heuristic occupiedCascades() {
+    return game -> {
+      int occupied = 0;
+      for (int pile = 0; pile < game.getNumPiles(); pile++) {
+        if (game.getPileHeight(pile) > 0) {
+          occupied++;
+        }
+      }
+      return occupied;
+    };
+  }
+
+  /**
+   * Multiplies the estimate of the given heuristic by the given weight.
+   *
+   * @param weight    how much the heuristic counts
+   * @param heuristic the heuristic to weigh
+   * @return the weighted heuristic
+   * @throws IllegalArgumentException if the weight is negative or the heuristic is null
+   */
+  public static Heuristic weighted(int weight, Heuristic heuristic)
+      throws IllegalArgumentException {
+    if (weight < 0 || heuristic == null) {
+      throw new IllegalArgumentException("Invalid weighted heuristic");
+    }
+    return game -> weight * heuristic.estimate(game);
+  }
+
+  /**
+   * Adds up the estimates of the given heuristics.
+   *
+   * @param parts the heuristics to add
+   * @return the combined heuristic
+   * @throws IllegalArgumentException if there are no heuristics, or any is null
+   */
+  public static Heuristic sum(Heuristic... parts) throws IllegalArgumentException {
+    if (parts.length == 0) {
+      throw new IllegalArgumentException("Nothing to add");
+    }
+    Heuristic[] copy = parts.clone();
+    for (Heuristic part : copy) {
+      if (part == null) {
+        throw new IllegalArgumentException("Heuristic cannot be null");
+      }
+    }
+    return game -> {
+      int estimate = 0;
+      for (Heuristic part : copy) {
+        estimate += part.estimate(game);
+      }
+      return estimate;
+    };
+  }
+
+  /**
+   * The best mix of the other built-in heuristics across both variants: the cards off the
+   * foundations, plus three for each face-down card. Counting occupied cascades as well made
+   * searches slower, since in Whitehead any card may start an empty pile anyway.
+   *
+   * @return the heuristic
+   */
+  public static Heuristic standard() {
+    return sum(cardsOffFoundations(), weighted(3, faceDownCards()));
+  }
+}
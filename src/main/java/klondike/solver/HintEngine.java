@@ -0,0 +1,198 @@
+package klondike.solver;
+
+import java.util.Arrays;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+
+/**
+ * Suggests a good next move for a game within a fixed time budget, for players who ask for a
+ * hint. The engine is anytime: it looks one move ahead, then two, then three and so on, each
+ * time judging the positions it reaches with a {@link Heuristic}, and always has the best move
+ * of the last lookahead it finished ready to return. A move that wins outright is returned as
+ * soon as it is found.
+ *
+ * <p>The budget is enforced cooperatively: the search reads the clock every few hundred
+ * positions and gives up the lookahead it is in once the budget is spent, so even a hard
+ * position returns a hint shortly after the budget, and never holds up the caller. The search
+ * plays moves in a fork of the game, but it never looks past a move that turns over a
+ * face-down cascade or stock card: such a move is judged by the estimate of the position it
+ * reaches, and the built-in heuristics only count cards, so a hint never depends on a card the
+ * player cannot see. An engine gives one hint at a time, so each thread needs its own.</p>
+ */
+public final class HintEngine {
+  /**
+   * What {@link #hint} returns when the game has no legal moves.
+   */
+  public static final int NO_MOVE = -1;
+
+  private static final int CHECK_INTERVAL = 64;
+
+  private final Heuristic heuristic;
+  private final long budgetNanos;
+  private final int maxDepth;
+  private long deadline;
+  private int untilCheck;
+  private boolean expired;
+  private int[] moves;
+
+  /**
+   * Creates a hint engine that judges positions with {@link Heuristics#standard()}.
+   *
+   * @param budgetNanos how long a hint may take, in nanoseconds
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public HintEngine(long budgetNanos) throws IllegalArgumentException {
+    this(Heuristics.standard(), budgetNanos);
+  }
+
+  /**
+   * Creates a hint engine that judges positions with the given heuristic.
+   *
+   * @param heuristic   the estimate of how far each position is from a win
+   * @param budgetNanos how long a hint may take, in nanoseconds
+   * @throws IllegalArgumentException if the heuristic is null or the budget is not positive
+   */
+  public HintEngine(Heuristic heuristic, long budgetNanos) throws IllegalArgumentException {
+    this(heuristic, budgetNanos, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a hint engine that judges positions with the given heuristic, and looks at most
+   * the given number of moves past each legal move, however much of the budget is left.
+   *
+   * @param heuristic   the estimate of how far each position is from a win
+   * @param budgetNanos how long a hint may take, in nanoseconds
+   * @param maxDepth    the most moves to look ahead past each legal move
+   * @throws IllegalArgumentException if the heuristic is null, the budget is not positive or
+   *                                  the depth is negative
+   */
+  public HintEngine(Heuristic heuristic, long budgetNanos, int maxDepth)
+      throws IllegalArgumentException {
+    if (heuristic == null || budgetNanos <= 0 || maxDepth < 0) {
+      throw new IllegalArgumentException("Invalid hint budget");
+    }
+    this.heuristic = heuristic;
+    this.budgetNanos = budgetNanos;
+    this.maxDepth = maxDepth;
+    this.moves = new int[256];
+  }
+
+  /**
+   * Returns the best move found for the given game within the time budget. The game itself is
+   * not changed.
+   *
+   * @param game the started game to find a move in
+   * @return the move, encoded with {@link KlondikeMoves}, or {@link #NO_MOVE} if there are no
+   *         legal moves
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public int hint(AbstractKlondike game) throws IllegalStateException {
+    this.deadline = System.nanoTime() + this.budgetNanos;
+    this.untilCheck = CHECK_INTERVAL;
+    this.expired = false;
+    AbstractKlondike position = game.fork();
+    int total = DepthFirstSearch.cardsInPlay(position);
+
+    this.moves = this.room(position, 0);
+    int[] rootMoves = Arrays.copyOf(this.moves, MoveGenerator.legalMoves(position, this.moves));
+    if (rootMoves.length == 0) {
+      return NO_MOVE;
+    }
+
+    // Each lookahead tries the best move of the last one first, so a lookahead cut short by
+    // the budget has still judged that move against the others it reached.
+    int best = rootMoves[0];
+    int hidden = position.getHiddenCount();
+    for (int depth = 0; depth <= this.maxDepth && !this.expired; depth++) {
+      int depthBest = NO_MOVE;
+      int depthValue = Integer.MAX_VALUE;
+      for (int move : rootMoves) {
+        KlondikeMoves.apply(position, move);
+        if (position.getScore() == total) {
+          return move;
+        }
+        int value = this.lookahead(position, reveals(position, move, hidden) ? 0 : depth, 0);
+        position.undo();
+        if (this.expired) {
+          break;
+        }
+        if (value < depthValue) {
+          depthBest = move;
+          depthValue = value;
+        }
+      }
+      if (depthBest != NO_MOVE) {
+        best = depthBest;
+      }
+      if (depthValue == 0) {
+        break;
+      }
+      moveToFront(rootMoves, best);
+    }
+    return best;
+  }
+
+  /**
+   * Returns the lowest estimate of any position reachable from the given one in at most the
+   * given number of moves without turning over a hidden card, or 0 if one of them is won.
+   * Positions reached by turning over a card are estimated but not searched further. The moves
+   * of the position are written into the shared move array from the given offset on.
+   */
+  private int lookahead(AbstractKlondike position, int depth, int offset) {
+    if (--this.untilCheck == 0) {
+      this.untilCheck = CHECK_INTERVAL;
+      this.expired = System.nanoTime() - this.deadline >= 0;
+    }
+    int value = this.heuristic.estimate(position);
+    if (depth == 0 || value == 0 || this.expired) {
+      return value;
+    }
+
+    this.moves = this.room(position, offset);
+    int count = MoveGenerator.legalMoves(position, this.moves, offset);
+    int hidden = position.getHiddenCount();
+    for (int index = offset; index < offset + count && value > 0 && !this.expired; index++) {
+      int move = this.moves[index];
+      KlondikeMoves.apply(position, move);
+      int next = reveals(position, move, hidden) ? 0 : depth - 1;
+      value = Math.min(value, this.lookahead(position, next, offset + count));
+      position.undo();
+    }
+    return value;
+  }
+
+  /**
+   * Returns whether the given move, just made in the given position, turned over a card the
+   * player could not see before it, given how many cards were hidden before the move. A
+   * discard always turns over the next stock card, even though as many cards stay hidden.
+   */
+  private static boolean reveals(AbstractKlondike position, int move, int hidden) {
+    return KlondikeMoves.kind(move) == KlondikeMoves.DISCARD_DRAW
+        || position.getHiddenCount() < hidden;
+  }
+
+  /**
+   * Returns the shared move array, or a larger copy of it, with room for every legal move of
+   * the given position after the given offset.
+   */
+  private int[] room(AbstractKlondike position, int offset) {
+    int needed = offset + MoveGenerator.maxMoves(position);
+    if (needed > this.moves.length) {
+      return Arrays.copyOf(this.moves, Math.max(needed, this.moves.length * 2));
+    }
+    return this.moves;
+  }
+
+  /**
+   * Moves the given move to the front of the given moves, keeping the others in order.
+   */
+  private static void moveToFront(int[] moves, int move) {
+    int index = 0;
+    while (moves[index] != move) {
+      index++;
+    }
+    System.arraycopy(moves, 0, moves, 1, index);
+    moves[0] = move;
+  }
+}
@@ -0,0 +1,273 @@
+package klondike.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+
+/**
+ * Plays Klondike from what a player can see, with information-set Monte Carlo tree search. Each
+ * iteration of the search samples a deal that agrees with the visible cards using a
+ * {@link Determinizer}, walks down one tree of moves shared by every sample, adds one move to
+ * it, plays the rest of the game out with a {@link RolloutPolicy}, and credits every move on the
+ * way with the fraction of the cards that ended on foundations, so a win is worth 1. The move
+ * chosen is the one the search visited most.
+ *
+ * <p>A node of the tree stands for a line of moves rather than a position, as the same moves
+ * turn over different cards in different samples. Only the moves legal in the current sample
+ * are considered at each node, and among them the search picks by UCT: the average credit of a
+ * move, plus a bonus that grows with how often the move could have been picked and shrinks
+ * with how often it was. A move not yet in the tree is always tried first.</p>
+ *
+ * <p>The search runs until either the iteration budget or the time budget is spent, split into
+ * a number of tasks on virtual threads that share the tree. The children of each node, and
+ * their counts, are guarded by that node's lock, which is only held to pick or credit a move.
+ * A task counts a visit as soon as it picks a move, and adds the credit only after the
+ * playout, so until then the move looks like a loss to the other tasks (a virtual loss), which
+ * steers them to other lines instead of all following the same one. With one task the search
+ * is repeatable for a seed and iteration budget; with more, it depends on scheduling.</p>
+ */
+public final class IsmctsPlayer {
+  /**
+   * What {@link #chooseMove} returns when the game has no legal moves.
+   */
+  public static final int NO_MOVE = -1;
+
+  private static final double EXPLORATION = 0.7;
+  private static final int MAX_LINE_MOVES = 300;
+
+  private final RolloutPolicy policy;
+  private final int parallelism;
+  private final long maxIterations;
+  private final long budgetNanos;
+
+  /**
+   * Creates a player that plays out samples with the given policy.
+   *
+   * @param policy        the policy that picks the moves of each playout
+   * @param parallelism   how many tasks to split the iterations of a search into
+   * @param maxIterations the most iterations a search may run
+   * @param budgetNanos   how long a search may take, in nanoseconds
+   * @throws IllegalArgumentException if the policy is null, or any budget is not positive
+   */
+  public IsmctsPlayer(RolloutPolicy policy, int parallelism, long maxIterations,
+      long budgetNanos) throws IllegalArgumentException {
+    if (policy == null || parallelism <= 0 || maxIterations <= 0 || budgetNanos <= 0) {
+      throw new IllegalArgumentException("Invalid search budget");
+    }
+    this.policy = policy;
+    this.parallelism = parallelism;
+    this.maxIterations = maxIterations;
+    this.budgetNanos = budgetNanos;
+  }
+
+  /**
+   * Searches for the best move of the given game, using only what the player can see of it and
+   * the deck it was dealt from. The game itself is not changed.
+   *
+   * @param game the started game to choose a move in
+   * @param deck the cards the game was dealt from, in any order
+   * @param seed the seed deciding the samples and playouts of the search
+   * @return the move, encoded with {@link KlondikeMoves}, or {@link #NO_MOVE} if there are no
+   *         legal moves
+   * @throws IllegalArgumentException if the deck does not match the game
+   * @throws IllegalStateException    if the game hasn't been started yet, or the search was
+   *                                  interrupted
+   */
+  public int chooseMove(AbstractKlondike game, List<BasicCard> deck, long seed)
+      throws IllegalArgumentException, IllegalStateException {
+    final long deadline = System.nanoTime() + this.budgetNanos;
+    int[] rootMoves = new int[MoveGenerator.maxMoves(game)];
+    rootMoves = Arrays.copyOf(rootMoves, MoveGenerator.legalMoves(game, rootMoves));
+    if (rootMoves.length <= 1) {
+      return rootMoves.length == 0 ? NO_MOVE : rootMoves[0];
+    }
+
+    // Sampling reuses the determinizer's array of cards, so every task gets one of its own. They
+    // are made here so that a deck that does not match the game is reported before any task
+    // starts.
+    Node root = new Node(NO_MOVE);
+    AtomicLong iterations = new AtomicLong();
+    SplittableRandom seeds = new SplittableRandom(seed);
+    List<SearchTask> work = new ArrayList<>(this.parallelism);
+    for (int task = 0; task < this.parallelism; task++) {
+      work.add(new SearchTask(new Determinizer(game, deck), root, iterations, deadline,
+          seeds.split()));
+    }
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> running = new ArrayList<>(work.size());
+      for (SearchTask task : work) {
+        running.add(executor.submit(task));
+      }
+      for (Future<?> task : running) {
+        task.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Search was interrupted");
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+
+    // Every move of the root is legal in every sample, so their visits compare fairly.
+    int best = rootMoves[0];
+    int bestVisits = -1;
+    for (Node child : root.children) {
+      if (child.visits > bestVisits) {
+        best = child.move;
+        bestVisits = child.visits;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * A line of moves in the search tree. The counts of a node are guarded by its parent's lock,
+   * and its children by its own.
+   */
+  private static final class Node {
+    private final int move;
+    private final List<Node> children;
+    private int visits;
+    private double credit;
+    private int available;
+
+    /**
+     * Creates a node for the line ending with the given move.
+     */
+    private Node(int move) {
+      this.move = move;
+      this.children = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Runs iterations on the shared tree until the search budget is spent.
+   */
+  private final class SearchTask implements Runnable {
+    private final Determinizer determinizer;
+    private final Node root;
+    private final AtomicLong iterations;
+    private final long deadline;
+    private final SplittableRandom random;
+    private final List<Node> line;
+    private Node[] found;
+    private boolean expanded;
+
+    /**
+     * Creates a task that samples with the given determinizer, which it then owns.
+     */
+    private SearchTask(Determinizer determinizer, Node root, AtomicLong iterations,
+        long deadline, SplittableRandom random) {
+      this.determinizer = determinizer;
+      this.root = root;
+      this.iterations = iterations;
+      this.deadline = deadline;
+      this.random = random;
+      this.line = new ArrayList<>();
+      this.found = new Node[64];
+    }
+
+    @Override
+    public void run() {
+      int[] moves = null;
+      int total = 0;
+      while (this.iterations.getAndIncrement() < IsmctsPlayer.this.maxIterations
+          && System.nanoTime() - this.deadline < 0) {
+        AbstractKlondike world = this.determinizer.sample(this.random);
+        if (moves == null) {
+          total = DepthFirstSearch.cardsInPlay(world);
+          moves = new int[RolloutEvaluator.movesBound(world, total)];
+        }
+
+        this.line.clear();
+        this.line.add(this.root);
+        this.expanded = false;
+        Node node = this.root;
+        int made = 0;
+        while (!this.expanded && made < MAX_LINE_MOVES && world.getScore() < total) {
+          int count = MoveGenerator.legalMoves(world, moves);
+          if (count == 0) {
+            break;
+          }
+          synchronized (node) {
+            node = this.select(node, moves, count);
+          }
+          KlondikeMoves.apply(world, node.move);
+          this.line.add(node);
+          made++;
+        }
+        RolloutEvaluator.playOut(world, IsmctsPlayer.this.policy, this.random, moves, made,
+            MAX_LINE_MOVES, total);
+
+        double credit = (double) world.getScore() / total;
+        for (int step = 1; step < this.line.size(); step++) {
+          synchronized (this.line.get(step - 1)) {
+            this.line.get(step).credit += credit;
+          }
+        }
+      }
+    }
+
+    /**
+     * Picks the child of the given node to follow among the given legal moves, adding it to the
+     * tree if it is not there yet, and counts the visit. Must hold the node's lock.
+     */
+    private Node select(Node node, int[] moves, int count) {
+      if (this.found.length < count) {
+        this.found = new Node[Math.max(count, this.found.length * 2)];
+      }
+      Arrays.fill(this.found, 0, count, null);
+      int untried = count;
+      for (Node child : node.children) {
+        for (int index = 0; index < count; index++) {
+          if (moves[index] == child.move) {
+            this.found[index] = child;
+            child.available++;
+            untried--;
+            break;
+          }
+        }
+      }
+
+      Node chosen = null;
+      if (untried > 0) {
+        int pick = this.random.nextInt(untried);
+        for (int index = 0; chosen == null; index++) {
+          if (this.found[index] == null && pick-- == 0) {
+            chosen = new Node(moves[index]);
+            chosen.available = 1;
+            node.children.add(chosen);
+            this.expanded = true;
+          }
+        }
+      } else {
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int index = 0; index < count; index++) {
+          Node child = this.found[index];
+          double value = child.credit / child.visits
+              + EXPLORATION * Math.sqrt(Math.log(child.available) / child.visits);
+          if (value > bestValue) {
+            chosen = child;
+            bestValue = value;
+          }
+        }
+      }
+      chosen.visits++;
+      return chosen;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package klondike.solver;
+
+import klondike.model.hw04.AbstractKlondike;
+
+/**
+ * Cuts down and orders the legal moves of a position before a search tries them, dropping moves
+ * that can never lead anywhere the remaining moves cannot. Built-in pruners, and ways to combine
+ * them, are in {@link MovePruners}.
+ */
+@FunctionalInterface
+public interface MovePruner {
+  /**
+   * What to pass as the previous move of a position that no move led to, such as the position
+   * a search starts from.
+   */
+  int NO_MOVE = -1;
+
+  /**
+   * Keeps the moves worth trying among the given legal moves, moving them to the front of the
+   * range in the order they should be tried. A pruner may be shared by searches on many
+   * threads, so it must not keep state of its own.
+   *
+   * @param position the position the moves are legal in
+   * @param previous the move that led to the position, or {@link #NO_MOVE}
+   * @param moves    the legal moves, encoded with {@link klondike.model.hw04.KlondikeMoves}
+   * @param offset   the index of the first legal move in the array
+   * @param count    how many legal moves there are
+   * @return how many moves to try, from {@code offset} on
+   */
+  int prune(AbstractKlondike position, int previous, int[] moves, int offset, int count);
+
+  /**
+   * Returns a key for whatever this pruner reads of a position that its state hash leaves out.
+   * Searches that remember the positions they have seen combine it with the state hash, so two
+   * positions the pruner cuts differently are never taken for one. Pruners that read only what
+   * the state hash covers return 0, as this does.
+   *
+   * @param position the position to key
+   * @return the key, or 0 if the state hash covers everything the pruner reads
+   */
+  default long key(AbstractKlondike position) {
+    return 0;
+  }
+}
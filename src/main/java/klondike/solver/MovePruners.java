@@ -0,0 +1,302 @@
+package klondike.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.ValidData;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+
+/**
+ * The built-in {@link MovePruner}s, and ways to combine them. Every pruner here is sound: a
+ * position that can be won can still be won using only the moves it keeps, so an exhaustive
+ * search that uses them still finds every winnable deal.
+ */
+public final class MovePruners {
+
+  private MovePruners() {
+  }
+
+  /**
+   * Keeps every move, in the order given.
+   *
+   * @return the pruner
+   */
+  public static MovePruner none() {
+    return (position, previous, moves, offset, count) -> count;
+  }
+
+  /**
+   * Plays a card to a foundation as the only move whenever that can never hurt. A card can
+   * only ever be wanted in a cascade as a base for the cards the given rules allow on it, and
+   * Aces never need a base, since they can always go to a foundation. So once every card that
+   * may be built on a card is already on a foundation, that card is safe to move up. Under
+   * {@link klondike.model.hw02.BasicValidData} that means the lower cards of the other color,
+   * and under {@link klondike.model.hw04.WhiteheadValidData} those of the same color. A card
+   * with such cards is never safe while a foundation is empty, as its suit is not yet known.
+   *
+   * @param rules the rules of the games the pruner will see
+   * @return the pruner
+   * @throws IllegalArgumentException if the rules are null
+   */
+  public static MovePruner safeFoundation(ValidData<BasicCard> rules)
+      throws IllegalArgumentException {
+    if (rules == null) {
+      throw new IllegalArgumentException("Rules cannot be null");
+    }
+    BasicCard[][] builders = new BasicCard[BasicCard.numIds()][];
+    for (int base = 0; base < builders.length; base++) {
+      List<BasicCard> onBase = new ArrayList<>();
+      for (int card = 0; card < builders.length; card++) {
+        if (rules.validNext(card, base) && BasicCard.fromId(card).getRank().getValue() > 1) {
+          onBase.add(BasicCard.fromId(card));
+        }
+      }
+      builders[base] = onBase.toArray(new BasicCard[0]);
+    }
+
+    return (position, previous, moves, offset, count) -> {
+      for (int index = offset; index < offset + count; index++) {
+        int move = moves[index];
+        BasicCard card = null;
+        if (KlondikeMoves.kind(move) == KlondikeMoves.MOVE_TO_FOUNDATION) {
+          int pile = KlondikeMoves.source(move);
+          card = position.getCardAt(pile, position.getPileHeight(pile) - 1);
+        } else if (KlondikeMoves.kind(move) == KlondikeMoves.MOVE_DRAW_TO_FOUNDATION) {
+          card = position.getDrawCard(0);
+        }
+        if (card != null && isSafe(position, builders[card.getId()])) {
+          moves[offset] = move;
+          return 1;
+        }
+      }
+      return count;
+    };
+  }
+
+  /**
+   * Drops a pile move that only puts back the cards the previous move took, which returns to
+   * the position before it. If the previous move may have turned over a card, putting the
+   * cards back does not undo that, so the move is kept.
+   *
+   * @return the pruner
+   */
+  public static MovePruner noReversals() {
+    return (position, previous, moves, offset, count) -> {
+      if (previous == MovePruner.NO_MOVE
+          || KlondikeMoves.kind(previous) != KlondikeMoves.MOVE_PILE) {
+        return count;
+      }
+      int from = KlondikeMoves.source(previous);
+      int height = position.getPileHeight(from);
+      // The cards left behind had a face-up top before the move if the card below it is
+      // face-up too, and nothing can be turned over in an emptied pile.
+      if (height == 1 || (height > 1 && !position.isCardVisible(from, height - 2))) {
+        return count;
+      }
+      int reverse = KlondikeMoves.movePile(KlondikeMoves.destination(previous),
+          KlondikeMoves.count(previous), from);
+      return remove(moves, offset, count, reverse);
+    };
+  }
+
+  /**
+   * Treats every empty cascade as the same, since which column a pile sits in never matters:
+   * moves into an empty cascade are only tried into the first one. A whole pile is never moved
+   * into an empty cascade either, as that only moves it to another column.
+   *
+   * @return the pruner
+   */
+  public static MovePruner emptyCascades() {
+    return (position, previous, moves, offset, count) -> {
+      int firstEmpty = -1;
+      for (int pile = 0; pile < position.getNumPiles() && firstEmpty < 0; pile++) {
+        if (position.getPileHeight(pile) == 0) {
+          firstEmpty = pile;
+        }
+      }
+      if (firstEmpty < 0) {
+        return count;
+      }
+
+      int kept = offset;
+      for (int index = offset; index < offset + count; index++) {
+        int move = moves[index];
+        int kind = KlondikeMoves.kind(move);
+        if (kind == KlondikeMoves.MOVE_PILE || kind == KlondikeMoves.MOVE_DRAW) {
+          int dest = KlondikeMoves.destination(move);
+          if (position.getPileHeight(dest) == 0 && (dest != firstEmpty
+              || kind == KlondikeMoves.MOVE_PILE && KlondikeMoves.count(move)
+              == position.getPileHeight(KlondikeMoves.source(move)))) {
+            continue;
+          }
+        }
+        moves[kept++] = move;
+      }
+      return kept - offset;
+    };
+  }
+
+  /**
+   * Drops discarding once the draw cards have gone all the way around the stock since a card
+   * was last taken from it. The positions that follow differ from ones reachable with fewer
+   * discards only in moves that do not touch the stock, which can just as well be made first.
+   * The state hash leaves out how many discards are left, so the pruner keys positions by it:
+   * otherwise a position first reached with no discards left would hide the same position
+   * reached with some, and the stock orders only those discards lead to.
+   *
+   * @return the pruner
+   */
+  public static MovePruner noStockCycles() {
+    return new MovePruner() {
+      @Override
+      public int prune(AbstractKlondike position, int previous, int[] moves, int offset,
+          int count) {
+        if (position.getDiscardsBeforeRepeat() > 0) {
+          return count;
+        }
+        return remove(moves, offset, count, KlondikeMoves.discardDraw());
+      }
+
+      @Override
+      public long key(AbstractKlondike position) {
+        return position.getDiscardsBeforeRepeat() * 0x9E3779B97F4A7C15L;
+      }
+    };
+  }
+
+  /**
+   * Keeps every move, but tries the ones that make progress first: moves to a foundation, then
+   * pile moves that turn over a face-down card, then the other moves, and discards last.
+   * Otherwise the moves keep their order.
+   *
+   * @return the pruner
+   */
+  public static MovePruner progressFirst() {
+    return (position, previous, moves, offset, count) -> {
+      // An insertion sort is stable, and quick for the few dozen moves of a position.
+      for (int index = offset + 1; index < offset + count; index++) {
+        int move = moves[index];
+        int priority = priority(position, move);
+        int slot = index;
+        while (slot > offset && priority(position, moves[slot - 1]) > priority) {
+          moves[slot] = moves[slot - 1];
+          slot--;
+        }
+        moves[slot] = move;
+      }
+      return count;
+    };
+  }
+
+  /**
+   * Applies the given pruners one after another, each to the moves the last one kept. The
+   * combined pruner keys positions by the keys of all of them.
+   *
+   * @param pruners the pruners to apply
+   * @return the combined pruner
+   * @throws IllegalArgumentException if there are no pruners, or any is null
+   */
+  public static MovePruner all(MovePruner... pruners) throws IllegalArgumentException {
+    if (pruners.length == 0) {
+      throw new IllegalArgumentException("Nothing to combine");
+    }
+    MovePruner[] copy = pruners.clone();
+    for (MovePruner pruner : copy) {
+      if (pruner == null) {
+        throw new IllegalArgumentException("Pruner cannot be null");
+      }
+    }
+    return new MovePruner() {
+      @Override
+      public int prune(AbstractKlondike position, int previous, int[] moves, int offset,
+          int count) {
+        int kept = count;
+        for (MovePruner pruner : copy) {
+          kept = pruner.prune(position, previous, moves, offset, kept);
+        }
+        return kept;
+      }
+
+      @Override
+      public long key(AbstractKlondike position) {
+        long key = 0;
+        for (MovePruner pruner : copy) {
+          key = 31 * key + pruner.key(position);
+        }
+        return key;
+      }
+    };
+  }
+
+  /**
+   * The built-in pruning that pays off for games with the given rules: safe foundation moves
+   * first, then one empty cascade. The order the moves are tried in is kept. The other pruners
+   * are left out because a search that remembers its positions gains nothing from them:
+   * {@link #noReversals()} only drops moves back to the position just left, which the search
+   * has already seen, and keying positions by the discards left for {@link #noStockCycles()}
+   * splits positions the search would otherwise see once, costing more than it saves.
+   *
+   * @param rules the rules of the games the pruner will see
+   * @return the pruner
+   * @throws IllegalArgumentException if the rules are null
+   */
+  public static MovePruner standard(ValidData<BasicCard> rules) throws IllegalArgumentException {
+    return all(safeFoundation(rules), emptyCascades());
+  }
+
+  /**
+   * Signals whether every card that could be built on a card, of which these are the kinds
+   * other than Aces, is already on a foundation.
+   */
+  private static boolean isSafe(AbstractKlondike position, BasicCard[] builders) {
+    if (builders.length == 0) {
+      return true;
+    }
+    for (int foundation = 0; foundation < position.getNumFoundations(); foundation++) {
+      BasicCard top = position.getCardAt(foundation);
+      if (top == null) {
+        return false;
+      }
+      for (BasicCard builder : builders) {
+        if (top.getSuit() == builder.getSuit()
+            && position.getFoundationHeight(foundation) < builder.getRank().getValue()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Removes every copy of the given move from the given range of moves, keeping the others in
+   * order, and returns how many are left.
+   */
+  private static int remove(int[] moves, int offset, int count, int move) {
+    int kept = offset;
+    for (int index = offset; index < offset + count; index++) {
+      if (moves[index] != move) {
+        moves[kept++] = moves[index];
+      }
+    }
+    return kept - offset;
+  }
+
+  /**
+   * Ranks a move for {@link #progressFirst()}, lower ranks being tried first.
+   */
+  private static int priority(AbstractKlondike position, int move) {
+    switch (KlondikeMoves.kind(move)) {
+      case KlondikeMoves.MOVE_TO_FOUNDATION:
+      case KlondikeMoves.MOVE_DRAW_TO_FOUNDATION:
+        return 0;
+      case KlondikeMoves.MOVE_PILE:
+        int rest = position.getPileHeight(KlondikeMoves.source(move)) - KlondikeMoves.count(move);
+        return rest > 0 && !position.isCardVisible(KlondikeMoves.source(move), rest - 1) ? 1 : 2;
+      case KlondikeMoves.DISCARD_DRAW:
+        return 3;
+      default:
+        return 2;
+    }
+  }
+}
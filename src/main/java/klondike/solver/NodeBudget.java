@@ -0,0 +1,60 @@
+package klondike.solver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The positions a search, or the workers of a parallel search, may still visit, handed out in
+ * batches so that workers rarely touch the shared count. Also carries the signal that tells
+ * every worker to stop once one of them has won.
+ */
+final class NodeBudget {
+  private final AtomicLong remaining;
+  private volatile boolean stopped;
+
+  /**
+   * Creates a budget of the given number of positions.
+   */
+  NodeBudget(long maxNodes) {
+    this.remaining = new AtomicLong(maxNodes);
+    this.stopped = false;
+  }
+
+  /**
+   * Takes up to the wanted number of positions from the budget, and returns how many were
+   * taken, which is 0 once the budget is spent or the search has been stopped.
+   */
+  long reserve(long wanted) {
+    while (!this.stopped) {
+      long left = this.remaining.get();
+      if (left <= 0) {
+        return 0;
+      }
+      long taken = Math.min(left, wanted);
+      if (this.remaining.compareAndSet(left, left - taken)) {
+        return taken;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Gives back positions that were reserved but not visited.
+   */
+  void release(long unused) {
+    this.remaining.addAndGet(unused);
+  }
+
+  /**
+   * Tells every search sharing this budget to stop.
+   */
+  void stop() {
+    this.stopped = true;
+  }
+
+  /**
+   * Signals whether the searches sharing this budget have been told to stop.
+   */
+  boolean isStopped() {
+    return this.stopped;
+  }
+}
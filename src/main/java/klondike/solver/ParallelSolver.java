@@ -0,0 +1,339 @@
+package klondike.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+
+/**
+ * Decides whether dealt games can be won using many threads at once, in one of two ways.
+ *
+ * <p>{@link #solve} splits the search of a single deal: the first few moves from the starting
+ * position are expanded, in order, into a list of positions, and a fork/join pool searches
+ * below each of them on its own fork of the game. The positions seen while splitting are
+ * remembered in one table that every task can read, so no task searches back into another's
+ * starting position, and each task keeps the rest of what it sees in a table of its own.</p>
+ *
+ * <p>{@link #solveAll} instead hands each deal of a batch to its own worker, which solves it
+ * exactly as {@link Solver} would. Batches of deals need no coordination between workers at
+ * all, so this is the way to use a large machine for deal-solvability jobs.</p>
+ *
+ * <p>Both are deterministic. A batch returns its results in the order of the deals, each
+ * exactly what {@link Solver} reports for that deal. A split search gives the same result
+ * however its tasks are scheduled, as no task depends on what another has seen: the winning
+ * line is that of the first task, in the order of {@link MoveGenerator}, that wins, and the
+ * node count is that of the splitting and of every task up to that one, or of every task if
+ * none wins. Tasks after a win are stopped, as they cannot change the result. The node budget
+ * left after splitting is shared out evenly between the tasks.</p>
+ */
+public final class ParallelSolver {
+  private static final int SPLIT_DEPTH = 3;
+
+  private final int parallelism;
+  private final long maxNodes;
+  private final long maxTableBytes;
+  private final MovePruner pruner;
+
+  /**
+   * Creates a solver that uses the given number of threads and budgets, and tries every legal
+   * move. For a split search the node budget is shared by all the tasks, and each running task
+   * has a table of its own; for a batch each deal gets the whole budget.
+   *
+   * @param parallelism   how many threads to search with
+   * @param maxNodes      the most positions a search may visit
+   * @param maxTableBytes the most memory a table of seen positions may use
+   * @throws IllegalArgumentException if the thread count or node budget is not positive, or the
+   *                                  memory budget is less than
+   *                                  {@link TranspositionTable#MIN_BYTES}
+   */
+  public ParallelSolver(int parallelism, long maxNodes, long maxTableBytes)
+      throws IllegalArgumentException {
+    this(parallelism, maxNodes, maxTableBytes, MovePruners.none());
+  }
+
+  /**
+   * Creates a solver that uses the given number of threads and budgets, and tries the moves
+   * the given pruner keeps.
+   *
+   * @param parallelism   how many threads to search with
+   * @param maxNodes      the most positions a search may visit
+   * @param maxTableBytes the most memory a table of seen positions may use
+   * @param pruner        the pruner of the moves of each position
+   * @throws IllegalArgumentException if the thread count or node budget is not positive, the
+   *                                  memory budget is less than
+   *                                  {@link TranspositionTable#MIN_BYTES}, or the pruner is
+   *                                  null
+   */
+  public ParallelSolver(int parallelism, long maxNodes, long maxTableBytes, MovePruner pruner)
+      throws IllegalArgumentException {
+    if (parallelism <= 0 || maxNodes <= 0 || maxTableBytes < TranspositionTable.MIN_BYTES
+        || pruner == null) {
+      throw new IllegalArgumentException("Invalid search budget");
+    }
+    this.parallelism = parallelism;
+    this.maxNodes = maxNodes;
+    this.maxTableBytes = maxTableBytes;
+    this.pruner = pruner;
+  }
+
+  /**
+   * Searches for moves that win the given game from its current position, splitting the search
+   * across every thread. The game itself is not changed.
+   *
+   * @param game the started game to solve
+   * @return the outcome of the search, with the winning moves if there are any
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public SolveResult solve(AbstractKlondike game) throws IllegalStateException {
+    final long start = System.nanoTime();
+    AbstractKlondike position = game.fork();
+    int total = DepthFirstSearch.cardsInPlay(position);
+    TranspositionTable seen = new TranspositionTable(this.maxTableBytes);
+    seen.add(position.stateHash() ^ this.pruner.key(position));
+    if (position.getScore() == total) {
+      return new SolveResult(SolveStatus.SOLVED, new int[0], 0, System.nanoTime() - start);
+    }
+
+    List<Task> tasks = new ArrayList<>();
+    SolveStatus splitStatus = this.split(position, MovePruner.NO_MOVE, new int[0], total, seen,
+        tasks);
+    long nodes = seen.size() - 1;
+    if (splitStatus == SolveStatus.MEMORY_LIMIT || splitStatus == SolveStatus.NODE_LIMIT) {
+      return new SolveResult(splitStatus, new int[0], nodes, System.nanoTime() - start);
+    }
+
+    // The budget left is shared out to the tasks in order, so each gets the same share
+    // however they are scheduled.
+    NodeBudget[] budgets = new NodeBudget[tasks.size()];
+    long left = this.maxNodes - nodes;
+    for (int index = 0; index < budgets.length; index++) {
+      budgets[index] = new NodeBudget(left / budgets.length
+          + (index < left % budgets.length ? 1 : 0));
+    }
+    AtomicInteger firstWin = new AtomicInteger(tasks.size());
+    ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+    try {
+      List<ForkJoinTask<Outcome>> running = new ArrayList<>(tasks.size());
+      for (int index = 0; index < tasks.size(); index++) {
+        int order = index;
+        running.add(pool.submit(() -> this.search(tasks.get(order), order, budgets, total, seen,
+            firstWin)));
+      }
+
+      SolveStatus status = SolveStatus.UNSOLVABLE;
+      for (int index = 0; index < running.size(); index++) {
+        Outcome outcome = running.get(index).join();
+        nodes += outcome.nodes;
+        if (outcome.status == SolveStatus.SOLVED) {
+          return new SolveResult(SolveStatus.SOLVED, outcome.moves, nodes,
+              System.nanoTime() - start);
+        }
+        status = worse(status, outcome.status);
+      }
+      return new SolveResult(status, new int[0], nodes, System.nanoTime() - start);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Solves each of the given games on its own thread, exactly as {@link Solver#solve} would,
+   * and returns the results in the same order as the games. Every deal being solved at once
+   * gets its own table, so this can use up to the memory budget once per thread. The games
+   * themselves are not changed.
+   *
+   * @param games the started games to solve
+   * @return the outcome of each search, in the order of the games
+   * @throws IllegalStateException if any game hasn't been started yet
+   */
+  public List<SolveResult> solveAll(List<? extends AbstractKlondike> games)
+      throws IllegalStateException {
+    // The solver searches a fork of each game, and forking does not change the game, so the
+    // games can be handed to the workers as they are.
+    Solver solver = new Solver(this.maxNodes, this.maxTableBytes, this.pruner);
+    ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+    try {
+      List<ForkJoinTask<SolveResult>> tasks = new ArrayList<>(games.size());
+      for (AbstractKlondike game : games) {
+        tasks.add(pool.submit(() -> solver.solve(game)));
+      }
+      List<SolveResult> results = new ArrayList<>(tasks.size());
+      for (ForkJoinTask<SolveResult> task : tasks) {
+        results.add(task.join());
+      }
+      return results;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Expands the moves of the given position, which the given line of moves led to, in the
+   * order the pruner keeps them, adding every new position to the table of seen positions.
+   * Positions at the split depth, and a won position, become tasks. Returns null once the
+   * subtree is split, {@link SolveStatus#SOLVED} if a won position was found, after which
+   * nothing more need be split, or the limit that stopped the splitting.
+   */
+  private SolveStatus split(AbstractKlondike position, int previous, int[] line, int total,
+      TranspositionTable seen, List<Task> tasks) {
+    if (line.length == SPLIT_DEPTH) {
+      tasks.add(new Task(position, line));
+      return null;
+    }
+    int[] moves = new int[MoveGenerator.maxMoves(position)];
+    int count = this.pruner.prune(position, previous, moves, 0,
+        MoveGenerator.legalMoves(position, moves));
+    for (int index = 0; index < count; index++) {
+      AbstractKlondike child = position.fork();
+      KlondikeMoves.apply(child, moves[index]);
+      long hash = child.stateHash() ^ this.pruner.key(child);
+      if (seen.contains(hash)) {
+        continue;
+      }
+      if (seen.isFull()) {
+        return SolveStatus.MEMORY_LIMIT;
+      }
+      if (seen.size() > this.maxNodes) {
+        return SolveStatus.NODE_LIMIT;
+      }
+      seen.add(hash);
+      int[] childLine = Arrays.copyOf(line, line.length + 1);
+      childLine[line.length] = moves[index];
+      if (child.getScore() == total) {
+        tasks.add(new Task(child, childLine));
+        return SolveStatus.SOLVED;
+      }
+      SolveStatus status = this.split(child, moves[index], childLine, total, seen, tasks);
+      if (status != null) {
+        return status;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Runs the given task, which has the given index, with its budget, unless a task before it
+   * has already won, and stops every task after it if it wins.
+   */
+  private Outcome search(Task task, int index, NodeBudget[] budgets, int total,
+      TranspositionTable seen, AtomicInteger firstWin) {
+    if (index > firstWin.get()) {
+      return new Outcome(null, new int[0], 0);
+    }
+    SolveStatus status = SolveStatus.SOLVED;
+    int[] moves = task.line;
+    long nodes = 0;
+    if (task.position.getScore() != total) {
+      DepthFirstSearch search = new DepthFirstSearch(new TaskTable(seen, this.maxTableBytes),
+          budgets[index], this.pruner);
+      status = search.run(task.position, total);
+      int[] rest = search.winningMoves();
+      moves = Arrays.copyOf(task.line, task.line.length + rest.length);
+      System.arraycopy(rest, 0, moves, task.line.length, rest.length);
+      nodes = search.getNodes();
+    }
+    if (status == SolveStatus.SOLVED) {
+      firstWin.accumulateAndGet(index, Math::min);
+      for (int later = index + 1; later < budgets.length; later++) {
+        budgets[later].stop();
+      }
+    }
+    return new Outcome(status, moves, nodes);
+  }
+
+  /**
+   * Returns whichever of two unsuccessful endings says least about the deal. Running out of
+   * memory or nodes leaves a subtree unsearched, which outweighs a subtree proven to have no
+   * win.
+   */
+  private static SolveStatus worse(SolveStatus first, SolveStatus second) {
+    return severity(first) >= severity(second) ? first : second;
+  }
+
+  /**
+   * Ranks an unsuccessful ending for {@link #worse}.
+   */
+  private static int severity(SolveStatus status) {
+    switch (status) {
+      case MEMORY_LIMIT:
+        return 2;
+      case NODE_LIMIT:
+        return 1;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * One position of a split search to search below, with the moves that led to it.
+   */
+  private static final class Task {
+    private final AbstractKlondike position;
+    private final int[] line;
+
+    /**
+     * Creates a task to search below the given position, which it then owns.
+     */
+    private Task(AbstractKlondike position, int[] line) {
+      this.position = position;
+      this.line = line;
+    }
+  }
+
+  /**
+   * What one task of a split search found below its position, where a null status means it
+   * was stopped because a task before it won.
+   */
+  private static final class Outcome {
+    private final SolveStatus status;
+    private final int[] moves;
+    private final long nodes;
+
+    /**
+     * Records how a task ended.
+     */
+    private Outcome(SolveStatus status, int[] moves, long nodes) {
+      this.status = status;
+      this.moves = moves;
+      this.nodes = nodes;
+    }
+  }
+
+  /**
+   * The table of one task: the positions seen while splitting, which every task reads, and
+   * those the task has seen itself.
+   */
+  private static final class TaskTable implements PositionTable {
+    private final TranspositionTable split;
+    private final TranspositionTable own;
+
+    /**
+     * Creates a table over the given positions seen while splitting, with room for about the
+     * given number of bytes of the task's own.
+     */
+    private TaskTable(TranspositionTable split, long maxBytes) {
+      this.split = split;
+      this.own = new TranspositionTable(maxBytes);
+    }
+
+    @Override
+    public boolean contains(long hash) {
+      return this.split.contains(hash) || this.own.contains(hash);
+    }
+
+    @Override
+    public boolean add(long hash) throws IllegalStateException {
+      return !this.split.contains(hash) && this.own.add(hash);
+    }
+
+    @Override
+    public boolean isFull() {
+      return this.own.isFull();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package klondike.solver;
+
+/**
+ * A set of position hashes that a search uses to avoid looking at the same position twice.
+ */
+public interface PositionTable {
+
+  /**
+   * Signals whether the given hash has been added.
+   *
+   * @param hash the hash of a position
+   * @return true if the hash is in the table
+   */
+  boolean contains(long hash);
+
+  /**
+   * Adds the given hash, unless it is already there.
+   *
+   * @param hash the hash of a position
+   * @return true if the hash was not in the table before, false if it was
+   * @throws IllegalStateException if the hash is new but the table is full
+   */
+  boolean add(long hash) throws IllegalStateException;
+
+  /**
+   * Signals whether the table has no room for another hash within its memory.
+   *
+   * @return true if adding a new hash could fail
+   */
+  boolean isFull();
+}
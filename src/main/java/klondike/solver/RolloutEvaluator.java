@@ -0,0 +1,257 @@
+package klondike.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+
+/**
+ * Estimates how likely each legal move of a position is to lead to a win, by playing many quick
+ * games to the end with a {@link RolloutPolicy} and counting how often those starting with
+ * each move are won. The playouts are shared out round-robin, so every move gets the same
+ * number of them, give or take one. A playout that goes 50 moves without putting a card on a
+ * foundation is stuck, cycling the stock or moving cards back and forth, and is counted as
+ * lost there rather than played out to its move limit.
+ *
+ * <p>A player cannot see the face-down cards, so each playout of {@link #evaluate} is played in
+ * its own deal sampled by a {@link Determinizer}, and positions that look the same get the same
+ * estimate. {@link #evaluateFullInformation} plays every playout in the given deal instead,
+ * seeing each face-down card as it is turned over, which is only fair to a player who knows
+ * the deal.</p>
+ *
+ * <p>The playouts run as a number of tasks, each on its own virtual thread with its own
+ * determinizer or fork of the position and its own generator, split from the seed before any
+ * task starts. The tasks share nothing until their counts are added up at the end. The JVM runs
+ * the virtual threads on one carrier thread per core. Which playouts a task plays and the
+ * generator it plays them with do not depend on scheduling, so the same seed always gives the
+ * same result.</p>
+ */
+public final class RolloutEvaluator {
+  private static final int STALL_MOVES = 50;
+
+  private final RolloutPolicy policy;
+  private final int maxPlayoutMoves;
+  private final int parallelism;
+
+  /**
+   * Creates an evaluator that plays out positions with the given policy.
+   *
+   * @param policy          the policy that picks the moves of each playout
+   * @param maxPlayoutMoves the most moves a playout may make before it counts as lost
+   * @param parallelism     how many tasks to split the playouts of an evaluation into
+   * @throws IllegalArgumentException if the policy is null, or either count is not positive
+   */
+  public RolloutEvaluator(RolloutPolicy policy, int maxPlayoutMoves, int parallelism)
+      throws IllegalArgumentException {
+    if (policy == null || maxPlayoutMoves <= 0 || parallelism <= 0) {
+      throw new IllegalArgumentException("Invalid rollout budget");
+    }
+    this.policy = policy;
+    this.maxPlayoutMoves = maxPlayoutMoves;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Plays the given number of playouts from the current position of the given game, each in a
+   * deal sampled from what a player can see, and reports the win rate of each legal move. The
+   * game itself is not changed.
+   *
+   * @param game     the started game to evaluate
+   * @param deck     the cards the game was dealt from, in any order
+   * @param playouts how many playouts to play in all
+   * @param seed     the seed deciding every random choice of the playouts
+   * @return the playouts and wins of each legal move
+   * @throws IllegalArgumentException if the number of playouts is negative, or the deck does
+   *                                  not match the game
+   * @throws IllegalStateException    if the game hasn't been started yet, or the evaluation
+   *                                  was interrupted
+   */
+  public RolloutResult evaluate(AbstractKlondike game, List<BasicCard> deck, long playouts,
+      long seed) throws IllegalArgumentException, IllegalStateException {
+    if (deck == null) {
+      throw new IllegalArgumentException("Deck cannot be null");
+    }
+    return this.run(game, deck, playouts, seed);
+  }
+
+  /**
+   * Plays the given number of playouts from the current position of the given game, all in
+   * its own deal, so that they see the face-down cards, and reports the win rate of each
+   * legal move. The game itself is not changed.
+   *
+   * @param game     the started game to evaluate
+   * @param playouts how many playouts to play in all
+   * @param seed     the seed deciding every random choice of the playouts
+   * @return the playouts and wins of each legal move
+   * @throws IllegalArgumentException if the number of playouts is negative
+   * @throws IllegalStateException    if the game hasn't been started yet, or the evaluation
+   *                                  was interrupted
+   */
+  public RolloutResult evaluateFullInformation(AbstractKlondike game, long playouts, long seed)
+      throws IllegalArgumentException, IllegalStateException {
+    return this.run(game, null, playouts, seed);
+  }
+
+  /**
+   * Plays out the given game in deals sampled from the given deck, or in its own deal if the
+   * deck is null.
+   */
+  private RolloutResult run(AbstractKlondike game, List<BasicCard> deck, long playouts,
+      long seed) {
+    if (playouts < 0) {
+      throw new IllegalArgumentException("Invalid number of playouts");
+    }
+    final long start = System.nanoTime();
+    AbstractKlondike root = game.fork();
+    // A determinizer samples on one thread only, so each task gets its own. The first is made
+    // here so that a deck that does not match is always reported.
+    Determinizer first = deck == null ? null : new Determinizer(root, deck);
+    int[] rootMoves = new int[MoveGenerator.maxMoves(root)];
+    rootMoves = Arrays.copyOf(rootMoves, MoveGenerator.legalMoves(root, rootMoves));
+    long[] played = new long[rootMoves.length];
+    long[] wins = new long[rootMoves.length];
+    if (rootMoves.length == 0 || playouts == 0) {
+      return new RolloutResult(rootMoves, played, wins, System.nanoTime() - start);
+    }
+
+    // The generators are split here, in task order, so that each task's does not depend on
+    // scheduling.
+    int tasks = (int) Math.min(this.parallelism, playouts);
+    SplittableRandom seeds = new SplittableRandom(seed);
+    List<PlayoutTask> work = new ArrayList<>(tasks);
+    for (int task = 0; task < tasks; task++) {
+      Determinizer determinizer =
+          deck == null || task == 0 ? first : new Determinizer(root, deck);
+      work.add(new PlayoutTask(root, determinizer, rootMoves, task, tasks, playouts,
+          seeds.split()));
+    }
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> running = new ArrayList<>(tasks);
+      for (PlayoutTask task : work) {
+        running.add(executor.submit(task));
+      }
+      for (Future<?> task : running) {
+        task.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Evaluation was interrupted");
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+
+    for (PlayoutTask task : work) {
+      for (int index = 0; index < rootMoves.length; index++) {
+        played[index] += task.played[index];
+        wins[index] += task.wins[index];
+      }
+    }
+    return new RolloutResult(rootMoves, played, wins, System.nanoTime() - start);
+  }
+
+  /**
+   * Carries on a playout of the given position that has already made the given number of
+   * moves, until it is won, has no legal moves, stalls, or reaches the given number of moves,
+   * and returns how many moves it has made in all. The moves stay played.
+   */
+  static int playOut(AbstractKlondike position, RolloutPolicy policy, SplittableRandom random,
+      int[] moves, int made, int maxMoves, int total) {
+    int lastScored = 0;
+    while (made < maxMoves && made - lastScored <= STALL_MOVES && position.getScore() < total) {
+      int score = position.getScore();
+      int count = MoveGenerator.legalMoves(position, moves);
+      if (count == 0) {
+        break;
+      }
+      KlondikeMoves.apply(position, moves[policy.choose(position, moves, count, random)]);
+      made++;
+      if (position.getScore() > score) {
+        lastScored = made;
+      }
+    }
+    return made;
+  }
+
+  /**
+   * Returns a safe size for the move array of any position of the given game, so that a
+   * playout never has to grow it.
+   */
+  static int movesBound(AbstractKlondike game, int total) {
+    int piles = game.getNumPiles();
+    int foundations = game.getNumFoundations();
+    return total * Math.max(0, piles - 1) + piles * foundations + piles + foundations + 1;
+  }
+
+  /**
+   * Plays every playout whose number leaves the given remainder when divided by the number of
+   * tasks, each starting with the root move its number picks round-robin. Each playout is
+   * played in a new sample of the determinizer, or, without one, in a fork of the root and
+   * taken back with undo, so that after the first few playouts it allocates nothing.
+   */
+  private final class PlayoutTask implements Runnable {
+    private final AbstractKlondike root;
+    private final Determinizer determinizer;
+    private final int[] rootMoves;
+    private final int first;
+    private final int step;
+    private final long playouts;
+    private final SplittableRandom random;
+    private final long[] played;
+    private final long[] wins;
+
+    /**
+     * Creates a task that plays out from samples of the given determinizer, or from a fork of
+     * the given position if it is null.
+     */
+    private PlayoutTask(AbstractKlondike root, Determinizer determinizer, int[] rootMoves,
+        int first, int step, long playouts, SplittableRandom random) {
+      this.root = root;
+      this.determinizer = determinizer;
+      this.rootMoves = rootMoves;
+      this.first = first;
+      this.step = step;
+      this.playouts = playouts;
+      this.random = random;
+      this.played = new long[rootMoves.length];
+      this.wins = new long[rootMoves.length];
+    }
+
+    @Override
+    public void run() {
+      AbstractKlondike position = this.root.fork();
+      int total = DepthFirstSearch.cardsInPlay(position);
+      int[] moves = new int[movesBound(position, total)];
+      for (long playout = this.first; playout < this.playouts; playout += this.step) {
+        if (this.determinizer != null) {
+          position = this.determinizer.sample(this.random);
+        }
+        int rootMove = (int) (playout % this.rootMoves.length);
+        KlondikeMoves.apply(position, this.rootMoves[rootMove]);
+        int made = playOut(position, RolloutEvaluator.this.policy, this.random, moves, 1,
+            RolloutEvaluator.this.maxPlayoutMoves, total);
+
+        this.played[rootMove]++;
+        if (position.getScore() == total) {
+          this.wins[rootMove]++;
+        }
+        if (this.determinizer == null) {
+          for (; made > 0; made--) {
+            position.undo();
+          }
+        }
+      }
+    }
+  }
+}
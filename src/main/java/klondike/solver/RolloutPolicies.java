@@ -0,0 +1,70 @@
+package klondike.solver;
+
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+
+/**
+ * The built-in {@link RolloutPolicy}s.
+ */
+public final class RolloutPolicies {
+
+  private RolloutPolicies() {
+  }
+
+  /**
+   * Plays any legal move, each as likely as the others.
+   *
+   * @return the policy
+   */
+  public static RolloutPolicy random() {
+    return (game, moves, count, random) -> random.nextInt(count);
+  }
+
+  /**
+   * Plays the moves a hurried player would: a move to a foundation if there is one, or else a
+   * move that turns over a face-down card, or else a move of the draw card to a cascade, or
+   * else a discard, as long as the draw cards have not started repeating. Only when none of
+   * those is possible does it move cards between cascades without turning one over, and only
+   * when it cannot do that either does it cycle the stock again. Where several moves of the
+   * same kind are possible it picks one at random.
+   *
+   * @return the policy
+   */
+  public static RolloutPolicy greedy() {
+    return (game, moves, count, random) -> {
+      int bestRank = Integer.MAX_VALUE;
+      int best = 0;
+      int ties = 0;
+      for (int index = 0; index < count; index++) {
+        int rank = rank(game, moves[index]);
+        if (rank < bestRank) {
+          bestRank = rank;
+          best = index;
+          ties = 1;
+        } else if (rank == bestRank && random.nextInt(++ties) == 0) {
+          best = index;
+        }
+      }
+      return best;
+    };
+  }
+
+  /**
+   * Ranks a move for the greedy policy, where lower ranks are played first.
+   */
+  private static int rank(AbstractKlondike game, int move) {
+    switch (KlondikeMoves.kind(move)) {
+      case KlondikeMoves.MOVE_TO_FOUNDATION:
+      case KlondikeMoves.MOVE_DRAW_TO_FOUNDATION:
+        return 0;
+      case KlondikeMoves.MOVE_PILE:
+        int pile = KlondikeMoves.source(move);
+        int below = game.getPileHeight(pile) - KlondikeMoves.count(move) - 1;
+        return below >= 0 && !game.isCardVisible(pile, below) ? 1 : 4;
+      case KlondikeMoves.MOVE_DRAW:
+        return 2;
+      default:
+        return game.getDiscardsBeforeRepeat() > 0 ? 3 : 5;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package klondike.solver;
+
+import java.util.SplittableRandom;
+import klondike.model.hw04.AbstractKlondike;
+
+/**
+ * Picks the moves of a playout, the quick game a {@link RolloutEvaluator} plays to the end to
+ * see whether a position tends to be won. Built-in policies are in {@link RolloutPolicies}.
+ */
+@FunctionalInterface
+public interface RolloutPolicy {
+
+  /**
+   * Picks which of the given legal moves to play next. A policy is called from many threads at
+   * once, each with its own game and generator, so it must not keep state of its own.
+   *
+   * @param game   the game being played out
+   * @param moves  the legal moves of the game, encoded with
+   *               {@link klondike.model.hw04.KlondikeMoves}, in the first {@code count} places
+   * @param count  how many legal moves there are, at least one
+   * @param random the generator of this playout, for any random choice
+   * @return the index of the move to play, from 0 to {@code count - 1}
+   */
+  int choose(AbstractKlondike game, int[] moves, int count, SplittableRandom random);
+}
@@ -0,0 +1,122 @@
+package klondike.solver;
+
+import klondike.model.hw04.KlondikeMoves;
+
+/**
+ * What a {@link RolloutEvaluator} found out about each legal move of a position: how many
+ * playouts started with it and how many of those were won.
+ */
+public final class RolloutResult {
+  /**
+   * What {@link #getBestMove} returns when the position has no legal moves.
+   */
+  public static final int NO_MOVE = -1;
+
+  private final int[] moves;
+  private final long[] playouts;
+  private final long[] wins;
+  private final long elapsedNanos;
+
+  /**
+   * Records the outcome of an evaluation.
+   *
+   * @param moves        the legal moves of the position, encoded with {@link KlondikeMoves}
+   * @param playouts     how many playouts started with each move
+   * @param wins         how many of those playouts were won
+   * @param elapsedNanos how long the evaluation took, in nanoseconds
+   * @throws IllegalArgumentException if any array is null, or they differ in length
+   */
+  public RolloutResult(int[] moves, long[] playouts, long[] wins, long elapsedNanos)
+      throws IllegalArgumentException {
+    if (moves == null || playouts == null || wins == null || playouts.length != moves.length
+        || wins.length != moves.length) {
+      throw new IllegalArgumentException("Invalid rollout result");
+    }
+    this.moves = moves.clone();
+    this.playouts = playouts.clone();
+    this.wins = wins.clone();
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the legal moves that were evaluated.
+   *
+   * @return the moves, encoded with {@link KlondikeMoves}
+   */
+  public int[] getMoves() {
+    return this.moves.clone();
+  }
+
+  /**
+   * Returns how many playouts started with the move at the given index of {@link #getMoves}.
+   *
+   * @param index the index of the move
+   * @return the number of playouts
+   * @throws IndexOutOfBoundsException if there is no such move
+   */
+  public long getPlayouts(int index) throws IndexOutOfBoundsException {
+    return this.playouts[index];
+  }
+
+  /**
+   * Returns how many playouts that started with the move at the given index were won.
+   *
+   * @param index the index of the move
+   * @return the number of won playouts
+   * @throws IndexOutOfBoundsException if there is no such move
+   */
+  public long getWins(int index) throws IndexOutOfBoundsException {
+    return this.wins[index];
+  }
+
+  /**
+   * Returns the share of the playouts starting with the move at the given index that were won.
+   *
+   * @param index the index of the move
+   * @return the win rate, from 0 to 1, or 0 if no playout started with the move
+   * @throws IndexOutOfBoundsException if there is no such move
+   */
+  public double getWinRate(int index) throws IndexOutOfBoundsException {
+    return this.playouts[index] == 0 ? 0 : (double) this.wins[index] / this.playouts[index];
+  }
+
+  /**
+   * Returns the move with the highest win rate, or the earliest of those tied for it.
+   *
+   * @return the move, encoded with {@link KlondikeMoves}, or {@link #NO_MOVE} if there are no
+   *         moves
+   */
+  public int getBestMove() {
+    int best = NO_MOVE;
+    double bestRate = -1;
+    for (int index = 0; index < this.moves.length; index++) {
+      if (this.getWinRate(index) > bestRate) {
+        best = this.moves[index];
+        bestRate = this.getWinRate(index);
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns how many playouts were played in all.
+   *
+   * @return the number of playouts
+   */
+  public long getTotalPlayouts() {
+    long total = 0;
+    for (long count : this.playouts) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Returns how long the evaluation took.
+   *
+   * @return the elapsed time, in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+}
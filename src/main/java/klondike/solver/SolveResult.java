@@ -0,0 +1,94 @@
+package klondike.solver;
+
+import klondike.model.hw04.KlondikeMoves;
+
+/**
+ * What a {@link Solver} found out about a deal: whether it can be won, the moves that win it if
+ * so, and how much searching that took.
+ */
+public final class SolveResult {
+  private final SolveStatus status;
+  private final int[] moves;
+  private final long nodes;
+  private final long elapsedNanos;
+
+  /**
+   * Records the outcome of a search.
+   *
+   * @param status       how the search ended
+   * @param moves        the winning moves, encoded with {@link KlondikeMoves}, or an empty array
+   *                     if the deal was not solved
+   * @param nodes        how many positions the search visited
+   * @param elapsedNanos how long the search took, in nanoseconds
+   * @throws IllegalArgumentException if the status or moves are null, or there are moves for a
+   *                                  deal that was not solved
+   */
+  public SolveResult(SolveStatus status, int[] moves, long nodes, long elapsedNanos)
+      throws IllegalArgumentException {
+    if (status == null || moves == null
+        || (status != SolveStatus.SOLVED && moves.length > 0)) {
+      throw new IllegalArgumentException("Invalid search result");
+    }
+    this.status = status;
+    this.moves = moves.clone();
+    this.nodes = nodes;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns how the search ended.
+   *
+   * @return the status of the search
+   */
+  public SolveStatus getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Returns the moves that win the deal, in the order to play them, encoded with
+   * {@link KlondikeMoves}. The array is empty unless the deal was solved.
+   *
+   * @return a copy of the winning moves
+   */
+  public int[] getMoves() {
+    return this.moves.clone();
+  }
+
+  /**
+   * Returns how many positions the search visited.
+   *
+   * @return the number of nodes searched
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns how long the search took.
+   *
+   * @return the time spent searching, in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Returns how quickly the search visited positions.
+   *
+   * @return the number of nodes searched per second
+   */
+  public double nodesPerSecond() {
+    return this.nodes * 1e9 / Math.max(1, this.elapsedNanos);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder description = new StringBuilder();
+    description.append(this.status).append(" after ").append(this.nodes).append(" nodes (")
+        .append(Math.round(this.nodesPerSecond())).append(" nodes/s)");
+    for (int move : this.moves) {
+      description.append(System.lineSeparator()).append(KlondikeMoves.toString(move));
+    }
+    return description.toString();
+  }
+}
@@ -0,0 +1,23 @@
+package klondike.solver;
+
+/**
+ * The ways a search for a winning line of play can end.
+ */
+public enum SolveStatus {
+  /**
+   * Every card can be moved to the foundations, and the winning moves were found.
+   */
+  SOLVED,
+  /**
+   * Every reachable position was searched and none of them wins, so the deal cannot be won.
+   */
+  UNSOLVABLE,
+  /**
+   * The search looked at as many positions as it was allowed to before finding an answer.
+   */
+  NODE_LIMIT,
+  /**
+   * The search remembered as many positions as its memory allowed before finding an answer.
+   */
+  MEMORY_LIMIT
+}
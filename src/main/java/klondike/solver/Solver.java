@@ -0,0 +1,80 @@
+package klondike.solver;
+
+import klondike.model.hw04.AbstractKlondike;
+
+/**
+ * Decides whether a dealt game can be won, by a depth-first search over its moves that
+ * remembers every position it has seen in a {@link TranspositionTable}. A position reached a
+ * second time, by whatever route, is not searched again, which also stops the search from
+ * cycling through the stock forever.
+ *
+ * <p>The search plays moves in a fork of the game and takes them back with undo, so it sees
+ * the face-down cards as each one is turned over. It therefore solves with full knowledge of
+ * the deal, which is what deciding whether a deal is winnable calls for. Limits on the number
+ * of positions visited and the memory of the table keep a search of a hard deal bounded.</p>
+ *
+ * <p>A {@link MovePruner} can cut down the moves tried in each position. The built-in ones in
+ * {@link MovePruners} never lose a win, so the search stays exact with them.</p>
+ */
+public final class Solver {
+  private final long maxNodes;
+  private final long maxTableBytes;
+  private final MovePruner pruner;
+
+  /**
+   * Creates a solver with the given budgets, which tries every legal move.
+   *
+   * @param maxNodes      the most positions a search may visit
+   * @param maxTableBytes the most memory the table of seen positions may use
+   * @throws IllegalArgumentException if the node budget is not positive, or the memory budget
+   *                                  is less than {@link TranspositionTable#MIN_BYTES}
+   */
+  public Solver(long maxNodes, long maxTableBytes) throws IllegalArgumentException {
+    this(maxNodes, maxTableBytes, MovePruners.none());
+  }
+
+  /**
+   * Creates a solver with the given budgets, which tries the moves the given pruner keeps.
+   *
+   * @param maxNodes      the most positions a search may visit
+   * @param maxTableBytes the most memory the table of seen positions may use
+   * @param pruner        the pruner of the moves of each position
+   * @throws IllegalArgumentException if the node budget is not positive, the memory budget is
+   *                                  less than {@link TranspositionTable#MIN_BYTES}, or the
+   *                                  pruner is null
+   */
+  public Solver(long maxNodes, long maxTableBytes, MovePruner pruner)
+      throws IllegalArgumentException {
+    if (maxNodes <= 0 || maxTableBytes < TranspositionTable.MIN_BYTES || pruner == null) {
+      throw new IllegalArgumentException("Invalid search budget");
+    }
+    this.maxNodes = maxNodes;
+    this.maxTableBytes = maxTableBytes;
+    this.pruner = pruner;
+  }
+
+  /**
+   * Searches for moves that win the given game from its current position. The game itself is
+   * not changed.
+   *
+   * @param game the started game to solve
+   * @return the outcome of the search, with the winning moves if there are any
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public SolveResult solve(AbstractKlondike game) throws IllegalStateException {
+    final long start = System.nanoTime();
+    AbstractKlondike position = game.fork();
+    int total = DepthFirstSearch.cardsInPlay(position);
+    TranspositionTable table = new TranspositionTable(this.maxTableBytes);
+    DepthFirstSearch search =
+        new DepthFirstSearch(table, new NodeBudget(this.maxNodes), this.pruner);
+    table.add(search.key(position));
+    if (position.getScore() == total) {
+      return new SolveResult(SolveStatus.SOLVED, new int[0], 0, System.nanoTime() - start);
+    }
+
+    SolveStatus status = search.run(position, total);
+    return new SolveResult(status, search.winningMoves(), search.getNodes(),
+        System.nanoTime() - start);
+  }
+}
@@ -0,0 +1,162 @@
+package klondike.solver;
+
+/**
+ * A set of position hashes, kept as open-addressed longs so a search can remember millions of
+ * positions without an object per entry. The table grows as positions are added, up to the
+ * number of bytes it was given, and after that it reports itself full. It is not safe to use
+ * from more than one thread; see {@link ConcurrentTranspositionTable} for that.
+ */
+public final class TranspositionTable implements PositionTable {
+  /**
+   * The least memory a table can be given, in bytes.
+   */
+  public static final long MIN_BYTES = Long.BYTES << 12;
+
+  private static final int INITIAL_CAPACITY = 1 << 12;
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final int maxCapacity;
+  private long[] slots;
+  private int size;
+  private boolean hasZero;
+
+  /**
+   * Creates an empty table that will use at most about the given number of bytes.
+   *
+   * @param maxBytes the most memory the table may use
+   * @throws IllegalArgumentException if the table cannot hold even a small number of positions
+   *                                  in that memory, fewer than {@link #MIN_BYTES}
+   */
+  public TranspositionTable(long maxBytes) throws IllegalArgumentException {
+    if (maxBytes < MIN_BYTES) {
+      throw new IllegalArgumentException("Transposition table needs at least " + MIN_BYTES
+          + " bytes");
+    }
+    this.maxCapacity = (int) Long.highestOneBit(Math.min(maxBytes / Long.BYTES, MAX_CAPACITY));
+    this.slots = new long[INITIAL_CAPACITY];
+    this.size = 0;
+    this.hasZero = false;
+  }
+
+  /**
+   * Adds the given hash to the table, unless it is already there.
+   *
+   * @param hash the hash of a position
+   * @return true if the hash was not in the table before, false if it was
+   * @throws IllegalStateException if the hash is new but the table is full
+   */
+  @Override
+  public boolean add(long hash) throws IllegalStateException {
+    if (hash == 0) {
+      if (this.hasZero) {
+        return false;
+      }
+      this.checkRoom();
+      this.hasZero = true;
+      this.size++;
+      return true;
+    }
+
+    int mask = this.slots.length - 1;
+    int index = spread(hash) & mask;
+    while (this.slots[index] != 0) {
+      if (this.slots[index] == hash) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+
+    this.checkRoom();
+    if (this.size + 1 > maxLoad(this.slots.length)) {
+      this.grow();
+      mask = this.slots.length - 1;
+      index = spread(hash) & mask;
+      while (this.slots[index] != 0) {
+        index = (index + 1) & mask;
+      }
+    }
+    this.slots[index] = hash;
+    this.size++;
+    return true;
+  }
+
+  /**
+   * Signals whether the given hash is in the table.
+   *
+   * @param hash the hash of a position
+   * @return true if the hash has been added
+   */
+  @Override
+  public boolean contains(long hash) {
+    if (hash == 0) {
+      return this.hasZero;
+    }
+    int mask = this.slots.length - 1;
+    for (int index = spread(hash) & mask; this.slots[index] != 0; index = (index + 1) & mask) {
+      if (this.slots[index] == hash) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns how many hashes are in the table.
+   *
+   * @return the number of positions remembered
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Signals whether the table has no room for another hash within its memory.
+   *
+   * @return true if adding a new hash would fail
+   */
+  @Override
+  public boolean isFull() {
+    return this.size >= maxLoad(this.maxCapacity);
+  }
+
+  /**
+   * Throws if there is no room for another hash.
+   */
+  private void checkRoom() throws IllegalStateException {
+    if (this.isFull()) {
+      throw new IllegalStateException("Transposition table is full");
+    }
+  }
+
+  /**
+   * Doubles the number of slots and puts every hash back in its new place.
+   */
+  private void grow() {
+    long[] old = this.slots;
+    this.slots = new long[old.length * 2];
+    int mask = this.slots.length - 1;
+    for (long hash : old) {
+      if (hash != 0) {
+        int index = spread(hash) & mask;
+        while (this.slots[index] != 0) {
+          index = (index + 1) & mask;
+        }
+        this.slots[index] = hash;
+      }
+    }
+  }
+
+  /**
+   * Returns how many hashes a table with the given number of slots may hold.
+   */
+  private static int maxLoad(int capacity) {
+    return capacity - capacity / 4;
+  }
+
+  /**
+   * Folds the high bits of a hash into the low bits used to pick a slot.
+   */
+  private static int spread(long hash) {
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
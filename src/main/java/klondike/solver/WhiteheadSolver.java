@@ -0,0 +1,73 @@
+package klondike.solver;
+
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.model.hw04.WhiteheadValidData;
+
+/**
+ * Decides exactly whether a Whitehead deal can be won. Every card of a Whitehead deal is dealt
+ * face-up, so apart from the order of the stock the player knows the whole position, and the
+ * search can cut its moves down much further than the {@link Solver} can, without ever losing a
+ * win:
+ * <ul>
+ *   <li>Moves are pruned with {@link MovePruners#standard} for Whitehead rules, so a card whose
+ *   same-color cards one rank lower are all on foundations goes up as the only move, and only
+ *   the first empty cascade is tried as a destination.</li>
+ *   <li>Positions that differ only by which columns their piles sit in are one position, using
+ *   {@link WhiteheadKlondike#unorderedHash()}, so a same-suit run moved into either of two
+ *   empty cascades is searched once.</li>
+ * </ul>
+ *
+ * <p>The search is the same depth-first search the {@link Solver} runs, keyed by the unordered
+ * hash and pruned for Whitehead. It plays moves in a fork of the game, takes them back with
+ * undo, and is bounded by the number of positions it may visit and the memory of its table. A
+ * search that ends within those budgets is exact: {@link SolveStatus#UNSOLVABLE} means no line
+ * of play wins the deal.</p>
+ */
+public final class WhiteheadSolver {
+  private static final MovePruner PRUNER = MovePruners.standard(new WhiteheadValidData());
+
+  private final long maxNodes;
+  private final long maxTableBytes;
+
+  /**
+   * Creates a solver with the given budgets.
+   *
+   * @param maxNodes      the most positions a search may visit
+   * @param maxTableBytes the most memory the table of seen positions may use
+   * @throws IllegalArgumentException if the node budget is not positive, or the memory budget
+   *                                  is less than {@link TranspositionTable#MIN_BYTES}
+   */
+  public WhiteheadSolver(long maxNodes, long maxTableBytes) throws IllegalArgumentException {
+    if (maxNodes <= 0 || maxTableBytes < TranspositionTable.MIN_BYTES) {
+      throw new IllegalArgumentException("Invalid search budget");
+    }
+    this.maxNodes = maxNodes;
+    this.maxTableBytes = maxTableBytes;
+  }
+
+  /**
+   * Searches for moves that win the given game from its current position. The game itself is
+   * not changed.
+   *
+   * @param game the started game to solve
+   * @return the outcome of the search, with the winning moves if there are any
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public SolveResult solve(WhiteheadKlondike game) throws IllegalStateException {
+    final long start = System.nanoTime();
+    WhiteheadKlondike position = game.fork();
+    int total = DepthFirstSearch.cardsInPlay(position);
+    TranspositionTable table = new TranspositionTable(this.maxTableBytes);
+    DepthFirstSearch search = new DepthFirstSearch(table, new NodeBudget(this.maxNodes), PRUNER,
+        AbstractKlondike::unorderedHash);
+    table.add(search.key(position));
+    if (position.getScore() == total) {
+      return new SolveResult(SolveStatus.SOLVED, new int[0], 0, System.nanoTime() - start);
+    }
+
+    SolveStatus status = search.run(position, total);
+    return new SolveResult(status, search.winningMoves(), search.getNodes(),
+        System.nanoTime() - start);
+  }
+}
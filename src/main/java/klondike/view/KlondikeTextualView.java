@@ -83,8 +83,10 @@ public class KlondikeTextualView implements TextualView {
    */
   private String cascadePileString() {
     String str = "";
-    for (int row = 0; row < this.model.getNumRows(); row++) {
-      for (int pileIndex = 0; pileIndex < this.model.getNumPiles(); pileIndex++) {
+    int numRows = this.model.getNumRows();
+    int numPiles = this.model.getNumPiles();
+    for (int row = 0; row < numRows; row++) {
+      for (int pileIndex = 0; pileIndex < numPiles; pileIndex++) {
         if (this.model.getPileHeight(pileIndex) <= row) {
           str += this.formatEmpty(row == 0);
         } else {
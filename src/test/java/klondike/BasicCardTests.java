@@ -0,0 +1,59 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.KlondikeModel;
+import klondike.model.hw02.Rank;
+import klondike.model.hw02.Suit;
+import org.junit.Test;
+
+/**
+ * Tests for BasicCard and its table of canonical cards.
+ */
+public class BasicCardTests {
+
+  @Test
+  public void testCanonicalCardsAreShared() {
+    assertSame(BasicCard.of(Rank.TEN, Suit.HEARTS), BasicCard.of(Rank.TEN, Suit.HEARTS));
+    BasicCard queen = BasicCard.of(Rank.QUEEN, Suit.SPADES);
+    assertSame(queen, BasicCard.fromId(queen.getId()));
+  }
+
+  @Test
+  public void testIdsAreDistinct() {
+    boolean[] seen = new boolean[BasicCard.numIds()];
+    for (Suit suit : Suit.values()) {
+      for (Rank rank : Rank.values()) {
+        int id = BasicCard.of(rank, suit).getId();
+        assertEquals(false, seen[id]);
+        seen[id] = true;
+      }
+    }
+  }
+
+  @Test
+  public void testEqualsMatchesConstructedCards() {
+    BasicCard constructed = new BasicCard(Rank.ACE, Suit.CLUBS);
+    assertEquals(BasicCard.of(Rank.ACE, Suit.CLUBS), constructed);
+    assertEquals(BasicCard.of(Rank.ACE, Suit.CLUBS).hashCode(), constructed.hashCode());
+    assertNotEquals(BasicCard.of(Rank.ACE, Suit.SPADES), constructed);
+    assertEquals("A♣", constructed.toString());
+  }
+
+  @Test
+  public void testModelsHandOutCanonicalCards() {
+    KlondikeModel<BasicCard> game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    assertSame(BasicCard.of(Rank.THREE, Suit.HEARTS), game.getDrawCards().get(0));
+    assertSame(game.getCardAt(0, 0), game.getCardAt(0, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadId() {
+    BasicCard.fromId(BasicCard.numIds());
+  }
+}
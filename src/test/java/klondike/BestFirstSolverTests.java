@@ -0,0 +1,140 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.Rank;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.solver.BestFirstSolver;
+import klondike.solver.Heuristic;
+import klondike.solver.Heuristics;
+import klondike.solver.SolveResult;
+import klondike.solver.SolveStatus;
+import klondike.solver.Solver;
+import klondike.solver.TranspositionTable;
+import org.junit.Test;
+
+/**
+ * Tests for the BestFirstSolver and the built-in Heuristics.
+ */
+public class BestFirstSolverTests {
+  private final BestFirstSolver solver =
+      new BestFirstSolver(Heuristics.standard(), 2_000_000, 64L << 20);
+
+  /**
+   * Deals a game of just the clubs and diamonds from the given seed.
+   */
+  private AbstractKlondike dealt(AbstractKlondike model, long seed, int numPiles) {
+    return this.dealt(model, seed, numPiles, Rank.KING);
+  }
+
+  /**
+   * Deals a game of just the clubs and diamonds up to the given rank from the given seed.
+   */
+  private AbstractKlondike dealt(AbstractKlondike model, long seed, int numPiles, Rank highest) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : model.createNewDeck()) {
+      if ((card.getSuit() == Suit.CLUBS || card.getSuit() == Suit.DIAMONDS)
+          && card.getRank().getValue() <= highest.getValue()) {
+        deck.add(card);
+      }
+    }
+    model.startGame(deck, seed, numPiles, 1);
+    return model;
+  }
+
+  /**
+   * Plays the given moves in a fork of the given game and checks that they win it.
+   */
+  private void assertWins(AbstractKlondike game, int[] moves) {
+    AbstractKlondike copy = game.fork();
+    for (int move : moves) {
+      KlondikeMoves.apply(copy, move);
+    }
+    assertEquals(0, copy.getNumRows());
+    assertEquals(0, copy.getDrawCards().size());
+    assertEquals(0, copy.getStockCount());
+  }
+
+  @Test
+  public void testAgreesWithSolver() {
+    Solver single = new Solver(2_000_000, 64L << 20);
+    for (long seed = 0; seed < 6; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      this.dealt(game, seed, 5);
+      long hash = game.stateHash();
+      SolveResult result = this.solver.solve(game);
+      assertEquals(hash, game.stateHash());
+      assertEquals(single.solve(game).getStatus(), result.getStatus());
+      if (result.getStatus() == SolveStatus.SOLVED) {
+        this.assertWins(game, result.getMoves());
+      }
+    }
+  }
+
+  @Test
+  public void testEveryHeuristicIsSound() {
+    Heuristic[] heuristics = {Heuristics.cardsOffFoundations(), Heuristics.faceDownCards(),
+        Heuristics.occupiedCascades(), Heuristics.weighted(5, Heuristics.standard())};
+    Solver single = new Solver(200_000, 64L << 20);
+    // Deals of Ace to Five are small enough for even the weakest heuristic to finish, and these
+    // seeds give both winnable and unwinnable deals of both variants.
+    for (long seed = 0; seed < 6; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      this.dealt(game, seed, 3, Rank.FIVE);
+      SolveStatus expected = single.solve(game).getStatus();
+      assertTrue(expected == SolveStatus.SOLVED || expected == SolveStatus.UNSOLVABLE);
+      for (Heuristic heuristic : heuristics) {
+        SolveResult result = new BestFirstSolver(heuristic, 200_000, 64L << 20).solve(game);
+        assertEquals(expected, result.getStatus());
+        if (result.getStatus() == SolveStatus.SOLVED) {
+          this.assertWins(game, result.getMoves());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBuiltInEstimates() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 3L, 7, 1);
+    assertEquals(52 - game.getScore(), Heuristics.cardsOffFoundations().estimate(game));
+    assertEquals(21, Heuristics.faceDownCards().estimate(game));
+    assertEquals(7, Heuristics.occupiedCascades().estimate(game));
+    assertEquals(52 - game.getScore() + 63, Heuristics.standard().estimate(game));
+    assertEquals(14, Heuristics.weighted(2, Heuristics.occupiedCascades()).estimate(game));
+  }
+
+  @Test
+  public void testNodeBudget() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 12L, 7, 3);
+    SolveResult result = new BestFirstSolver(Heuristics.standard(), 500,
+        TranspositionTable.MIN_BYTES << 8).solve(game);
+    assertTrue(result.getNodes() <= 500);
+    assertTrue(result.getStatus() == SolveStatus.NODE_LIMIT
+        || result.getStatus() == SolveStatus.SOLVED);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullHeuristic() {
+    new BestFirstSolver(null, 100, 64L << 20);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeWeight() {
+    Heuristics.weighted(-1, Heuristics.standard());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSolveUnstartedGame() {
+    this.solver.solve(new BasicKlondike());
+  }
+}
@@ -0,0 +1,92 @@
+package klondike;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for dealing the list-based KlondikeModels, with and without a seed.
+ */
+public class DealTests {
+
+  /**
+   * Deals a Whitehead game from the given seed, where every cascade card can be seen.
+   */
+  private AbstractKlondike dealt(long seed) {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), seed, 7, 3);
+    return game;
+  }
+
+  /**
+   * Lists every card of a Whitehead game, cascades first, then the stock in order.
+   */
+  private List<String> allCards(AbstractKlondike game) {
+    List<String> cards = new ArrayList<>();
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      for (int card = 0; card < game.getPileHeight(pile); card++) {
+        cards.add(game.getCardAt(pile, card).toString());
+      }
+    }
+    for (int discard = game.getDiscardsBeforeRepeat(); discard > 0; discard--) {
+      cards.add(game.getDrawCards().get(0).toString());
+      game.discardDraw();
+    }
+    return cards;
+  }
+
+  @Test
+  public void testSameSeedSameDeal() {
+    assertEquals(this.allCards(this.dealt(2024)), this.allCards(this.dealt(2024)));
+    assertEquals(this.dealt(7).stateHash(), this.dealt(7).stateHash());
+    assertNotEquals(this.dealt(7).stateHash(), this.dealt(8).stateHash());
+  }
+
+  @Test
+  public void testSeededDealIsShuffle() {
+    List<String> cards = this.allCards(this.dealt(31));
+    assertEquals(52, cards.size());
+    assertEquals(52, cards.stream().distinct().count());
+    assertNotEquals(this.allCards(this.dealt(-1)), cards);
+  }
+
+  @Test
+  public void testParallelDealsMatch() {
+    long[] sequential = new long[200];
+    for (int seed = 0; seed < sequential.length; seed++) {
+      sequential[seed] = this.dealt(seed).stateHash();
+    }
+    long[] parallel = IntStream.range(0, sequential.length).parallel()
+        .mapToLong(seed -> this.dealt(seed).stateHash()).toArray();
+    assertArrayEquals(sequential, parallel);
+  }
+
+  @Test
+  public void testSeededBasicDeal() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(2), 5L, 12, 1);
+    assertEquals(8, game.getNumFoundations());
+    assertEquals(12, game.getPileHeight(11));
+    assertEquals(104 - 78 - 1, game.getStockCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeckTooSmallForCascades() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 1L, 10, 1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSeededStartTwice() {
+    AbstractKlondike game = this.dealt(1);
+    game.startGame(game.createNewDeck(), 1L, 7, 3);
+  }
+}
@@ -0,0 +1,58 @@
+package klondike;
+
+import java.util.SplittableRandom;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.solver.Determinizer;
+
+/**
+ * Measures how many deals a second the Determinizer samples from the opening position of a
+ * fixed corpus of seeded Basic deals, where the most cards are hidden. The target is tens of
+ * thousands of deals a second on one thread. Run it with {@code gradle determinizerBenchmark}.
+ */
+public final class DeterminizerBenchmark {
+  private static final int DEALS = 10;
+  private static final int SAMPLES = 200_000;
+  private static final double TARGET = 20_000;
+
+  // Every sample's hash goes here, so the JIT cannot skip making the samples.
+  private static volatile long sink;
+
+  private DeterminizerBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints the results.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    // One untimed deal lets the JIT compile the sampling loop first.
+    sampleAll(0);
+    long samples = 0;
+    long nanos = 0;
+    for (long seed = 1; seed <= DEALS; seed++) {
+      long start = System.nanoTime();
+      samples += sampleAll(seed);
+      nanos += System.nanoTime() - start;
+    }
+    double perSecond = samples / (nanos / 1e9);
+    System.out.printf("Basic draw 3, %d deals, %d samples each%n", DEALS, SAMPLES);
+    System.out.printf("%.0f samples/s on one thread, target %s%n", perSecond,
+        perSecond >= TARGET ? "met" : "missed");
+  }
+
+  /**
+   * Samples every deal of the opening position with the given seed, and returns how many.
+   */
+  private static long sampleAll(long seed) {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), seed, 7, 3);
+    Determinizer determinizer = new Determinizer(game, game.createNewDeck());
+    SplittableRandom random = new SplittableRandom(seed);
+    for (int sample = 0; sample < SAMPLES; sample++) {
+      sink ^= determinizer.sample(random).stateHash();
+    }
+    return SAMPLES;
+  }
+}
@@ -0,0 +1,195 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.solver.Determinizer;
+import org.junit.Test;
+
+/**
+ * Tests for the Determinizer and the hidden-card forks it samples with.
+ */
+public class DeterminizerTests {
+
+  /**
+   * Describes everything a player can see about a game.
+   */
+  private String describe(AbstractKlondike game) {
+    StringBuilder description = new StringBuilder();
+    description.append(game.getDrawCards()).append(game.getStockCount()).append('|');
+    for (int foundation = 0; foundation < game.getNumFoundations(); foundation++) {
+      description.append(game.getCardAt(foundation)).append(game.getFoundationHeight(foundation))
+          .append(',');
+    }
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      description.append('|');
+      for (int card = 0; card < game.getPileHeight(pile); card++) {
+        description.append(game.isCardVisible(pile, card) ? game.getCardAt(pile, card) : "?");
+      }
+    }
+    return description.toString();
+  }
+
+  /**
+   * Plays the first legal move that is not a discard, if any, the given number of times.
+   */
+  private void play(AbstractKlondike game, int moves) {
+    int[] legal = new int[1024];
+    for (int move = 0; move < moves; move++) {
+      int count = MoveGenerator.legalMoves(game, legal);
+      int chosen = count - 1;
+      for (int index = count - 1; index >= 0; index--) {
+        if (KlondikeMoves.kind(legal[index]) != KlondikeMoves.DISCARD_DRAW) {
+          chosen = index;
+        }
+      }
+      if (chosen < 0) {
+        return;
+      }
+      KlondikeMoves.apply(game, legal[chosen]);
+    }
+  }
+
+  @Test
+  public void testSameHiddenCardsGiveSameGame() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = game.createNewDeck();
+    game.startGame(deck, false, 7, 3);
+    assertEquals(21 + 21, game.getHiddenCount());
+
+    // Dealt in order, the face-down card in row r of pile c is card 7r - r(r-1)/2 + c - r.
+    BasicCard[] hidden = new BasicCard[game.getHiddenCount() + 1];
+    int next = 1;
+    for (int pile = 0; pile < 7; pile++) {
+      for (int row = 0; row < pile; row++) {
+        hidden[next++] = deck.get(7 * row - row * (row - 1) / 2 + pile - row);
+      }
+    }
+    for (int card = 28 + 3; card < 52; card++) {
+      hidden[next++] = deck.get(card);
+    }
+    assertEquals(game.stateHash(), game.forkWithHiddenCards(hidden, 1).stateHash());
+    assertEquals(game.unorderedHash(), game.forkWithHiddenCards(hidden, 1).unorderedHash());
+
+    BasicCard swap = hidden[1];
+    hidden[1] = hidden[2];
+    hidden[2] = swap;
+    AbstractKlondike swapped = game.forkWithHiddenCards(hidden, 1);
+    assertNotEquals(game.stateHash(), swapped.stateHash());
+    assertEquals(this.describe(game), this.describe(swapped));
+  }
+
+  @Test
+  public void testSamplesLookTheSame() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 4L, 7, 3);
+    this.play(game, 10);
+    Determinizer determinizer = new Determinizer(game, game.createNewDeck());
+    assertEquals(game.getHiddenCount(), determinizer.getUnseenCards().size());
+
+    Set<Long> hashes = new HashSet<>();
+    for (AbstractKlondike world : determinizer.sample(20, 7L)) {
+      assertEquals(this.describe(game), this.describe(world));
+      assertEquals(game.getScore(), world.getScore());
+      hashes.add(world.stateHash());
+    }
+    assertTrue(hashes.size() > 1);
+  }
+
+  @Test
+  public void testSamplesDoNotDependOnHiddenCards() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = game.createNewDeck();
+    game.startGame(deck, 9L, 7, 1);
+    List<BasicCard> unseen = new Determinizer(game, deck).getUnseenCards();
+    AbstractKlondike twin = game.forkWithHiddenCards(unseen.toArray(new BasicCard[0]), 0);
+    assertNotEquals(game.stateHash(), twin.stateHash());
+
+    List<AbstractKlondike> worlds = new Determinizer(game, deck).sample(10, 3L);
+    List<AbstractKlondike> twinWorlds = new Determinizer(twin, deck).sample(10, 3L);
+    for (int world = 0; world < worlds.size(); world++) {
+      assertEquals(worlds.get(world).stateHash(), twinWorlds.get(world).stateHash());
+    }
+  }
+
+  @Test
+  public void testSampledStockHoldsUnseenCards() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    List<BasicCard> deck = game.createNewDeck();
+    game.startGame(deck, 2L, 7, 1);
+    Determinizer determinizer = new Determinizer(game, deck);
+    List<BasicCard> unseen = determinizer.getUnseenCards();
+    assertEquals(game.getStockCount(), unseen.size());
+
+    AbstractKlondike world = determinizer.sample(new SplittableRandom(5L));
+    List<BasicCard> revealed = new ArrayList<>();
+    for (int card = 0; card < unseen.size(); card++) {
+      world.discardDraw();
+      revealed.add(world.getDrawCards().get(0));
+    }
+    revealed.sort((first, second) -> Integer.compare(first.getId(), second.getId()));
+    assertEquals(unseen, revealed);
+  }
+
+  @Test
+  public void testSampledGamesCanBePlayed() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 11L, 7, 3);
+    AbstractKlondike world =
+        new Determinizer(game, game.createNewDeck()).sample(new SplittableRandom(1L));
+    long hash = world.stateHash();
+    this.play(world, 30);
+    while (world.canUndo()) {
+      world.undo();
+    }
+    assertEquals(hash, world.stateHash());
+  }
+
+  @Test
+  public void testSameSeedGivesSameSamples() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 6L, 7, 3);
+    List<AbstractKlondike> first = new Determinizer(game, game.createNewDeck()).sample(5, 8L);
+    List<AbstractKlondike> second = new Determinizer(game, game.createNewDeck()).sample(5, 8L);
+    for (int world = 0; world < first.size(); world++) {
+      assertEquals(first.get(world).stateHash(), second.get(world).stateHash());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeckMissingVisibleCard() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 6L, 7, 3);
+    List<BasicCard> deck = game.createNewDeck();
+    deck.remove(game.getCardAt(0, 0));
+    new Determinizer(game, deck);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeckWithExtraCards() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 6L, 7, 3);
+    List<BasicCard> deck = game.createNewDeck();
+    deck.addAll(game.createNewDeck());
+    new Determinizer(game, deck);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testTooFewHiddenCards() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 6L, 7, 3);
+    game.forkWithHiddenCards(new BasicCard[game.getHiddenCount() - 1], 0);
+  }
+}
@@ -0,0 +1,200 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for forking the list-based KlondikeModels.
+ */
+public class ForkTests {
+
+  /**
+   * Describes everything a player can see about a game, along with its hash and whether it is
+   * over.
+   */
+  private String describe(AbstractKlondike game) {
+    StringBuilder description = new StringBuilder();
+    description.append(game.stateHash()).append(game.getDrawCards())
+        .append(game.getStockCount()).append(game.getScore()).append(game.getNumRows())
+        .append(game.isGameOver());
+    for (int foundation = 0; foundation < game.getNumFoundations(); foundation++) {
+      description.append(game.getCardAt(foundation)).append(',');
+    }
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      description.append('|');
+      for (int card = 0; card < game.getPileHeight(pile); card++) {
+        description.append(game.isCardVisible(pile, card) ? game.getCardAt(pile, card) : "?");
+      }
+    }
+    return description.toString();
+  }
+
+  /**
+   * Tries the given number of random moves, ignoring the ones that are not allowed.
+   */
+  private void playRandomly(AbstractKlondike game, Random random, int turns) {
+    int piles = game.getNumPiles();
+    for (int turn = 0; turn < turns; turn++) {
+      int[] moves = {
+          KlondikeMoves.movePile(random.nextInt(piles), 1 + random.nextInt(3),
+              random.nextInt(piles)),
+          KlondikeMoves.moveDraw(random.nextInt(piles)),
+          KlondikeMoves.moveToFoundation(random.nextInt(piles), random.nextInt(4)),
+          KlondikeMoves.moveDrawToFoundation(random.nextInt(4)),
+          KlondikeMoves.discardDraw()};
+      try {
+        KlondikeMoves.apply(game, moves[random.nextInt(moves.length)]);
+      } catch (IllegalArgumentException | IllegalStateException ex) {
+        // not a legal move here
+      }
+    }
+  }
+
+  @Test
+  public void testForksPlayIndependently() {
+    Random random = new Random(99);
+    for (int game = 0; game < 20; game++) {
+      AbstractKlondike original = game % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      List<BasicCard> deck = original.createNewDeck();
+      Collections.shuffle(deck, random);
+      original.startGame(deck, false, 7, 1 + random.nextInt(3));
+      this.playRandomly(original, random, 100);
+
+      AbstractKlondike fork = original.fork();
+      String before = this.describe(original);
+      assertEquals(before, this.describe(fork));
+      assertFalse(fork.canUndo());
+
+      this.playRandomly(fork, random, 300);
+      assertEquals(before, this.describe(original));
+
+      String forked = this.describe(fork);
+      this.playRandomly(original, random, 300);
+      assertEquals(forked, this.describe(fork));
+    }
+  }
+
+  @Test
+  public void testUndoAfterFork() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    game.moveToFoundation(0, 0);
+    AbstractKlondike fork = game.fork();
+    game.undo();
+    assertEquals(1, fork.getScore());
+    assertEquals("A♢", fork.getCardAt(0).toString());
+    assertEquals(0, game.getScore());
+    assertNotEquals(game.stateHash(), fork.stateHash());
+  }
+
+  @Test
+  public void testForksOnOtherThreads() throws InterruptedException {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), true, 7, 1);
+    String start = this.describe(game);
+    List<Thread> workers = new ArrayList<>();
+    List<AbstractKlondike> forks = new ArrayList<>();
+    for (int worker = 0; worker < 8; worker++) {
+      AbstractKlondike fork = game.fork();
+      long seed = worker;
+      forks.add(fork);
+      workers.add(new Thread(() -> this.playRandomly(fork, new Random(seed), 2000)));
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assertEquals(start, this.describe(game));
+
+    AbstractKlondike replay = forks.get(3);
+    AbstractKlondike expected = game.fork();
+    this.playRandomly(expected, new Random(3), 2000);
+    assertEquals(this.describe(expected), this.describe(replay));
+  }
+
+  @Test
+  public void testForkingFromManyThreadsAtOnce() throws Exception {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 21L, 7, 3);
+    this.playRandomly(game, new Random(5), 200);
+    String start = this.describe(game);
+
+    int workers = 8;
+    CyclicBarrier barrier = new CyclicBarrier(workers);
+    List<Thread> threads = new ArrayList<>();
+    String[] results = new String[workers];
+    for (int worker = 0; worker < workers; worker++) {
+      int index = worker;
+      threads.add(new Thread(() -> {
+        try {
+          barrier.await();
+        } catch (InterruptedException | BrokenBarrierException ex) {
+          return;
+        }
+        for (int round = 0; round < 200; round++) {
+          AbstractKlondike fork = game.fork();
+          this.playRandomly(fork, new Random(index * 1000L + round), 50);
+          if (round == 0) {
+            results[index] = this.describe(fork);
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(start, this.describe(game));
+    for (int worker = 0; worker < workers; worker++) {
+      AbstractKlondike expected = game.fork();
+      this.playRandomly(expected, new Random(worker * 1000L), 50);
+      assertEquals(this.describe(expected), results[worker]);
+    }
+  }
+
+  @Test
+  public void testForksOfForks() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), 8L, 7, 1);
+    String start = this.describe(game);
+    AbstractKlondike child = game.fork();
+    AbstractKlondike grandchild = child.fork();
+
+    this.playRandomly(game, new Random(1), 300);
+    assertEquals(start, this.describe(child));
+    assertEquals(start, this.describe(grandchild));
+    String played = this.describe(game);
+
+    this.playRandomly(child, new Random(2), 300);
+    assertEquals(start, this.describe(grandchild));
+    assertEquals(played, this.describe(game));
+
+    this.playRandomly(grandchild, new Random(2), 300);
+    assertEquals(this.describe(child), this.describe(grandchild));
+    assertEquals(played, this.describe(game));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testForkBeforeStart() {
+    new BasicKlondike().fork().getScore();
+  }
+}
@@ -0,0 +1,94 @@
+package klondike;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.solver.BestFirstSolver;
+import klondike.solver.Heuristic;
+import klondike.solver.Heuristics;
+import klondike.solver.SolveResult;
+import klondike.solver.SolveStatus;
+import klondike.solver.Solver;
+
+/**
+ * Compares the solvers and built-in heuristics on a fixed corpus of seeded deals, reporting
+ * how many deals each solves within its budget and how long that takes. Run it with
+ * {@code gradle benchmark}.
+ */
+public final class HeuristicBenchmark {
+  private static final int DEALS = 40;
+  private static final long MAX_NODES = 200_000;
+  private static final long MAX_TABLE_BYTES = 64L << 20;
+
+  private HeuristicBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints a table of the results.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    Map<String, Function<AbstractKlondike, SolveResult>> solvers = new LinkedHashMap<>();
+    solvers.put("depth-first", new Solver(MAX_NODES, MAX_TABLE_BYTES)::solve);
+    solvers.put("cardsOffFoundations", bestFirst(Heuristics.cardsOffFoundations()));
+    solvers.put("faceDownCards", bestFirst(Heuristics.faceDownCards()));
+    solvers.put("occupiedCascades", bestFirst(Heuristics.occupiedCascades()));
+    solvers.put("standard", bestFirst(Heuristics.standard()));
+    solvers.put("standard x10", bestFirst(Heuristics.weighted(10, Heuristics.standard())));
+
+    for (boolean whitehead : new boolean[] {false, true}) {
+      List<AbstractKlondike> corpus = new ArrayList<>();
+      for (long seed = 1; seed <= DEALS; seed++) {
+        AbstractKlondike game = whitehead ? new WhiteheadKlondike() : new BasicKlondike();
+        game.startGame(game.createNewDeck(), seed, 7, whitehead ? 3 : 1);
+        corpus.add(game);
+      }
+
+      System.out.printf("%s, %d deals, %d node budget%n",
+          whitehead ? "Whitehead draw 3" : "Basic draw 1", DEALS, MAX_NODES);
+      System.out.printf("%-20s %7s %7s %12s %10s %16s %10s%n", "solver", "solved", "proven",
+          "mean nodes", "mean ms", "median solve ms", "mean line");
+      for (Map.Entry<String, Function<AbstractKlondike, SolveResult>> entry
+          : solvers.entrySet()) {
+        int solved = 0;
+        int proven = 0;
+        long nodes = 0;
+        long nanos = 0;
+        long line = 0;
+        List<Long> solveNanos = new ArrayList<>();
+        for (AbstractKlondike game : corpus) {
+          SolveResult result = entry.getValue().apply(game);
+          nodes += result.getNodes();
+          nanos += result.getElapsedNanos();
+          if (result.getStatus() == SolveStatus.SOLVED) {
+            solved++;
+            solveNanos.add(result.getElapsedNanos());
+            line += result.getMoves().length;
+          } else if (result.getStatus() == SolveStatus.UNSOLVABLE) {
+            proven++;
+          }
+        }
+        Collections.sort(solveNanos);
+        System.out.printf("%-20s %7d %7d %12d %10.1f %16.1f %10.1f%n", entry.getKey(), solved,
+            proven, nodes / DEALS, nanos / 1e6 / DEALS,
+            solved == 0 ? 0.0 : solveNanos.get(solved / 2) / 1e6,
+            solved == 0 ? 0.0 : (double) line / solved);
+      }
+      System.out.println();
+    }
+  }
+
+  /**
+   * Returns a best-first solver using the given heuristic, within the benchmark's budgets.
+   */
+  private static Function<AbstractKlondike, SolveResult> bestFirst(Heuristic heuristic) {
+    return new BestFirstSolver(heuristic, MAX_NODES, MAX_TABLE_BYTES)::solve;
+  }
+}
@@ -0,0 +1,96 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.solver.Determinizer;
+import klondike.solver.Heuristics;
+import klondike.solver.HintEngine;
+import org.junit.Test;
+
+/**
+ * Tests for the HintEngine.
+ */
+public class HintEngineTests {
+  private final HintEngine engine = new HintEngine(20_000_000);
+
+  @Test
+  public void testHintIsLegal() {
+    for (long seed = 0; seed < 6; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      game.startGame(game.createNewDeck(), seed, 7, 3);
+      long hash = game.stateHash();
+      int hint = this.engine.hint(game);
+      assertEquals(hash, game.stateHash());
+
+      int[] moves = new int[MoveGenerator.maxMoves(game)];
+      int count = MoveGenerator.legalMoves(game, moves);
+      boolean legal = false;
+      for (int index = 0; index < count; index++) {
+        legal |= moves[index] == hint;
+      }
+      assertTrue(legal);
+    }
+  }
+
+  @Test
+  public void testSpentBudgetStillGivesHint() {
+    HintEngine hurried = new HintEngine(1);
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 3L, 7, 1);
+    for (int turn = 0; turn < 10; turn++) {
+      int hint = hurried.hint(game);
+      assertTrue(hint != HintEngine.NO_MOVE);
+      KlondikeMoves.apply(game, hint);
+    }
+  }
+
+  @Test
+  public void testHintIgnoresHiddenCards() {
+    // A depth bound rather than the clock ends these searches, so every deal is searched
+    // equally far.
+    HintEngine bounded = new HintEngine(Heuristics.standard(), 60_000_000_000L, 2);
+    for (long seed = 8; seed < 12; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      game.startGame(game.createNewDeck(), seed, 7, 1);
+      int hint = bounded.hint(game);
+      for (AbstractKlondike world : new Determinizer(game, game.createNewDeck()).sample(10, seed)) {
+        assertEquals(hint, bounded.hint(world));
+      }
+    }
+  }
+
+  @Test
+  public void testFindsWinningMove() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : game.createNewDeck()) {
+      if (card.getSuit() == Suit.DIAMONDS && card.getRank().getValue() <= 2) {
+        deck.add(card);
+      }
+    }
+    game.startGame(deck, false, 1, 1);
+    assertEquals(KlondikeMoves.moveToFoundation(0, 0), this.engine.hint(game));
+    game.moveToFoundation(0, 0);
+    assertEquals(KlondikeMoves.moveDrawToFoundation(0), this.engine.hint(game));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new HintEngine(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testHintUnstartedGame() {
+    this.engine.hint(new BasicKlondike());
+  }
+}
@@ -0,0 +1,125 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.solver.IsmctsPlayer;
+import klondike.solver.RolloutPolicies;
+import org.junit.Test;
+
+/**
+ * Tests for the IsmctsPlayer.
+ */
+public class IsmctsPlayerTests {
+
+  /**
+   * Returns just the clubs and diamonds of a new deck.
+   */
+  private List<BasicCard> halfDeck(AbstractKlondike model) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : model.createNewDeck()) {
+      if (card.getSuit() == Suit.CLUBS || card.getSuit() == Suit.DIAMONDS) {
+        deck.add(card);
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Checks that the given move is legal in the given game.
+   */
+  private void assertLegal(AbstractKlondike game, int move) {
+    int[] moves = new int[MoveGenerator.maxMoves(game)];
+    int count = MoveGenerator.legalMoves(game, moves);
+    boolean found = false;
+    for (int index = 0; index < count; index++) {
+      found |= moves[index] == move;
+    }
+    assertTrue(found);
+  }
+
+  @Test
+  public void testChoosesLegalMoveWithoutChangingGame() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = game.createNewDeck();
+    game.startGame(deck, 3L, 7, 3);
+    long hash = game.stateHash();
+    int move = new IsmctsPlayer(RolloutPolicies.greedy(), 4, 400, 10_000_000_000L)
+        .chooseMove(game, deck, 1L);
+    assertEquals(hash, game.stateHash());
+    this.assertLegal(game, move);
+  }
+
+  @Test
+  public void testOneTaskIsRepeatable() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = game.createNewDeck();
+    game.startGame(deck, 8L, 7, 1);
+    IsmctsPlayer player = new IsmctsPlayer(RolloutPolicies.greedy(), 1, 200, 10_000_000_000L);
+    assertEquals(player.chooseMove(game, deck, 4L), player.chooseMove(game, deck, 4L));
+  }
+
+  @Test
+  public void testWinsSolvableDeal() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = this.halfDeck(game);
+    game.startGame(deck, 2L, 5, 1);
+    IsmctsPlayer player = new IsmctsPlayer(RolloutPolicies.greedy(), 1, 300, 10_000_000_000L);
+    for (int made = 0; made < 200 && game.getScore() < deck.size(); made++) {
+      int move = player.chooseMove(game, deck, made);
+      this.assertLegal(game, move);
+      KlondikeMoves.apply(game, move);
+    }
+    assertEquals(deck.size(), game.getScore());
+  }
+
+  @Test
+  public void testTimeBudget() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = game.createNewDeck();
+    game.startGame(deck, 5L, 7, 3);
+    IsmctsPlayer player =
+        new IsmctsPlayer(RolloutPolicies.greedy(), 2, Long.MAX_VALUE, 50_000_000L);
+    long start = System.nanoTime();
+    this.assertLegal(game, player.chooseMove(game, deck, 0L));
+    assertTrue(System.nanoTime() - start < 2_000_000_000L);
+  }
+
+  @Test
+  public void testNoMoves() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : game.createNewDeck()) {
+      if (card.getSuit() == Suit.DIAMONDS && card.getRank().getValue() <= 2) {
+        deck.add(card);
+      }
+    }
+    game.startGame(deck, false, 1, 1);
+    game.moveToFoundation(0, 0);
+    game.moveDrawToFoundation(0);
+    assertEquals(IsmctsPlayer.NO_MOVE,
+        new IsmctsPlayer(RolloutPolicies.random(), 1, 10, 1_000_000_000L)
+            .chooseMove(game, deck, 0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongDeck() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 5L, 7, 3);
+    new IsmctsPlayer(RolloutPolicies.greedy(), 1, 10, 1_000_000_000L)
+        .chooseMove(game, this.halfDeck(game), 0L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new IsmctsPlayer(RolloutPolicies.greedy(), 1, 0, 1_000_000_000L);
+  }
+}
@@ -1,6 +1,7 @@
 package klondike;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.StringReader;
 import klondike.controller.KlondikeController;
@@ -349,4 +350,61 @@ public class KlondikeControllerTests {
         + "Score: 1\n";
     assertEquals(expectedSegments, output);
   }
+
+  @Test
+  public void testUndo() {
+    StringBuilder out = new StringBuilder();
+    StringReader in = new StringReader("mpf 1 2 u q");
+    KlondikeController control = new KlondikeTextualController(in, out);
+
+    KlondikeModel<BasicCard> model = new BasicKlondike();
+    control.playGame(model, new BasicKlondike().createNewDeck(), false, 7, 3);
+
+    String start = "Draw: 3♡, 4♡, 5♡\n"
+        + "Foundation: <none>, <none>, <none>, <none>\n"
+        + " A♢  ?  ?  ?  ?  ?  ?\n"
+        + "    8♢  ?  ?  ?  ?  ?\n"
+        + "       A♣  ?  ?  ?  ?\n"
+        + "          6♣  ?  ?  ?\n"
+        + "            10♣  ?  ?\n"
+        + "                K♣  ?\n"
+        + "                   2♡\n"
+        + "Score: 0\n";
+    assertEquals(0, model.getScore());
+    assertTrue(out.toString().endsWith("State of game when quit:\n" + start));
+  }
+
+  @Test
+  public void testUndoUnsupported() {
+    StringBuilder out = new StringBuilder();
+    StringReader in = new StringReader("u q");
+    KlondikeController control = new KlondikeTextualController(in, out);
+    KlondikeModel<BasicCard> model = new InputLoggerMock(out);
+    control.playGame(model, new BasicKlondike().createNewDeck(), false, 7, 3);
+
+    assertTrue(out.toString().contains("Invalid move. Play again. This game cannot undo moves\n"));
+  }
+
+  @Test
+  public void testHint() {
+    StringBuilder out = new StringBuilder();
+    StringReader in = new StringReader("h q");
+    KlondikeController control = new KlondikeTextualController(in, out);
+    KlondikeModel<BasicCard> model = new BasicKlondike();
+    control.playGame(model, new BasicKlondike().createNewDeck(), false, 7, 3);
+
+    assertTrue(out.toString().contains("Score: 0\nHint: mpf "));
+    assertEquals(0, model.getScore());
+  }
+
+  @Test
+  public void testHintUnsupported() {
+    StringBuilder out = new StringBuilder();
+    StringReader in = new StringReader("h q");
+    KlondikeController control = new KlondikeTextualController(in, out);
+    KlondikeModel<BasicCard> model = new InputLoggerMock(out);
+    control.playGame(model, new BasicKlondike().createNewDeck(), false, 7, 3);
+
+    assertTrue(out.toString().contains("Invalid move. Play again. This game cannot give hints\n"));
+  }
 }
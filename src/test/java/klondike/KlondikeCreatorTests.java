@@ -5,6 +5,8 @@ import static org.junit.Assert.assertTrue;
 import klondike.model.hw02.BasicKlondike;
 import klondike.model.hw04.KlondikeCreator;
 import klondike.model.hw04.WhiteheadKlondike;
+import klondike.model.packed.BasicPackedKlondike;
+import klondike.model.packed.WhiteheadPackedKlondike;
 import org.junit.Test;
 
 /**
@@ -23,4 +25,12 @@ public class KlondikeCreatorTests {
     assertTrue(KlondikeCreator.create(KlondikeCreator.GameType.BASIC)
         instanceof BasicKlondike);
   }
+
+  @Test
+  public void testCreatesPacked() {
+    assertTrue(KlondikeCreator.create(KlondikeCreator.GameType.PACKED_BASIC)
+        instanceof BasicPackedKlondike);
+    assertTrue(KlondikeCreator.create(KlondikeCreator.GameType.PACKED_WHITEHEAD)
+        instanceof WhiteheadPackedKlondike);
+  }
 }
@@ -0,0 +1,111 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for MoveGenerator, against moves found by trying every move on a fork of the game.
+ */
+public class MoveGeneratorTests {
+
+  /**
+   * Finds the legal moves of a game by trying every move that could possibly be legal.
+   */
+  private Set<Integer> tryEveryMove(AbstractKlondike game) {
+    int piles = game.getNumPiles();
+    int foundations = game.getNumFoundations();
+    Set<Integer> candidates = new TreeSet<>();
+    candidates.add(KlondikeMoves.discardDraw());
+    for (int foundation = 0; foundation < foundations; foundation++) {
+      candidates.add(KlondikeMoves.moveDrawToFoundation(foundation));
+    }
+    for (int pile = 0; pile < piles; pile++) {
+      candidates.add(KlondikeMoves.moveDraw(pile));
+      for (int foundation = 0; foundation < foundations; foundation++) {
+        candidates.add(KlondikeMoves.moveToFoundation(pile, foundation));
+      }
+      for (int dest = 0; dest < piles; dest++) {
+        for (int numCards = 1; numCards <= game.getPileHeight(pile); numCards++) {
+          candidates.add(KlondikeMoves.movePile(pile, numCards, dest));
+        }
+      }
+    }
+
+    Set<Integer> legal = new TreeSet<>();
+    for (int move : candidates) {
+      try {
+        KlondikeMoves.apply(game.fork(), move);
+        legal.add(move);
+      } catch (IllegalArgumentException | IllegalStateException ex) {
+        // not legal here
+      }
+    }
+    return legal;
+  }
+
+  /**
+   * Plays random legal moves, checking the generated moves in every position along the way.
+   */
+  private void checkGames(Random random, boolean whitehead) {
+    int[] moves = new int[1024];
+    for (int game = 0; game < 15; game++) {
+      AbstractKlondike model = whitehead ? new WhiteheadKlondike() : new BasicKlondike();
+      List<BasicCard> deck = model.createNewDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 7, 1 + random.nextInt(3));
+
+      for (int turn = 0; turn < 60 && !model.isGameOver(); turn++) {
+        int count = MoveGenerator.legalMoves(model, moves);
+        assertTrue(count <= MoveGenerator.maxMoves(model));
+        Set<Integer> generated = new TreeSet<>();
+        for (int move : Arrays.copyOf(moves, count)) {
+          generated.add(move);
+        }
+        assertEquals(count, generated.size());
+        assertEquals(this.tryEveryMove(model), generated);
+        KlondikeMoves.apply(model, moves[random.nextInt(count)]);
+      }
+    }
+  }
+
+  @Test
+  public void testBasicMoves() {
+    this.checkGames(new Random(11), false);
+  }
+
+  @Test
+  public void testWhiteheadMoves() {
+    this.checkGames(new Random(12), true);
+  }
+
+  @Test
+  public void testStartingMoves() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    int[] moves = new int[MoveGenerator.maxMoves(game)];
+    int count = MoveGenerator.legalMoves(game, moves);
+    assertEquals("mpf 1 1", KlondikeMoves.toString(moves[0]));
+    assertEquals("dd", KlondikeMoves.toString(moves[count - 1]));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testBufferTooSmall() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    MoveGenerator.legalMoves(game, new int[1]);
+  }
+}
@@ -0,0 +1,240 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.BasicValidData;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.model.hw04.WhiteheadValidData;
+import klondike.solver.BestFirstSolver;
+import klondike.solver.Heuristics;
+import klondike.solver.MovePruner;
+import klondike.solver.MovePruners;
+import klondike.solver.SolveResult;
+import klondike.solver.Solver;
+import org.junit.Test;
+
+/**
+ * Tests for the built-in MovePruners and the solvers that use them.
+ */
+public class MovePrunersTests {
+
+  /**
+   * Builds a deck of the given cards, in the given order.
+   */
+  private List<BasicCard> deckOf(AbstractKlondike model, String... names) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (String name : names) {
+      for (BasicCard card : model.createNewDeck()) {
+        if (card.toString().equals(name)) {
+          deck.add(card);
+        }
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Returns the legal moves of the given game.
+   */
+  private int[] legal(AbstractKlondike game) {
+    int[] moves = new int[MoveGenerator.maxMoves(game)];
+    return Arrays.copyOf(moves, MoveGenerator.legalMoves(game, moves));
+  }
+
+  /**
+   * Returns the moves of the given game the given pruner keeps, after the given move.
+   */
+  private int[] kept(MovePruner pruner, AbstractKlondike game, int previous) {
+    int[] moves = this.legal(game);
+    return Arrays.copyOf(moves, pruner.prune(game, previous, moves, 0, moves.length));
+  }
+
+  /**
+   * Signals whether the given moves include the given move.
+   */
+  private boolean includes(int[] moves, int move) {
+    return Arrays.stream(moves).anyMatch(other -> other == move);
+  }
+
+  /**
+   * Deals a Whitehead game of Aces to Fives in which the Ace of clubs and both red Aces and
+   * Twos can go up, leaving the first two cascades empty.
+   */
+  private AbstractKlondike twoEmptyCascades() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(this.deckOf(game, "A♣", "2♢", "5♢", "5♣", "A♢", "4♢", "4♣", "3♢", "3♣",
+        "2♣"), false, 4, 1);
+    game.moveToFoundation(0, 0);
+    game.moveToFoundation(1, 1);
+    game.moveToFoundation(1, 1);
+    return game;
+  }
+
+  @Test
+  public void testOnlyFirstEmptyCascade() {
+    AbstractKlondike game = this.twoEmptyCascades();
+    int[] moves = this.legal(game);
+    int[] kept = this.kept(MovePruners.emptyCascades(), game, MovePruner.NO_MOVE);
+    assertTrue(this.includes(moves, KlondikeMoves.movePile(2, 1, 1)));
+    assertTrue(this.includes(moves, KlondikeMoves.movePile(2, 3, 0)));
+    assertTrue(this.includes(kept, KlondikeMoves.movePile(2, 1, 0)));
+    for (int move : kept) {
+      if (KlondikeMoves.kind(move) == KlondikeMoves.MOVE_PILE
+          && game.getPileHeight(KlondikeMoves.destination(move)) == 0) {
+        assertEquals(0, KlondikeMoves.destination(move));
+        assertTrue(KlondikeMoves.count(move) < game.getPileHeight(KlondikeMoves.source(move)));
+      }
+    }
+  }
+
+  @Test
+  public void testSafeFoundationIsOnlyMove() {
+    AbstractKlondike game = this.twoEmptyCascades();
+    int[] kept = this.kept(MovePruners.safeFoundation(new WhiteheadValidData()), game,
+        MovePruner.NO_MOVE);
+    assertEquals(1, kept.length);
+    assertEquals(KlondikeMoves.MOVE_TO_FOUNDATION, KlondikeMoves.kind(kept[0]));
+  }
+
+  @Test
+  public void testUnsafeFoundationKeepsOtherMoves() {
+    // Under Basic rules the black Twos can still be built on the red Three.
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(this.deckOf(game, "A♢", "2♢", "3♢", "A♣", "2♣", "3♣", "A♡", "2♡", "3♡",
+        "A♠", "2♠", "3♠"), false, 1, 1);
+    game.moveToFoundation(0, 0);
+    game.moveDrawToFoundation(0);
+    assertEquals("[3♢]", game.getDrawCards().toString());
+    int[] kept = this.kept(MovePruners.safeFoundation(new BasicValidData()), game,
+        MovePruner.NO_MOVE);
+    assertEquals(this.legal(game).length, kept.length);
+  }
+
+  @Test
+  public void testNoReversalsWithoutReveal() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(this.deckOf(game, "A♠", "2♢", "3♢", "5♠", "5♣", "4♣", "A♣", "2♣", "3♣",
+        "A♢", "4♢", "5♢", "A♡", "2♡", "3♡", "4♡", "5♡", "2♠", "3♠", "4♠"), false, 3, 1);
+    int move = KlondikeMoves.movePile(2, 1, 1);
+    game.movePile(2, 1, 1);
+    int reverse = KlondikeMoves.movePile(1, 1, 2);
+    assertTrue(this.includes(this.legal(game), reverse));
+    assertFalse(this.includes(this.kept(MovePruners.noReversals(), game, move), reverse));
+    assertTrue(this.includes(this.kept(MovePruners.noReversals(), game, MovePruner.NO_MOVE),
+        reverse));
+  }
+
+  @Test
+  public void testReversalKeptAfterReveal() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(this.deckOf(game, "A♠", "2♠", "3♠", "5♡", "5♢", "4♣", "A♣", "2♣", "3♣",
+        "5♣", "A♢", "2♢", "3♢", "4♢", "A♡", "2♡", "3♡", "4♡", "4♠", "5♠"), false, 3, 1);
+    int move = KlondikeMoves.movePile(2, 1, 1);
+    game.movePile(2, 1, 1);
+    int reverse = KlondikeMoves.movePile(1, 1, 2);
+    assertTrue(this.includes(this.legal(game), reverse));
+    assertTrue(this.includes(this.kept(MovePruners.noReversals(), game, move), reverse));
+  }
+
+  @Test
+  public void testNoStockCycles() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 5L, 7, 1);
+    assertTrue(this.includes(this.kept(MovePruners.noStockCycles(), game, MovePruner.NO_MOVE),
+        KlondikeMoves.discardDraw()));
+    while (game.getDiscardsBeforeRepeat() > 0) {
+      game.discardDraw();
+    }
+    assertTrue(this.includes(this.legal(game), KlondikeMoves.discardDraw()));
+    assertFalse(this.includes(this.kept(MovePruners.noStockCycles(), game,
+        KlondikeMoves.discardDraw()), KlondikeMoves.discardDraw()));  }
+
+  @Test
+  public void testNoStockCyclesKeysDiscardsLeft() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 5L, 7, 1);
+    MovePruner pruner = MovePruners.all(MovePruners.none(), MovePruners.noStockCycles());
+    long before = pruner.key(game);
+    long hash = game.stateHash();
+    while (game.getDiscardsBeforeRepeat() > 0) {
+      game.discardDraw();
+    }
+    // A full turn of the stock returns to the same state hash with no discards left.
+    assertEquals(hash, game.stateHash());
+    assertNotEquals(before, pruner.key(game));
+    assertEquals(0, MovePruners.none().key(game));
+  }
+
+  @Test
+  public void testProgressFirst() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(this.deckOf(game, "A♠", "2♠", "3♠", "5♡", "5♢", "4♣", "A♣", "2♣", "3♣",
+        "5♣", "A♢", "2♢", "3♢", "4♢", "A♡", "2♡", "3♡", "4♡", "4♠", "5♠"), false, 3, 1);
+    int[] moves = this.legal(game);
+    int[] ordered = this.kept(MovePruners.progressFirst(), game, MovePruner.NO_MOVE);
+    assertEquals(moves.length, ordered.length);
+    // The Aces of spades and clubs can go to any foundation, then the Four of clubs can turn
+    // over the Five of diamonds.
+    int first = 0;
+    while (KlondikeMoves.kind(ordered[first]) == KlondikeMoves.MOVE_TO_FOUNDATION
+        || KlondikeMoves.kind(ordered[first]) == KlondikeMoves.MOVE_DRAW_TO_FOUNDATION) {
+      first++;
+    }
+    assertEquals(8, first);
+    assertEquals(KlondikeMoves.movePile(2, 1, 1), ordered[first]);
+    assertEquals(KlondikeMoves.discardDraw(), ordered[ordered.length - 1]);
+  }
+
+  @Test
+  public void testStandardPruningKeepsSolverExact() {
+    for (long seed = 1; seed <= 8; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      List<BasicCard> deck = new ArrayList<>();
+      for (BasicCard card : game.createNewDeck()) {
+        if (card.getSuit() == Suit.CLUBS || card.getSuit() == Suit.DIAMONDS) {
+          deck.add(card);
+        }
+      }
+      game.startGame(deck, seed, 5, 1);
+      MovePruner pruner = MovePruners.all(MovePruners.standard(seed % 2 == 0
+          ? new BasicValidData() : new WhiteheadValidData()), MovePruners.progressFirst());
+      SolveResult plain = new Solver(2_000_000, 64L << 20).solve(game);
+      SolveResult pruned = new Solver(2_000_000, 64L << 20, pruner).solve(game);
+      SolveResult bestFirst =
+          new BestFirstSolver(Heuristics.standard(), 2_000_000, 64L << 20, pruner).solve(game);
+      assertEquals(plain.getStatus(), pruned.getStatus());
+      assertEquals(plain.getStatus(), bestFirst.getStatus());
+      assertTrue(pruned.getNodes() <= plain.getNodes());
+      for (SolveResult result : new SolveResult[] {pruned, bestFirst}) {
+        AbstractKlondike copy = game.fork();
+        for (int move : result.getMoves()) {
+          KlondikeMoves.apply(copy, move);
+        }
+        assertEquals(result.getMoves().length == 0 ? game.getScore() : deck.size(),
+            copy.getScore());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullRules() {
+    MovePruners.standard(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPruner() {
+    new Solver(100, 64L << 20, null);
+  }
+}
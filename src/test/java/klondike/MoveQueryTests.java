@@ -0,0 +1,172 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests that the move queries of the list-based KlondikeModels agree with the moves themselves.
+ */
+public class MoveQueryTests {
+
+  /**
+   * Tries random moves, checking before each that the matching query predicts whether it
+   * will succeed.
+   */
+  private void checkQueries(AbstractKlondike game, Random random) {
+    int piles = game.getNumPiles();
+    for (int turn = 0; turn < 500; turn++) {
+      int first = random.nextInt(piles + 2) - 1;
+      int second = random.nextInt(piles + 2) - 1;
+      int count = random.nextInt(4);
+      int kind = random.nextInt(5);
+      boolean expected;
+      switch (kind) {
+        case 0:
+          expected = game.canMovePile(first, count, second);
+          break;
+        case 1:
+          expected = game.canMoveDraw(first);
+          break;
+        case 2:
+          expected = game.canMoveToFoundation(first, second % 5);
+          break;
+        case 3:
+          expected = game.canMoveDrawToFoundation(second % 5);
+          break;
+        default:
+          expected = game.getStockCount() > 0;
+          break;
+      }
+
+      boolean moved = true;
+      try {
+        switch (kind) {
+          case 0:
+            game.movePile(first, count, second);
+            break;
+          case 1:
+            game.moveDraw(first);
+            break;
+          case 2:
+            game.moveToFoundation(first, second % 5);
+            break;
+          case 3:
+            game.moveDrawToFoundation(second % 5);
+            break;
+          default:
+            game.discardDraw();
+            break;
+        }
+      } catch (IllegalArgumentException | IllegalStateException ex) {
+        moved = false;
+      }
+      assertEquals(expected, moved);
+    }
+  }
+
+  @Test
+  public void testBasicQueriesMatchMoves() {
+    Random random = new Random(5);
+    for (int game = 0; game < 30; game++) {
+      AbstractKlondike model = new BasicKlondike();
+      List<BasicCard> deck = model.createNewDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 7, 1 + random.nextInt(3));
+      this.checkQueries(model, random);
+    }
+  }
+
+  @Test
+  public void testWhiteheadQueriesMatchMoves() {
+    Random random = new Random(6);
+    for (int game = 0; game < 30; game++) {
+      AbstractKlondike model = new WhiteheadKlondike();
+      List<BasicCard> deck = model.createNewDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 7, 1 + random.nextInt(3));
+      this.checkQueries(model, random);
+    }
+  }
+
+  @Test
+  public void testQueries() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    assertTrue(game.canMoveToFoundation(0, 0));
+    assertFalse(game.canMoveToFoundation(1, 0));
+    assertFalse(game.canMovePile(6, 2, 0));
+    assertFalse(game.canMoveDraw(7));
+    assertFalse(game.canMoveDrawToFoundation(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testQueryBeforeStart() {
+    new WhiteheadKlondike().canMoveDraw(0);
+  }
+
+  /**
+   * Decides whether a game is over from scratch: no draw cards are left, and every legal move
+   * puts cards into an empty cascade pile.
+   */
+  private boolean isOverFromScratch(AbstractKlondike game, int[] moves) {
+    if (!game.getDrawCards().isEmpty()) {
+      return false;
+    }
+    int count = MoveGenerator.legalMoves(game, moves);
+    for (int index = 0; index < count; index++) {
+      int move = moves[index];
+      if (KlondikeMoves.kind(move) != KlondikeMoves.MOVE_PILE
+          || game.getPileHeight(KlondikeMoves.destination(move)) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Test
+  public void testGameOverTracksMoves() {
+    Random random = new Random(8);
+    int[] moves = new int[1024];
+    int gamesOver = 0;
+    for (int game = 0; game < 60; game++) {
+      AbstractKlondike model = game % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      List<BasicCard> deck = model.createNewDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 4 + random.nextInt(6), 1);
+
+      for (int turn = 0; turn < 300; turn++) {
+        boolean over = model.isGameOver();
+        assertEquals(this.isOverFromScratch(model, moves), over);
+        if (over) {
+          gamesOver++;
+          break;
+        }
+        int choice = random.nextInt(10);
+        if (choice == 0 && model.canUndo()) {
+          model.undo();
+        } else if (choice == 1) {
+          model = model.fork();
+        } else {
+          int count = MoveGenerator.legalMoves(model, moves);
+          if (count == 0) {
+            break;
+          }
+          KlondikeMoves.apply(model, moves[random.nextInt(count)]);
+        }
+      }
+    }
+    assertTrue(gamesOver > 0);
+  }
+}
@@ -0,0 +1,107 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for playing the list-based KlondikeModels with several decks, and for finding
+ * foundation piles automatically.
+ */
+public class MultiDeckTests {
+
+  /**
+   * Signals whether any foundation pile can take the top card of the given pile, by trying
+   * each one.
+   */
+  private boolean anyFoundationFits(AbstractKlondike game, int pile) {
+    for (int foundation = 0; foundation < game.getNumFoundations(); foundation++) {
+      if (game.canMoveToFoundation(pile, foundation)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Test
+  public void testMultiDeck() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    List<BasicCard> deck = game.createNewDeck(4);
+    assertEquals(208, deck.size());
+    game.startGame(deck, true, 19, 3);
+    assertEquals(16, game.getNumFoundations());
+    assertEquals(208 - 19 * 20 / 2, game.getStockCount() + game.getDrawCards().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoDecks() {
+    new BasicKlondike().createNewDeck(0);
+  }
+
+  @Test
+  public void testAutoFoundationFindsFit() {
+    Random random = new Random(13);
+    int[] moves = new int[4096];
+    int autoMoves = 0;
+    for (int game = 0; game < 20; game++) {
+      AbstractKlondike model = game % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      List<BasicCard> deck = model.createNewDeck(1 + game % 3);
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 9, 1);
+
+      for (int turn = 0; turn < 300 && !model.isGameOver(); turn++) {
+        for (int pile = 0; pile < model.getNumPiles(); pile++) {
+          boolean fits = this.anyFoundationFits(model, pile);
+          try {
+            int foundation = model.autoFoundation(pile);
+            assertTrue(fits);
+            model.undo();
+            assertTrue(model.canMoveToFoundation(pile, foundation));
+            autoMoves++;
+          } catch (IllegalStateException ex) {
+            assertFalse(fits);
+          }
+        }
+        int count = MoveGenerator.legalMoves(model, moves);
+        if (count == 0) {
+          break;
+        }
+        KlondikeMoves.apply(model, moves[random.nextInt(count)]);
+      }
+    }
+    assertTrue(autoMoves > 0);
+  }
+
+  @Test
+  public void testAutoFoundationDraw() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 1);
+    game.autoFoundation(0);
+    game.autoFoundation(2);
+    for (int discard = 0; discard < 11; discard++) {
+      game.discardDraw();
+    }
+    assertEquals("A♠", game.getDrawCards().get(0).toString());
+    int foundation = game.autoFoundationDraw();
+    assertEquals("A♠", game.getCardAt(foundation).toString());
+    assertEquals(3, game.getScore());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAutoFoundationNoFit() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 1);
+    game.autoFoundation(1);
+  }
+}
@@ -0,0 +1,210 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.KlondikeModel;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.model.packed.BasicPackedKlondike;
+import klondike.model.packed.WhiteheadPackedKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for the packed KlondikeModels, mostly by playing them side by side with the list-based
+ * models they mirror.
+ */
+public class PackedKlondikeModelTests {
+
+  /**
+   * Builds a deck containing only the named cards, in the order of a new deck.
+   */
+  private List<BasicCard> deckOf(KlondikeModel<BasicCard> model, String... names) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : model.createNewDeck()) {
+      if (Arrays.asList(names).contains(card.toString())) {
+        deck.add(card);
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Checks that everything a player can see about two games is the same.
+   */
+  private void assertSameState(KlondikeModel<BasicCard> expected,
+                               KlondikeModel<BasicCard> actual) {
+    assertEquals(expected.getNumPiles(), actual.getNumPiles());
+    assertEquals(expected.getNumRows(), actual.getNumRows());
+    assertEquals(expected.getScore(), actual.getScore());
+    assertEquals(expected.getDrawCards(), actual.getDrawCards());
+    assertEquals(expected.isGameOver(), actual.isGameOver());
+    for (int foundation = 0; foundation < expected.getNumFoundations(); foundation++) {
+      assertEquals(expected.getCardAt(foundation), actual.getCardAt(foundation));
+    }
+    for (int pile = 0; pile < expected.getNumPiles(); pile++) {
+      assertEquals(expected.getPileHeight(pile), actual.getPileHeight(pile));
+      for (int card = 0; card < expected.getPileHeight(pile); card++) {
+        assertEquals(expected.isCardVisible(pile, card), actual.isCardVisible(pile, card));
+        if (expected.isCardVisible(pile, card)) {
+          assertEquals(expected.getCardAt(pile, card), actual.getCardAt(pile, card));
+        }
+      }
+    }
+  }
+
+  /**
+   * Attempts one random move on the packed game, and repeats it on the list-based game only
+   * when the packed game accepted it.
+   */
+  private void playRandomMove(Random random, KlondikeModel<BasicCard> expected,
+                              KlondikeModel<BasicCard> actual) {
+    int piles = actual.getNumPiles();
+    int move = random.nextInt(5);
+    int first = random.nextInt(piles);
+    int second = random.nextInt(Math.max(piles, actual.getNumFoundations()));
+    int count = 1 + random.nextInt(3);
+    try {
+      switch (move) {
+        case 0:
+          actual.movePile(first, count, second % piles);
+          expected.movePile(first, count, second % piles);
+          break;
+        case 1:
+          actual.moveDraw(first);
+          expected.moveDraw(first);
+          break;
+        case 2:
+          actual.moveToFoundation(first, second % actual.getNumFoundations());
+          expected.moveToFoundation(first, second % actual.getNumFoundations());
+          break;
+        case 3:
+          actual.moveDrawToFoundation(second % actual.getNumFoundations());
+          expected.moveDrawToFoundation(second % actual.getNumFoundations());
+          break;
+        default:
+          actual.discardDraw();
+          expected.discardDraw();
+          break;
+      }
+    } catch (IllegalArgumentException | IllegalStateException ex) {
+      // the packed game rejected the move, so the list-based game is not asked to make it
+    }
+  }
+
+  @Test
+  public void testPlaysLikeBasicKlondike() {
+    Random random = new Random(3100);
+    for (int game = 0; game < 40; game++) {
+      KlondikeModel<BasicCard> expected = new BasicKlondike();
+      KlondikeModel<BasicCard> actual = new BasicPackedKlondike();
+      List<BasicCard> deck = expected.createNewDeck();
+      Collections.shuffle(deck, random);
+      expected.startGame(deck, false, 7, 1 + random.nextInt(3));
+      actual.startGame(deck, false, 7, expected.getNumDraw());
+
+      for (int turn = 0; turn < 400; turn++) {
+        this.playRandomMove(random, expected, actual);
+        this.assertSameState(expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testPlaysLikeWhiteheadKlondike() {
+    Random random = new Random(3500);
+    for (int game = 0; game < 40; game++) {
+      KlondikeModel<BasicCard> expected = new WhiteheadKlondike();
+      KlondikeModel<BasicCard> actual = new WhiteheadPackedKlondike();
+      List<BasicCard> deck = expected.createNewDeck();
+      Collections.shuffle(deck, random);
+      expected.startGame(deck, false, 6, 1 + random.nextInt(3));
+      actual.startGame(deck, false, 6, expected.getNumDraw());
+
+      for (int turn = 0; turn < 400; turn++) {
+        this.playRandomMove(random, expected, actual);
+        this.assertSameState(expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testStartingLayout() {
+    KlondikeModel<BasicCard> basic = new BasicPackedKlondike();
+    basic.startGame(basic.createNewDeck(), false, 7, 3);
+    KlondikeModel<BasicCard> expected = new BasicKlondike();
+    expected.startGame(expected.createNewDeck(), false, 7, 3);
+    this.assertSameState(expected, basic);
+    assertFalse(basic.isCardVisible(6, 5));
+    assertTrue(basic.isCardVisible(6, 6));
+    assertNull(basic.getCardAt(0));
+
+    KlondikeModel<BasicCard> whitehead = new WhiteheadPackedKlondike();
+    whitehead.startGame(whitehead.createNewDeck(), false, 7, 3);
+    assertTrue(whitehead.isCardVisible(6, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCannotDealFullCascade() {
+    KlondikeModel<BasicCard> game = new BasicPackedKlondike();
+    game.startGame(this.deckOf(game, "A♡", "2♡", "3♡"), false, 3, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFaceDownCardsCannotMove() {
+    KlondikeModel<BasicCard> game = new BasicPackedKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    game.movePile(6, 2, 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testStartedTwice() {
+    KlondikeModel<BasicCard> game = new WhiteheadPackedKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    game.startGame(game.createNewDeck(), false, 7, 3);
+  }
+
+  @Test
+  public void testWhiteheadAnyCardToEmptyCascade() {
+    KlondikeModel<BasicCard> game = new WhiteheadPackedKlondike();
+    game.startGame(this.deckOf(game, "A♢", "2♢", "3♢", "A♣", "2♣", "3♣", "A♡", "2♡", "3♡"),
+        false, 3, 3);
+    game.moveToFoundation(0, 0);
+    game.movePile(1, 1, 0);
+    assertEquals("A♣", game.getCardAt(0, 0).toString());
+    assertEquals("2♢", game.getCardAt(1, 0).toString());
+  }
+
+  @Test
+  public void testWhiteheadTallestBuild() {
+    KlondikeModel<BasicCard> game = new WhiteheadPackedKlondike();
+    List<BasicCard> deck = this.deckOf(game, "A♡", "2♡", "3♡", "4♡", "5♡", "6♡", "7♡", "8♡",
+        "9♡", "10♡", "J♡", "Q♡", "K♡");
+    Collections.reverse(deck);
+    game.startGame(deck, false, 1, 1);
+    // The King is dealt, and every other heart builds down on it from the stock.
+    for (int card = 1; card < deck.size(); card++) {
+      game.moveDraw(0);
+    }
+    assertEquals(deck.size(), game.getPileHeight(0));
+    assertEquals("A♡", game.getCardAt(0, deck.size() - 1).toString());
+  }
+
+  @Test
+  public void testGameOver() {
+    KlondikeModel<BasicCard> game = new BasicPackedKlondike();
+    game.startGame(this.deckOf(game, "A♡"), false, 1, 1);
+    assertFalse(game.isGameOver());
+    game.moveToFoundation(0, 0);
+    assertTrue(game.isGameOver());
+    assertEquals(1, game.getScore());
+  }
+}
@@ -0,0 +1,171 @@
+package klondike;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.BasicValidData;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.model.hw04.WhiteheadValidData;
+import klondike.solver.ConcurrentTranspositionTable;
+import klondike.solver.MovePruner;
+import klondike.solver.MovePruners;
+import klondike.solver.ParallelSolver;
+import klondike.solver.SolveResult;
+import klondike.solver.SolveStatus;
+import klondike.solver.Solver;
+import klondike.solver.TranspositionTable;
+import org.junit.Test;
+
+/**
+ * Tests for the ParallelSolver and its ConcurrentTranspositionTable.
+ */
+public class ParallelSolverTests {
+  private final ParallelSolver solver = new ParallelSolver(4, 2_000_000, 64L << 20);
+
+  /**
+   * Deals a game of just the clubs and diamonds from the given seed.
+   */
+  private AbstractKlondike dealt(AbstractKlondike model, long seed, int numPiles) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : model.createNewDeck()) {
+      if (card.getSuit() == Suit.CLUBS || card.getSuit() == Suit.DIAMONDS) {
+        deck.add(card);
+      }
+    }
+    model.startGame(deck, seed, numPiles, 1);
+    return model;
+  }
+
+  /**
+   * Plays the given moves in a fork of the given game and checks that they win it.
+   */
+  private void assertWins(AbstractKlondike game, int[] moves) {
+    AbstractKlondike copy = game.fork();
+    for (int move : moves) {
+      KlondikeMoves.apply(copy, move);
+    }
+    assertEquals(26, copy.getScore());
+  }
+
+  @Test
+  public void testAgreesWithSolver() {
+    Solver single = new Solver(2_000_000, 64L << 20);
+    for (long seed = 0; seed < 6; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      this.dealt(game, seed, 5);
+      long hash = game.stateHash();
+      SolveResult result = this.solver.solve(game);
+      assertEquals(hash, game.stateHash());
+      assertEquals(single.solve(game).getStatus(), result.getStatus());
+      if (result.getStatus() == SolveStatus.SOLVED) {
+        this.assertWins(game, result.getMoves());
+      } else {
+        assertEquals(SolveStatus.UNSOLVABLE, result.getStatus());
+      }
+    }
+  }
+
+  @Test
+  public void testSplitSearchIsDeterministic() {
+    for (long seed = 0; seed < 6; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      this.dealt(game, seed, 5);
+      SolveResult expected = new ParallelSolver(1, 2_000_000, 64L << 20).solve(game);
+      for (int parallelism : new int[] {2, 4, 4, 8}) {
+        SolveResult result = new ParallelSolver(parallelism, 2_000_000, 64L << 20).solve(game);
+        assertEquals(expected.getStatus(), result.getStatus());
+        assertArrayEquals(expected.getMoves(), result.getMoves());
+        assertEquals(expected.getNodes(), result.getNodes());
+      }
+    }
+  }
+
+  @Test
+  public void testPrunedSplitSearch() {
+    Solver single = new Solver(2_000_000, 64L << 20);
+    for (long seed = 0; seed < 6; seed++) {
+      AbstractKlondike game = seed % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      this.dealt(game, seed, 5);
+      MovePruner pruner = MovePruners.standard(seed % 2 == 0
+          ? new BasicValidData() : new WhiteheadValidData());
+      SolveResult result = new ParallelSolver(4, 2_000_000, 64L << 20, pruner).solve(game);
+      assertEquals(single.solve(game).getStatus(), result.getStatus());
+      if (result.getStatus() == SolveStatus.SOLVED) {
+        this.assertWins(game, result.getMoves());
+      }
+    }
+  }
+
+  @Test
+  public void testBatchInOrder() {
+    List<AbstractKlondike> games = new ArrayList<>();
+    for (long seed = 0; seed < 12; seed++) {
+      games.add(this.dealt(new BasicKlondike(), seed, 4));
+    }
+    List<SolveResult> results = this.solver.solveAll(games);
+    Solver single = new Solver(2_000_000, 64L << 20);
+    assertEquals(games.size(), results.size());
+    for (int index = 0; index < games.size(); index++) {
+      SolveResult expected = single.solve(games.get(index));
+      assertEquals(expected.getStatus(), results.get(index).getStatus());
+      assertArrayEquals(expected.getMoves(), results.get(index).getMoves());
+      assertEquals(expected.getNodes(), results.get(index).getNodes());
+    }
+  }
+
+  @Test
+  public void testSharedNodeBudget() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), 12L, 7, 3);
+    SolveResult result = new ParallelSolver(4, 5000, TranspositionTable.MIN_BYTES << 8)
+        .solve(game);
+    assertTrue(result.getNodes() <= 5000);
+    assertTrue(result.getStatus() == SolveStatus.NODE_LIMIT
+        || result.getStatus() == SolveStatus.SOLVED);
+  }
+
+  @Test
+  public void testConcurrentTableAddsOnce() {
+    ConcurrentTranspositionTable table = new ConcurrentTranspositionTable(1L << 20);
+    AtomicInteger added = new AtomicInteger();
+    IntStream.range(0, 8).parallel().forEach(thread -> {
+      for (long hash = 0; hash < 20_000; hash++) {
+        if (table.add(hash * 0x9E3779B97F4A7C15L)) {
+          added.incrementAndGet();
+        }
+      }
+    });
+    assertEquals(20_000, added.get());
+    assertEquals(20_000, table.size());
+    assertTrue(table.contains(0));
+    assertTrue(table.contains(7 * 0x9E3779B97F4A7C15L));
+    assertFalse(table.contains(7));
+    assertFalse(table.isFull());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidParallelism() {
+    new ParallelSolver(0, 100, 64L << 20);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPruner() {
+    new ParallelSolver(4, 100, 64L << 20, null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSolveUnstartedGame() {
+    this.solver.solve(new BasicKlondike());
+  }
+}
@@ -1,6 +1,9 @@
 package klondike;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import klondike.model.hw02.BasicCard;
@@ -59,4 +62,95 @@ public class PileTests {
   public void testIsCardVisible() {
     assertEquals(true, smallExample.isCardVisible(0));
   }
+
+  @Test
+  public void testFaceDownCardsStayAtBottom() {
+    BasicPile pile = new BasicPile();
+    pile.buildPile(new BasicCard(Rank.KING, Suit.CLUBS));
+    pile.buildPile(new BasicCard(Rank.FIVE, Suit.HEARTS));
+    pile.buildPile(new BasicCard(Rank.TWO, Suit.SPADES));
+    assertEquals(0, pile.countVisibleCards());
+
+    pile.revealLast();
+    pile.addCard(new BasicCard(Rank.ACE, Suit.HEARTS));
+    assertEquals(2, pile.countVisibleCards());
+    assertFalse(pile.isCardVisible(1));
+    assertTrue(pile.isCardVisible(2));
+
+    pile.removeIndex(0);
+    assertEquals(2, pile.countVisibleCards());
+    assertTrue(pile.isCardVisible(1));
+    assertFalse(pile.isCardVisible(0));
+  }
+
+  @Test
+  public void testRevealIndexRevealsCardsAbove() {
+    BasicPile pile = new BasicPile();
+    pile.buildPile(new BasicCard(Rank.KING, Suit.CLUBS));
+    pile.buildPile(new BasicCard(Rank.FIVE, Suit.HEARTS));
+    pile.buildPile(new BasicCard(Rank.TWO, Suit.SPADES));
+    pile.revealIndex(1);
+    assertFalse(pile.isCardVisible(0));
+    assertTrue(pile.isCardVisible(1));
+    assertEquals(2, pile.countVisibleCards());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCannotBuryFaceUpCard() {
+    smallExample.buildPile(new BasicCard(Rank.KING, Suit.CLUBS));
+  }
+
+  @Test
+  public void testReadOnlyViews() {
+    assertEquals("3♡", smallExample.getTopCard().toString());
+    assertEquals("2♢", smallExample.getCard(1).toString());
+    assertFalse(smallExample.isEmpty());
+    assertNull(new BasicPile().getTopCard());
+    assertTrue(new BasicPile().isEmpty());
+  }
+
+  @Test
+  public void testViewVisibleCards() {
+    BasicPile pile = new BasicPile();
+    pile.buildPile(new BasicCard(Rank.KING, Suit.CLUBS));
+    pile.buildPile(new BasicCard(Rank.FIVE, Suit.HEARTS));
+    pile.revealLast();
+    pile.addCard(new BasicCard(Rank.FOUR, Suit.SPADES));
+    assertEquals(1, pile.getFirstVisibleIndex());
+    assertEquals("[5♡, 4♠]", pile.viewVisibleCards().toString());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testVisibleViewIsReadOnly() {
+    smallExample.viewVisibleCards().clear();
+  }
+
+  @Test
+  public void testMoveTail() {
+    BasicPile pile = new BasicPile();
+    pile.buildPile(new BasicCard(Rank.KING, Suit.CLUBS));
+    pile.revealLast();
+    pile.addCard(new BasicCard(Rank.QUEEN, Suit.HEARTS));
+    smallExample.moveTail(2, pile);
+    assertEquals("[K♣, Q♡, 2♢, 3♡]", pile.getList().toString());
+    assertEquals("[A♡]", smallExample.getList().toString());
+    assertEquals(4, pile.countVisibleCards());
+
+    BasicPile dest = new BasicPile();
+    pile.moveTail(3, dest);
+    assertEquals(1, pile.getPileSize());
+    assertEquals("3♡", dest.getTopCard().toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveTailOfHiddenCards() {
+    BasicPile pile = new BasicPile();
+    pile.buildPile(new BasicCard(Rank.KING, Suit.CLUBS));
+    pile.moveTail(1, smallExample);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveTailOntoItself() {
+    smallExample.moveTail(1, smallExample);
+  }
 }
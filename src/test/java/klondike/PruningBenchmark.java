@@ -0,0 +1,139 @@
+package klondike;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.BasicValidData;
+import klondike.model.hw02.Suit;
+import klondike.model.hw02.ValidData;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.model.hw04.WhiteheadValidData;
+import klondike.solver.BestFirstSolver;
+import klondike.solver.Heuristics;
+import klondike.solver.MovePruner;
+import klondike.solver.MovePruners;
+import klondike.solver.SolveResult;
+import klondike.solver.SolveStatus;
+import klondike.solver.Solver;
+
+/**
+ * Compares the built-in move pruners by how many positions the solvers visit on fixed corpora
+ * of seeded deals. Deals of just the clubs and diamonds are small enough that the depth-first
+ * solver decides every one exactly, so there each pruner is measured alone, by the positions
+ * it needs to decide them all. Full Basic deals are then solved within a node budget with and
+ * without the standard pruning. Run it with {@code gradle pruningBenchmark}.
+ */
+public final class PruningBenchmark {
+  private static final int DEALS = 40;
+  private static final int FULL_DEALS = 20;
+  private static final long MAX_NODES = 5_000_000;
+  private static final long FULL_MAX_NODES = 200_000;
+  private static final long MAX_TABLE_BYTES = 64L << 20;
+
+  private PruningBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints a table of the results.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    for (boolean whitehead : new boolean[] {false, true}) {
+      ValidData<BasicCard> rules = whitehead ? new WhiteheadValidData() : new BasicValidData();
+      Map<String, MovePruner> pruners = new LinkedHashMap<>();
+      pruners.put("none", MovePruners.none());
+      pruners.put("safeFoundation", MovePruners.safeFoundation(rules));
+      pruners.put("noReversals", MovePruners.noReversals());
+      pruners.put("emptyCascades", MovePruners.emptyCascades());
+      pruners.put("noStockCycles", MovePruners.noStockCycles());
+      pruners.put("standard", MovePruners.standard(rules));
+      pruners.put("standard+progressFirst",
+          MovePruners.all(MovePruners.standard(rules), MovePruners.progressFirst()));
+
+      List<AbstractKlondike> corpus = new ArrayList<>();
+      for (long seed = 1; seed <= DEALS; seed++) {
+        AbstractKlondike game = whitehead ? new WhiteheadKlondike() : new BasicKlondike();
+        List<BasicCard> deck = new ArrayList<>();
+        for (BasicCard card : game.createNewDeck()) {
+          if (card.getSuit() == Suit.CLUBS || card.getSuit() == Suit.DIAMONDS) {
+            deck.add(card);
+          }
+        }
+        game.startGame(deck, seed, 5, whitehead ? 3 : 1);
+        corpus.add(game);
+      }
+
+      System.out.printf("%s, clubs and diamonds in 5 piles, %d deals, depth-first%n",
+          whitehead ? "Whitehead draw 3" : "Basic draw 1", DEALS);
+      header();
+      long baseline = 0;
+      for (Map.Entry<String, MovePruner> entry : pruners.entrySet()) {
+        long nodes = report(entry.getKey(),
+            new Solver(MAX_NODES, MAX_TABLE_BYTES, entry.getValue())::solve, corpus, baseline);
+        baseline = baseline == 0 ? nodes : baseline;
+      }
+      System.out.println();
+    }
+
+    List<AbstractKlondike> corpus = new ArrayList<>();
+    for (long seed = 1; seed <= FULL_DEALS; seed++) {
+      AbstractKlondike game = new BasicKlondike();
+      game.startGame(game.createNewDeck(), seed, 7, 1);
+      corpus.add(game);
+    }
+    MovePruner standard = MovePruners.standard(new BasicValidData());
+    System.out.printf("Basic draw 1, %d deals, %d node budget%n", FULL_DEALS, FULL_MAX_NODES);
+    header();
+    long depthFirst = report("depth-first none",
+        new Solver(FULL_MAX_NODES, MAX_TABLE_BYTES)::solve, corpus, 0);
+    report("depth-first standard",
+        new Solver(FULL_MAX_NODES, MAX_TABLE_BYTES, standard)::solve, corpus, depthFirst);
+    report("depth-first standard+order", new Solver(FULL_MAX_NODES, MAX_TABLE_BYTES,
+        MovePruners.all(standard, MovePruners.progressFirst()))::solve, corpus, depthFirst);
+    long bestFirst = report("best-first none", new BestFirstSolver(Heuristics.standard(),
+        FULL_MAX_NODES, MAX_TABLE_BYTES)::solve, corpus, 0);
+    report("best-first standard", new BestFirstSolver(Heuristics.standard(), FULL_MAX_NODES,
+        MAX_TABLE_BYTES, standard)::solve, corpus, bestFirst);
+  }
+
+  /**
+   * Prints the header of a table of results.
+   */
+  private static void header() {
+    System.out.printf("%-28s %7s %7s %12s %10s %10s%n", "pruner", "solved", "proven",
+        "mean nodes", "vs none", "mean ms");
+  }
+
+  /**
+   * Solves the corpus with the given solver, prints a row of the results against the given
+   * baseline node count, and returns the total number of positions visited.
+   */
+  private static long report(String name, Function<AbstractKlondike, SolveResult> solver,
+      List<AbstractKlondike> corpus, long baseline) {
+    int solved = 0;
+    int proven = 0;
+    long nodes = 0;
+    long nanos = 0;
+    for (AbstractKlondike game : corpus) {
+      SolveResult result = solver.apply(game);
+      nodes += result.getNodes();
+      nanos += result.getElapsedNanos();
+      if (result.getStatus() == SolveStatus.SOLVED) {
+        solved++;
+      } else if (result.getStatus() == SolveStatus.UNSOLVABLE) {
+        proven++;
+      }
+    }
+    System.out.printf("%-28s %7d %7d %12d %10s %10.1f%n", name, solved, proven,
+        nodes / corpus.size(),
+        baseline == 0 ? "" : String.format("%.1f%%", 100.0 * nodes / baseline),
+        nanos / 1e6 / corpus.size());
+    return nodes;
+  }
+}
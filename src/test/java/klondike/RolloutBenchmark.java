@@ -0,0 +1,74 @@
+package klondike;
+
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.solver.RolloutEvaluator;
+import klondike.solver.RolloutPolicies;
+import klondike.solver.RolloutPolicy;
+import klondike.solver.RolloutResult;
+
+/**
+ * Measures the throughput of the RolloutEvaluator on a fixed corpus of seeded Basic deals,
+ * in playouts per second per core, for each built-in policy. The target is 5,000 playouts per
+ * second per core with the greedy policy. Every playout is played in its own sampled deal.
+ * Run it with {@code gradle rolloutBenchmark}.
+ */
+public final class RolloutBenchmark {
+  private static final int DEALS = 10;
+  private static final long PLAYOUTS = 5_000;
+  private static final int MAX_PLAYOUT_MOVES = 300;
+  private static final double TARGET_PER_CORE = 5_000;
+  private static final List<BasicCard> DECK = new BasicKlondike().createNewDeck();
+
+  private RolloutBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints a table of the results.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    int cores = Runtime.getRuntime().availableProcessors();
+    System.out.printf("Basic draw 3, %d deals, %d playouts each, %d cores%n", DEALS, PLAYOUTS,
+        cores);
+    System.out.printf("%-8s %12s %14s %10s %8s%n", "policy", "playouts/s", "per core/s",
+        "win rate", "target");
+    String[] names = {"random", "greedy"};
+    RolloutPolicy[] policies = {RolloutPolicies.random(), RolloutPolicies.greedy()};
+
+    for (int policy = 0; policy < policies.length; policy++) {
+      RolloutEvaluator evaluator =
+          new RolloutEvaluator(policies[policy], MAX_PLAYOUT_MOVES, cores * 4);
+      // One untimed deal lets the JIT compile the playout loop first.
+      evaluator.evaluate(deal(0), DECK, PLAYOUTS, 0);
+
+      long playouts = 0;
+      long wins = 0;
+      long nanos = 0;
+      for (long seed = 1; seed <= DEALS; seed++) {
+        RolloutResult result = evaluator.evaluate(deal(seed), DECK, PLAYOUTS, seed);
+        playouts += result.getTotalPlayouts();
+        nanos += result.getElapsedNanos();
+        for (int index = 0; index < result.getMoves().length; index++) {
+          wins += result.getWins(index);
+        }
+      }
+      double perSecond = playouts / (nanos / 1e9);
+      System.out.printf("%-8s %12.0f %14.0f %9.2f%% %8s%n", names[policy], perSecond,
+          perSecond / cores, 100.0 * wins / playouts,
+          perSecond / cores >= TARGET_PER_CORE ? "met" : "missed");
+    }
+  }
+
+  /**
+   * Deals the Basic game of the corpus with the given seed.
+   */
+  private static AbstractKlondike deal(long seed) {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), seed, 7, 3);
+    return game;
+  }
+}
@@ -0,0 +1,153 @@
+package klondike;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.solver.Determinizer;
+import klondike.solver.RolloutEvaluator;
+import klondike.solver.RolloutPolicies;
+import klondike.solver.RolloutResult;
+import org.junit.Test;
+
+/**
+ * Tests for the RolloutEvaluator and the built-in RolloutPolicies.
+ */
+public class RolloutEvaluatorTests {
+  private final RolloutEvaluator evaluator =
+      new RolloutEvaluator(RolloutPolicies.greedy(), 300, 4);
+
+  @Test
+  public void testEveryMoveGetsPlayouts() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 7L, 7, 3);
+    long hash = game.stateHash();
+    RolloutResult result = this.evaluator.evaluate(game, game.createNewDeck(), 1000, 1L);
+    assertEquals(hash, game.stateHash());
+
+    int[] moves = new int[MoveGenerator.maxMoves(game)];
+    int count = MoveGenerator.legalMoves(game, moves);
+    assertEquals(count, result.getMoves().length);
+    assertEquals(1000, result.getTotalPlayouts());
+    for (int index = 0; index < count; index++) {
+      assertEquals(moves[index], result.getMoves()[index]);
+      assertTrue(Math.abs(result.getPlayouts(index) - 1000 / count) <= 1);
+      assertTrue(result.getWins(index) <= result.getPlayouts(index));
+    }
+  }
+
+  @Test
+  public void testSameSeedSameResult() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 11L, 7, 1);
+    RolloutResult first = this.evaluator.evaluate(game, game.createNewDeck(), 2000, 5L);
+    RolloutResult second = new RolloutEvaluator(RolloutPolicies.greedy(), 300, 4)
+        .evaluate(game, game.createNewDeck(), 2000, 5L);
+    assertSameResult(first, second);
+  }
+
+  @Test
+  public void testHiddenCardsDoNotMatter() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 13L, 7, 3);
+    AbstractKlondike other = new Determinizer(game, game.createNewDeck())
+        .sample(new SplittableRandom(2L));
+    assertTrue(game.stateHash() != other.stateHash());
+    assertSameResult(this.evaluator.evaluate(game, game.createNewDeck(), 1000, 9L),
+        this.evaluator.evaluate(other, game.createNewDeck(), 1000, 9L));
+  }
+
+  @Test
+  public void testFullInformation() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 7L, 7, 3);
+    long hash = game.stateHash();
+    RolloutResult first = this.evaluator.evaluateFullInformation(game, 1000, 1L);
+    assertEquals(hash, game.stateHash());
+    assertEquals(1000, first.getTotalPlayouts());
+    assertSameResult(first, this.evaluator.evaluateFullInformation(game, 1000, 1L));
+  }
+
+  @Test
+  public void testWinningMoveAlwaysWins() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : game.createNewDeck()) {
+      if (card.getSuit() == Suit.DIAMONDS && card.getRank().getValue() <= 2) {
+        deck.add(card);
+      }
+    }
+    game.startGame(deck, false, 1, 1);
+    game.moveToFoundation(0, 0);
+    RolloutResult result = new RolloutEvaluator(RolloutPolicies.random(), 10, 2)
+        .evaluate(game, deck, 50, 3L);
+    assertEquals(KlondikeMoves.moveDrawToFoundation(0), result.getBestMove());
+    assertEquals(1.0, result.getWinRate(0), 0.0);
+  }
+
+  @Test
+  public void testNoMoves() {
+    AbstractKlondike game = new BasicKlondike();
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : game.createNewDeck()) {
+      if (card.getSuit() == Suit.DIAMONDS && card.getRank().getValue() <= 2) {
+        deck.add(card);
+      }
+    }
+    game.startGame(deck, false, 1, 1);
+    game.moveToFoundation(0, 0);
+    game.moveDrawToFoundation(0);
+    RolloutResult result = this.evaluator.evaluate(game, deck, 100, 0L);
+    assertEquals(0, result.getMoves().length);
+    assertEquals(RolloutResult.NO_MOVE, result.getBestMove());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPolicy() {
+    new RolloutEvaluator(null, 300, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePlayouts() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 7L, 7, 3);
+    this.evaluator.evaluate(game, game.createNewDeck(), -1, 0L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDeck() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 7L, 7, 3);
+    this.evaluator.evaluate(game, null, 100, 0L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongDeck() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 7L, 7, 3);
+    List<BasicCard> deck = game.createNewDeck();
+    deck.remove(0);
+    this.evaluator.evaluate(game, deck, 0, 0L);
+  }
+
+  /**
+   * Checks that the given results have the same moves, playouts and wins.
+   */
+  private static void assertSameResult(RolloutResult expected, RolloutResult actual) {
+    assertArrayEquals(expected.getMoves(), actual.getMoves());
+    for (int index = 0; index < expected.getMoves().length; index++) {
+      assertEquals(expected.getPlayouts(index), actual.getPlayouts(index));
+      assertEquals(expected.getWins(index), actual.getWins(index));
+    }
+    assertEquals(expected.getBestMove(), actual.getBestMove());
+  }
+}
@@ -0,0 +1,155 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.MoveGenerator;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for the score, row count and foundation heights the list-based KlondikeModels keep up
+ * to date as moves are made.
+ */
+public class ScoreTests {
+
+  /**
+   * Builds a deck of the given cards, in the given order.
+   */
+  private List<BasicCard> deckOf(AbstractKlondike model, String... names) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (String name : names) {
+      for (BasicCard card : model.createNewDeck()) {
+        if (card.toString().equals(name)) {
+          deck.add(card);
+        }
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Checks the kept score, row count and foundation heights against counts made from scratch.
+   * The score is counted as the cards that are in neither the cascades nor the stock, and
+   * compared with the foundation heights, which are checked against the foundation tops. The
+   * draw cards read one at a time are checked against the copied list of them.
+   */
+  private void checkCounts(AbstractKlondike game, int deckSize) {
+    List<BasicCard> drawCards = game.getDrawCards();
+    assertEquals(drawCards.size(), game.getDrawCount());
+    for (int index = 0; index < drawCards.size(); index++) {
+      assertEquals(drawCards.get(index), game.getDrawCard(index));
+    }
+    int tallest = 0;
+    int inPlay = game.getDrawCount() + game.getStockCount();
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      tallest = Math.max(tallest, game.getPileHeight(pile));
+      inPlay += game.getPileHeight(pile);
+    }
+    int onFoundations = 0;
+    for (int foundation = 0; foundation < game.getNumFoundations(); foundation++) {
+      int height = game.getFoundationHeight(foundation);
+      BasicCard top = game.getCardAt(foundation);
+      assertEquals(top == null ? 0 : top.getRank().getValue(), height);
+      onFoundations += height;
+    }
+    assertEquals(tallest, game.getNumRows());
+    assertEquals(deckSize - inPlay, game.getScore());
+    assertEquals(onFoundations, game.getScore());
+  }
+
+  @Test
+  public void testEmptyingPilesAndShrinkingTallest() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    // Pile 0 holds A♡, pile 1 holds 2♢ under A♢, and 2♡ is the draw card.
+    game.startGame(this.deckOf(game, "A♡", "2♢", "A♢", "2♡"), false, 2, 1);
+    this.checkCounts(game, 4);
+    assertEquals(2, game.getNumRows());
+
+    game.moveToFoundation(1, 0);
+    assertEquals(1, game.getNumRows());
+    this.checkCounts(game, 4);
+    game.moveToFoundation(0, 1);
+    assertEquals(0, game.getPileHeight(0));
+    assertEquals(1, game.getNumRows());
+    this.checkCounts(game, 4);
+    game.moveDrawToFoundation(1);
+    assertEquals(3, game.getScore());
+    this.checkCounts(game, 4);
+    game.moveToFoundation(1, 0);
+    assertEquals(0, game.getNumRows());
+    assertEquals(4, game.getScore());
+    this.checkCounts(game, 4);
+
+    while (game.canUndo()) {
+      game.undo();
+      this.checkCounts(game, 4);
+    }
+    assertEquals(2, game.getNumRows());
+    assertEquals(0, game.getScore());
+  }
+
+  @Test
+  public void testMovingRunsChangesTallest() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    // Pile 0 holds 3♡, and pile 1 holds 4♢ under 2♡, with A♡ on top of the stock.
+    game.startGame(this.deckOf(game, "3♡", "4♢", "2♡", "A♡", "2♢", "A♢", "3♢", "4♡"), false,
+        2, 1);
+    this.checkCounts(game, 8);
+
+    game.movePile(1, 1, 0);
+    assertEquals(2, game.getNumRows());
+    this.checkCounts(game, 8);
+    game.moveDraw(0);
+    assertEquals(3, game.getNumRows());
+    this.checkCounts(game, 8);
+    game.movePile(0, 3, 1);
+    assertEquals(0, game.getPileHeight(0));
+    assertEquals(4, game.getNumRows());
+    this.checkCounts(game, 8);
+    game.undo();
+    assertEquals(3, game.getNumRows());
+    this.checkCounts(game, 8);
+  }
+
+  @Test
+  public void testCountsMatchAfterEveryMove() {
+    Random random = new Random(606);
+    int[] moves = new int[4096];
+    int[] kinds = new int[KlondikeMoves.DISCARD_DRAW + 1];
+    for (int game = 0; game < 30; game++) {
+      AbstractKlondike model = game % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      List<BasicCard> deck = model.createNewDeck(1 + game % 3);
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 7 + game % 3, 1 + game % 3);
+      this.checkCounts(model, deck.size());
+
+      for (int turn = 0; turn < 300; turn++) {
+        int count = MoveGenerator.legalMoves(model, moves);
+        if (count == 0) {
+          break;
+        }
+        if (turn % 10 == 9 && model.canUndo()) {
+          model.undo();
+        } else {
+          // Foundation and pile moves come first, so favour them over the draw moves.
+          int move = moves[random.nextInt(random.nextBoolean() ? count : (count + 1) / 2)];
+          kinds[KlondikeMoves.kind(move)]++;
+          KlondikeMoves.apply(model, move);
+        }
+        this.checkCounts(model, deck.size());
+      }
+    }
+    for (int kind = 0; kind < kinds.length; kind++) {
+      assertTrue(kinds[kind] > 0);
+    }
+  }
+}
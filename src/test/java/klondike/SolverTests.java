@@ -0,0 +1,167 @@
+package klondike;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.solver.SolveResult;
+import klondike.solver.SolveStatus;
+import klondike.solver.Solver;
+import klondike.solver.TranspositionTable;
+import org.junit.Test;
+
+/**
+ * Tests for the depth-first Solver and its TranspositionTable.
+ */
+public class SolverTests {
+  private final Solver solver = new Solver(2_000_000, 64L << 20);
+
+  /**
+   * Builds a deck of the given cards, in the given order.
+   */
+  private List<BasicCard> deckOf(AbstractKlondike model, String... names) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (String name : names) {
+      for (BasicCard card : model.createNewDeck()) {
+        if (card.toString().equals(name)) {
+          deck.add(card);
+        }
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Builds a shuffled deck of just the clubs and diamonds.
+   */
+  private List<BasicCard> redAndBlack(AbstractKlondike model) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : model.createNewDeck()) {
+      if (card.getSuit() == Suit.CLUBS || card.getSuit() == Suit.DIAMONDS) {
+        deck.add(card);
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Plays the given moves in the given game and checks that they win it.
+   */
+  private void assertWins(AbstractKlondike game, int[] moves) {
+    int cards = game.getStockCount() + game.getDrawCards().size();
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      cards += game.getPileHeight(pile);
+    }
+    for (int move : moves) {
+      KlondikeMoves.apply(game, move);
+    }
+    assertEquals(cards, game.getScore());
+  }
+
+  @Test
+  public void testSolvesSmallDeal() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(this.deckOf(game, "A♢", "2♢", "A♣", "2♣"), false, 2, 1);
+    SolveResult result = this.solver.solve(game);
+    assertEquals(SolveStatus.SOLVED, result.getStatus());
+    this.assertWins(game, result.getMoves());
+  }
+
+  @Test
+  public void testProvesDealUnsolvable() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(this.deckOf(game, "A♢", "A♣", "2♣", "2♢"), false, 2, 1);
+    SolveResult result = this.solver.solve(game);
+    assertEquals(SolveStatus.UNSOLVABLE, result.getStatus());
+    assertEquals(0, result.getMoves().length);
+    assertTrue(result.getNodes() > 0);
+  }
+
+  @Test
+  public void testSolvesWithHiddenCards() {
+    for (long seed = 0; seed < 5; seed++) {
+      AbstractKlondike game = new BasicKlondike();
+      game.startGame(this.redAndBlack(game), seed, 5, 1);
+      long hash = game.stateHash();
+      SolveResult result = this.solver.solve(game);
+      assertEquals(hash, game.stateHash());
+      assertTrue(result.toString(), result.getStatus() == SolveStatus.SOLVED
+          || result.getStatus() == SolveStatus.UNSOLVABLE);
+      if (result.getStatus() == SolveStatus.SOLVED) {
+        this.assertWins(game, result.getMoves());
+      }
+    }
+  }
+
+  @Test
+  public void testNodeBudget() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), 12L, 7, 3);
+    SolveResult result = new Solver(50, TranspositionTable.MIN_BYTES).solve(game);
+    assertTrue(result.getStatus() == SolveStatus.NODE_LIMIT
+        || result.getStatus() == SolveStatus.SOLVED);
+    assertTrue(result.getNodes() <= 50);
+    assertTrue(result.nodesPerSecond() > 0);
+  }
+
+  @Test
+  public void testMemoryBudget() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), 3L, 7, 1);
+    SolveResult result = new Solver(Long.MAX_VALUE, TranspositionTable.MIN_BYTES).solve(game);
+    assertTrue(result.getStatus() != SolveStatus.NODE_LIMIT);
+    if (result.getStatus() == SolveStatus.MEMORY_LIMIT) {
+      assertEquals(3 * (TranspositionTable.MIN_BYTES / 8) / 4 - 1, result.getNodes());
+    }
+  }
+
+  @Test
+  public void testAlreadyWon() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(this.deckOf(game, "A♢"), false, 1, 1);
+    game.moveToFoundation(0, 0);
+    assertArrayEquals(new int[0], this.solver.solve(game).getMoves());
+    assertEquals(SolveStatus.SOLVED, this.solver.solve(game).getStatus());
+  }
+
+  @Test
+  public void testTranspositionTable() {
+    TranspositionTable table = new TranspositionTable(TranspositionTable.MIN_BYTES * 4);
+    assertTrue(table.add(0));
+    assertTrue(!table.add(0));
+    for (long hash = 1; hash < 10_000; hash++) {
+      assertTrue(table.add(hash * 0x9E3779B97F4A7C15L));
+    }
+    assertEquals(10_000, table.size());
+    assertTrue(table.contains(0x9E3779B97F4A7C15L));
+    assertTrue(!table.contains(17));
+    assertTrue(!table.add(5 * 0x9E3779B97F4A7C15L));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFullTable() {
+    TranspositionTable table = new TranspositionTable(TranspositionTable.MIN_BYTES);
+    for (long hash = 1; !table.isFull(); hash++) {
+      table.add(hash);
+    }
+    table.add(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new Solver(0, 64L << 20);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSolveUnstartedGame() {
+    this.solver.solve(new BasicKlondike());
+  }
+}
@@ -0,0 +1,207 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for the Zobrist hash of the positions of the list-based KlondikeModels.
+ */
+public class StateHashTests {
+
+  /**
+   * Builds a deck of the given cards, in the given order.
+   */
+  private List<BasicCard> deckOf(AbstractKlondike model, String... names) {
+    List<BasicCard> deck = new ArrayList<>();
+    for (String name : names) {
+      for (BasicCard card : model.createNewDeck()) {
+        if (card.toString().equals(name)) {
+          deck.add(card);
+        }
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Describes everything a player can see about a game.
+   */
+  private String describe(AbstractKlondike game) {
+    StringBuilder description = new StringBuilder();
+    description.append(game.getDrawCards()).append(game.getStockCount()).append('|');
+    for (int foundation = 0; foundation < game.getNumFoundations(); foundation++) {
+      description.append(game.getCardAt(foundation)).append(',');
+    }
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      description.append('|');
+      for (int card = 0; card < game.getPileHeight(pile); card++) {
+        description.append(game.isCardVisible(pile, card) ? game.getCardAt(pile, card) : "?");
+      }
+    }
+    return description.toString();
+  }
+
+  @Test
+  public void testSameDealSameHash() {
+    AbstractKlondike first = new BasicKlondike();
+    AbstractKlondike second = new BasicKlondike();
+    first.startGame(first.createNewDeck(), false, 7, 3);
+    second.startGame(second.createNewDeck(), false, 7, 3);
+    assertEquals(first.stateHash(), second.stateHash());
+
+    AbstractKlondike whitehead = new WhiteheadKlondike();
+    whitehead.startGame(whitehead.createNewDeck(), false, 7, 3);
+    assertNotEquals(first.stateHash(), whitehead.stateHash());
+  }
+
+  @Test
+  public void testCyclingStockRestoresHash() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 1);
+    long start = game.stateHash();
+    game.discardDraw();
+    assertNotEquals(start, game.stateHash());
+    for (int discard = 1; discard < 52 - 28; discard++) {
+      game.discardDraw();
+    }
+    assertEquals(start, game.stateHash());
+  }
+
+  @Test
+  public void testOrderOfMovesDoesNotMatter() {
+    AbstractKlondike first = new BasicKlondike();
+    AbstractKlondike second = new BasicKlondike();
+    AbstractKlondike third = new BasicKlondike();
+    first.startGame(this.deckOf(first, "A♢", "A♣", "A♡"), false, 2, 1);
+    second.startGame(this.deckOf(second, "A♢", "A♣", "A♡"), false, 2, 1);
+    third.startGame(this.deckOf(third, "A♢", "A♣", "A♡"), false, 2, 1);
+
+    first.moveToFoundation(0, 0);
+    first.moveToFoundation(1, 1);
+    second.moveToFoundation(1, 1);
+    second.moveToFoundation(0, 0);
+    third.moveToFoundation(0, 2);
+    third.moveToFoundation(1, 1);
+
+    assertEquals(first.stateHash(), second.stateHash());
+    assertNotEquals(first.stateHash(), third.stateHash());
+  }
+
+  @Test
+  public void testEqualHashesMeanEqualPositions() {
+    Random random = new Random(700);
+    for (int game = 0; game < 20; game++) {
+      AbstractKlondike model = game % 2 == 0 ? new BasicKlondike() : new WhiteheadKlondike();
+      List<BasicCard> deck = model.createNewDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 7, 1 + random.nextInt(3));
+      Map<Long, String> seen = new HashMap<>();
+
+      for (int turn = 0; turn < 300; turn++) {
+        long before = model.stateHash();
+        boolean moved = true;
+        int pile = random.nextInt(7);
+        try {
+          switch (random.nextInt(5)) {
+            case 0:
+              model.movePile(pile, 1 + random.nextInt(3), random.nextInt(7));
+              break;
+            case 1:
+              model.moveDraw(pile);
+              break;
+            case 2:
+              model.moveToFoundation(pile, random.nextInt(4));
+              break;
+            case 3:
+              model.moveDrawToFoundation(random.nextInt(4));
+              break;
+            default:
+              model.discardDraw();
+              break;
+          }
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+          moved = false;
+        }
+
+        if (moved) {
+          assertNotEquals(before, model.stateHash());
+        } else {
+          assertEquals(before, model.stateHash());
+        }
+        String description = this.describe(model);
+        assertEquals(description, seen.computeIfAbsent(model.stateHash(), hash -> description));
+      }
+    }
+  }
+
+  @Test
+  public void testUnorderedHashIgnoresPileOrder() {
+    AbstractKlondike first = new WhiteheadKlondike();
+    first.startGame(this.deckOf(first, "A♡", "2♢", "A♢", "2♡"), false, 2, 1);
+    AbstractKlondike second = first.fork();
+    first.moveToFoundation(0, 0);
+    first.moveToFoundation(1, 1);
+    second.moveToFoundation(1, 0);
+    second.moveToFoundation(0, 1);
+    assertNotEquals(first.stateHash(), second.stateHash());
+    assertEquals(first.unorderedHash(), second.unorderedHash());
+
+    long before = first.unorderedHash();
+    first.movePile(1, 1, 0);
+    assertEquals(before, first.unorderedHash());
+    first.moveToFoundation(0, 1);
+    assertNotEquals(before, first.unorderedHash());
+    first.undo();
+    first.undo();
+    assertEquals(before, first.unorderedHash());
+  }
+
+  @Test
+  public void testMultiDeckStockOrders() {
+    Random random = new Random(77);
+    AbstractKlondike model = new BasicKlondike();
+    List<BasicCard> deck = model.createNewDeck(2);
+    Collections.shuffle(deck, random);
+    model.startGame(deck, false, 7, 1);
+    int swaps = 0;
+    while (swaps < 200) {
+      // The stock is dealt from the end of the deck, past the 28 cascade cards.
+      int first = 28 + random.nextInt(deck.size() - 28);
+      int second = 28 + random.nextInt(deck.size() - 28);
+      if (first == second) {
+        continue;
+      }
+      List<BasicCard> swapped = new ArrayList<>(deck);
+      Collections.swap(swapped, first, second);
+      AbstractKlondike other = new BasicKlondike();
+      other.startGame(swapped, false, 7, 1);
+      if (deck.get(first).equals(deck.get(second))) {
+        assertEquals(model.stateHash(), other.stateHash());
+      } else {
+        assertNotEquals(model.stateHash(), other.stateHash());
+        swaps++;
+      }
+    }
+
+    long start = model.stateHash();
+    Map<Long, Integer> seen = new HashMap<>();
+    for (int discard = 0; discard < deck.size() - 28; discard++) {
+      assertNull(seen.put(model.stateHash(), discard));
+      model.discardDraw();
+    }
+    assertEquals(start, model.stateHash());
+  }
+}
@@ -0,0 +1,155 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.Rank;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.StockPile;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for StockPile.
+ */
+public class StockPileTests {
+  StockPile<BasicCard> stock;
+
+  /**
+   * Creates a stock of four cards showing two draw cards.
+   */
+  @Before
+  public void setUp() {
+    stock = new StockPile<>(List.of(BasicCard.of(Rank.ACE, Suit.HEARTS),
+        BasicCard.of(Rank.TWO, Suit.HEARTS), BasicCard.of(Rank.THREE, Suit.HEARTS),
+        BasicCard.of(Rank.FOUR, Suit.HEARTS)), 2);
+  }
+
+  @Test
+  public void testDrawCards() {
+    assertEquals("[A♡, 2♡]", stock.getDrawCards().toString());
+    assertEquals(2, stock.getStockCount());
+  }
+
+  @Test
+  public void testDiscardCyclesToBottom() {
+    stock.discardDraw();
+    assertEquals("[2♡, 3♡]", stock.getDrawCards().toString());
+    stock.discardDraw();
+    stock.discardDraw();
+    assertEquals("[4♡, A♡]", stock.getDrawCards().toString());
+    stock.discardDraw();
+    assertEquals("[A♡, 2♡]", stock.getDrawCards().toString());
+    assertEquals(0, stock.getDiscardsBeforeRepeat());
+  }
+
+  @Test
+  public void testTakeRevealsNext() {
+    stock.discardDraw();
+    assertEquals(3, stock.getDiscardsBeforeRepeat());
+    assertEquals("2♡", stock.takeDraw().toString());
+    assertEquals("[3♡, 4♡]", stock.getDrawCards().toString());
+    assertEquals(3, stock.getDiscardsBeforeRepeat());
+    stock.discardDraw();
+    assertEquals("[4♡, A♡]", stock.getDrawCards().toString());
+    stock.takeDraw();
+    stock.takeDraw();
+    assertEquals("[3♡]", stock.getDrawCards().toString());
+    assertEquals(0, stock.getStockCount());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCannotDiscardWithoutStock() {
+    stock.takeDraw();
+    stock.takeDraw();
+    stock.discardDraw();
+  }
+
+  @Test
+  public void testUndoTakeAndDiscard() {
+    final long start = stock.getHash();
+    stock.discardDraw();
+    stock.undoDiscard(0);
+    assertEquals("[A♡, 2♡]", stock.getDrawCards().toString());
+    assertEquals(start, stock.getHash());
+
+    stock.discardDraw();
+    int discards = stock.getDiscardsSinceTake();
+    BasicCard taken = stock.takeDraw();
+    stock.returnDraw(taken, discards);
+    assertEquals("[2♡, 3♡]", stock.getDrawCards().toString());
+    assertEquals(3, stock.getDiscardsBeforeRepeat());
+    stock.undoDiscard(0);
+    assertEquals(start, stock.getHash());
+    assertEquals("[A♡, 2♡]", stock.getDrawCards().toString());
+  }
+
+  @Test
+  public void testReturnToEmptyStock() {
+    final long start = stock.getHash();
+    List<BasicCard> taken = new ArrayList<>();
+    for (int card = 0; card < 4; card++) {
+      taken.add(stock.takeDraw());
+    }
+    assertEquals(0, stock.getDrawCount());
+    for (int card = 3; card >= 0; card--) {
+      stock.returnDraw(taken.get(card), 0);
+    }
+    assertEquals(start, stock.getHash());
+    assertEquals("[A♡, 2♡]", stock.getDrawCards().toString());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCannotReturnToFullStock() {
+    stock.returnDraw(stock.getDrawCard(0), 0);
+  }
+
+  @Test
+  public void testReplaceStockKeepsDrawCards() {
+    stock.discardDraw();
+    BasicCard[] replacements = {BasicCard.of(Rank.FIVE, Suit.HEARTS),
+        BasicCard.of(Rank.SIX, Suit.HEARTS)};
+    stock.replaceStock(replacements, 0);
+    assertEquals("[2♡, 3♡]", stock.getDrawCards().toString());
+    assertEquals(3, stock.getDiscardsBeforeRepeat());
+    StockPile<BasicCard> fresh = new StockPile<>(List.of(BasicCard.of(Rank.TWO, Suit.HEARTS),
+        BasicCard.of(Rank.THREE, Suit.HEARTS), BasicCard.of(Rank.FIVE, Suit.HEARTS),
+        BasicCard.of(Rank.SIX, Suit.HEARTS)), 2);
+    assertEquals(fresh.getHash(), stock.getHash());
+  }
+
+  @Test
+  public void testDuplicateCardsHashByPlace() {
+    BasicCard ace = BasicCard.of(Rank.ACE, Suit.HEARTS);
+    BasicCard two = BasicCard.of(Rank.TWO, Suit.HEARTS);
+    StockPile<BasicCard> first = new StockPile<>(List.of(ace, ace, two), 1);
+    StockPile<BasicCard> second = new StockPile<>(List.of(ace, two, ace), 1);
+    StockPile<BasicCard> third = new StockPile<>(List.of(two, ace, ace), 1);
+    assertNotEquals(first.getHash(), second.getHash());
+    assertNotEquals(first.getHash(), third.getHash());
+    assertNotEquals(second.getHash(), third.getHash());
+
+    second.discardDraw();
+    assertEquals(third.getHash(), second.getHash());
+    second.discardDraw();
+    assertEquals(first.getHash(), second.getHash());
+    second.takeDraw();
+    assertEquals(new StockPile<>(List.of(ace, two), 1).getHash(), second.getHash());
+    first.takeDraw();
+    assertEquals(new StockPile<>(List.of(ace, two), 1).getHash(), first.getHash());
+  }
+
+  @Test
+  public void testDuplicatePairsDoNotCancel() {
+    BasicCard ace = BasicCard.of(Rank.ACE, Suit.HEARTS);
+    BasicCard two = BasicCard.of(Rank.TWO, Suit.HEARTS);
+    StockPile<BasicCard> pairs = new StockPile<>(List.of(ace, two, ace, two), 1);
+    StockPile<BasicCard> doubled = new StockPile<>(List.of(ace, ace, two, two), 1);
+    assertNotEquals(pairs.getHash(), doubled.getHash());
+    assertNotEquals(new StockPile<>(List.of(ace, ace), 1).getHash(),
+        new StockPile<>(List.of(ace), 1).getHash());
+  }
+}
@@ -0,0 +1,149 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicKlondike;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Test;
+
+/**
+ * Tests for undoing and redoing moves in the list-based KlondikeModels.
+ */
+public class UndoTests {
+
+  /**
+   * Describes everything a player can see about a game, along with its hash.
+   */
+  private String describe(AbstractKlondike game) {
+    StringBuilder description = new StringBuilder();
+    description.append(game.stateHash()).append(game.getDrawCards())
+        .append(game.getStockCount()).append(game.getDiscardsBeforeRepeat())
+        .append(game.getScore()).append(game.getNumRows()).append('|');
+    for (int foundation = 0; foundation < game.getNumFoundations(); foundation++) {
+      description.append(game.getCardAt(foundation)).append(',');
+    }
+    for (int pile = 0; pile < game.getNumPiles(); pile++) {
+      description.append('|');
+      for (int card = 0; card < game.getPileHeight(pile); card++) {
+        description.append(game.isCardVisible(pile, card) ? game.getCardAt(pile, card) : "?");
+      }
+    }
+    return description.toString();
+  }
+
+  /**
+   * Plays random legal moves, then checks that undoing every one of them walks back through the
+   * same positions, and that redoing them all walks forward again.
+   */
+  private void checkUndoRedo(AbstractKlondike game, Random random) {
+    List<String> positions = new ArrayList<>();
+    positions.add(this.describe(game));
+    int piles = game.getNumPiles();
+    for (int turn = 0; turn < 400; turn++) {
+      int move;
+      switch (random.nextInt(5)) {
+        case 0:
+          move = KlondikeMoves.movePile(random.nextInt(piles), 1 + random.nextInt(3),
+              random.nextInt(piles));
+          break;
+        case 1:
+          move = KlondikeMoves.moveDraw(random.nextInt(piles));
+          break;
+        case 2:
+          move = KlondikeMoves.moveToFoundation(random.nextInt(piles), random.nextInt(4));
+          break;
+        case 3:
+          move = KlondikeMoves.moveDrawToFoundation(random.nextInt(4));
+          break;
+        default:
+          move = KlondikeMoves.discardDraw();
+          break;
+      }
+      try {
+        KlondikeMoves.apply(game, move);
+        positions.add(this.describe(game));
+      } catch (IllegalArgumentException | IllegalStateException ex) {
+        // not a legal move here, so nothing was recorded
+      }
+    }
+
+    for (int position = positions.size() - 2; position >= 0; position--) {
+      game.undo();
+      assertEquals(positions.get(position), this.describe(game));
+    }
+    assertFalse(game.canUndo());
+    for (int position = 1; position < positions.size(); position++) {
+      game.redo();
+      assertEquals(positions.get(position), this.describe(game));
+    }
+    assertFalse(game.canRedo());
+  }
+
+  @Test
+  public void testUndoRedoBasic() {
+    Random random = new Random(41);
+    for (int game = 0; game < 20; game++) {
+      AbstractKlondike model = new BasicKlondike();
+      List<BasicCard> deck = model.createNewDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 7, 1 + random.nextInt(3));
+      this.checkUndoRedo(model, random);
+    }
+  }
+
+  @Test
+  public void testUndoRedoWhitehead() {
+    Random random = new Random(42);
+    for (int game = 0; game < 20; game++) {
+      AbstractKlondike model = new WhiteheadKlondike();
+      List<BasicCard> deck = model.createNewDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, false, 7, 1 + random.nextInt(3));
+      this.checkUndoRedo(model, random);
+    }
+  }
+
+  @Test
+  public void testUndoHidesRevealedCard() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    game.moveToFoundation(2, 1);
+    assertTrue(game.isCardVisible(2, 1));
+    game.undo();
+    assertFalse(game.isCardVisible(2, 1));
+    assertTrue(game.isCardVisible(2, 2));
+    assertEquals("A♣", game.getCardAt(2, 2).toString());
+  }
+
+  @Test
+  public void testNewMoveForgetsRedo() {
+    AbstractKlondike game = new BasicKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    game.discardDraw();
+    game.undo();
+    assertTrue(game.canRedo());
+    game.moveToFoundation(0, 0);
+    assertFalse(game.canRedo());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNothingToUndo() {
+    AbstractKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), false, 7, 3);
+    game.undo();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUndoBeforeStart() {
+    new BasicKlondike().undo();
+  }
+}
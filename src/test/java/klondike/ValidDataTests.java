@@ -0,0 +1,76 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.BasicPile;
+import klondike.model.hw02.BasicValidData;
+import klondike.model.hw02.Rank;
+import klondike.model.hw02.Suit;
+import klondike.model.hw02.ValidData;
+import klondike.model.hw04.WhiteheadValidData;
+import org.junit.Test;
+
+/**
+ * Tests for the precomputed rule tables of the ValidData implementations.
+ */
+public class ValidDataTests {
+  private final ValidData<BasicCard> basic = new BasicValidData();
+  private final ValidData<BasicCard> whitehead = new WhiteheadValidData();
+
+  @Test
+  public void testTablesMatchRules() {
+    for (int top = 0; top < BasicCard.numIds(); top++) {
+      for (int bottom = 0; bottom < BasicCard.numIds(); bottom++) {
+        BasicCard topCard = BasicCard.fromId(top);
+        BasicCard bottomCard = BasicCard.fromId(bottom);
+        boolean descending = topCard.getValue() == bottomCard.getValue() - 1;
+        boolean sameColor = topCard.getSuit().sameColor(bottomCard.getSuit());
+
+        assertEquals(descending && !sameColor, this.basic.validNext(top, bottom));
+        assertEquals(descending && sameColor, this.whitehead.validNext(top, bottom));
+        assertEquals(topCard.getSuit() == bottomCard.getSuit()
+                && topCard.getValue() == bottomCard.getValue() + 1,
+            this.basic.validCardForFoundation(top, bottom));
+        assertEquals(this.basic.validCardForFoundation(top, bottom),
+            this.whitehead.validCardForFoundation(top, bottom));
+      }
+    }
+  }
+
+  @Test
+  public void testCardsMatchIds() {
+    BasicCard six = new BasicCard(Rank.SIX, Suit.HEARTS);
+    BasicCard seven = new BasicCard(Rank.SEVEN, Suit.SPADES);
+    assertTrue(this.basic.validNext(six, seven));
+    assertFalse(this.whitehead.validNext(six, seven));
+    assertTrue(this.whitehead.validNext(six, BasicCard.of(Rank.SEVEN, Suit.DIAMONDS)));
+    assertTrue(this.basic.validCardForFoundation(seven,
+        BasicCard.of(Rank.SIX, Suit.SPADES)));
+  }
+
+  @Test
+  public void testWhiteheadRunsShareSuit() {
+    BasicPile dest = new BasicPile(new ArrayList<>(List.of(BasicCard.of(Rank.SEVEN,
+        Suit.DIAMONDS))));
+    BasicPile sameSuit = new BasicPile(new ArrayList<>(List.of(BasicCard.of(Rank.SIX,
+        Suit.HEARTS), BasicCard.of(Rank.FIVE, Suit.HEARTS))));
+    BasicPile mixedSuits = new BasicPile(new ArrayList<>(List.of(BasicCard.of(Rank.SIX,
+        Suit.DIAMONDS), BasicCard.of(Rank.FIVE, Suit.HEARTS))));
+    assertTrue(this.whitehead.canMoveRun(dest, sameSuit, 2));
+    assertFalse(this.whitehead.canMoveRun(dest, mixedSuits, 2));
+    assertTrue(this.whitehead.canMoveRun(new BasicPile(), mixedSuits, 1));
+    assertFalse(this.whitehead.canMoveRun(new BasicPile(), mixedSuits, 2));
+    this.whitehead.validAddToCascade(dest, sameSuit);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWhiteheadAddMixedSuits() {
+    this.whitehead.validAddToCascade(new BasicPile(), new BasicPile(new ArrayList<>(
+        List.of(BasicCard.of(Rank.SIX, Suit.DIAMONDS), BasicCard.of(Rank.FIVE, Suit.HEARTS)))));
+  }
+}
@@ -0,0 +1,93 @@
+package klondike;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import klondike.model.hw02.BasicCard;
+import klondike.model.hw02.Suit;
+import klondike.model.hw04.AbstractKlondike;
+import klondike.model.hw04.KlondikeMoves;
+import klondike.model.hw04.WhiteheadKlondike;
+import klondike.solver.SolveResult;
+import klondike.solver.SolveStatus;
+import klondike.solver.Solver;
+import klondike.solver.WhiteheadSolver;
+import org.junit.Test;
+
+/**
+ * Tests for the WhiteheadSolver.
+ */
+public class WhiteheadSolverTests {
+  private final WhiteheadSolver solver = new WhiteheadSolver(2_000_000, 64L << 20);
+
+  /**
+   * Deals a game of just the clubs and diamonds from the given seed.
+   */
+  private WhiteheadKlondike dealt(long seed, int numPiles) {
+    WhiteheadKlondike model = new WhiteheadKlondike();
+    List<BasicCard> deck = new ArrayList<>();
+    for (BasicCard card : model.createNewDeck()) {
+      if (card.getSuit() == Suit.CLUBS || card.getSuit() == Suit.DIAMONDS) {
+        deck.add(card);
+      }
+    }
+    model.startGame(deck, seed, numPiles, 1);
+    return model;
+  }
+
+  /**
+   * Plays the given moves in a fork of the given game and checks that they win it.
+   */
+  private void assertWins(AbstractKlondike game, int[] moves, int cards) {
+    AbstractKlondike copy = game.fork();
+    for (int move : moves) {
+      KlondikeMoves.apply(copy, move);
+    }
+    assertEquals(cards, copy.getScore());
+  }
+
+  @Test
+  public void testAgreesWithSolver() {
+    Solver generic = new Solver(2_000_000, 64L << 20);
+    for (long seed = 0; seed < 20; seed++) {
+      WhiteheadKlondike game = this.dealt(seed, 5);
+      long hash = game.stateHash();
+      SolveResult result = this.solver.solve(game);
+      SolveResult expected = generic.solve(game);
+      assertEquals(hash, game.stateHash());
+      assertEquals(expected.getStatus(), result.getStatus());
+      if (result.getStatus() == SolveStatus.SOLVED) {
+        this.assertWins(game, result.getMoves(), 26);
+      }
+    }
+  }
+
+  @Test
+  public void testFullDeal() {
+    WhiteheadKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), 24L, 7, 3);
+    SolveResult result = this.solver.solve(game);
+    assertEquals(SolveStatus.SOLVED, result.getStatus());
+    this.assertWins(game, result.getMoves(), 52);
+  }
+
+  @Test
+  public void testNodeBudget() {
+    WhiteheadKlondike game = new WhiteheadKlondike();
+    game.startGame(game.createNewDeck(), 20L, 7, 3);
+    SolveResult result = new WhiteheadSolver(100, 64L << 20).solve(game);
+    assertEquals(SolveStatus.NODE_LIMIT, result.getStatus());
+    assertEquals(100, result.getNodes());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new WhiteheadSolver(0, 64L << 20);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSolveUnstartedGame() {
+    this.solver.solve(new WhiteheadKlondike());
+  }
+}